@@ -0,0 +1,138 @@
+package geometries;
+
+import org.openjdk.jmh.annotations.*;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the ray-geometry intersection kernels, both the list based helpers and the
+ * allocation-free distance kernels, with a ray that hits the geometry and a ray that misses it
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntersectionBenchmark {
+    /**
+     * Whether the traced ray hits the geometries or passes beside them
+     */
+    @Param({"hit", "miss"})
+    public String ray;
+
+    /**
+     * Sphere in front of the ray
+     */
+    private final Sphere sphere = new Sphere(new Point(0, 0, 10), 2);
+    /**
+     * Plane facing the ray
+     */
+    private final Plane plane = new Plane(new Point(0, 0, 10), new Vector(0, 0, 1));
+    /**
+     * Triangle in front of the ray
+     */
+    private final Triangle triangle = new Triangle(new Point(-2, -2, 10), new Point(2, -2, 10), new Point(0, 2, 10));
+    /**
+     * Square polygon in front of the ray
+     */
+    private final Polygon polygon = new Polygon(new Point(-2, -2, 10), new Point(2, -2, 10),
+            new Point(2, 2, 10), new Point(-2, 2, 10));
+    /**
+     * The traced ray
+     */
+    private Ray tracedRay;
+
+    /**
+     * Prepares the traced ray
+     */
+    @Setup
+    public void setup() {
+        tracedRay = ray.equals("hit")
+                ? new Ray(new Point(0.3, 0.2, 0), new Vector(0.01, 0, 1))
+                : new Ray(new Point(5, 5, 0), new Vector(0.2, 0.1, 1));
+    }
+
+    /**
+     * Sphere's list based intersection
+     *
+     * @return the intersections, consumed by the harness
+     */
+    @Benchmark
+    public Object sphereHelper() {
+        return sphere.findGeoIntersectionsHelper(tracedRay, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Plane's list based intersection
+     *
+     * @return the intersections, consumed by the harness
+     */
+    @Benchmark
+    public Object planeHelper() {
+        return plane.findGeoIntersectionsHelper(tracedRay, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Triangle's list based intersection
+     *
+     * @return the intersections, consumed by the harness
+     */
+    @Benchmark
+    public Object triangleHelper() {
+        return triangle.findGeoIntersectionsHelper(tracedRay, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Polygon's list based intersection
+     *
+     * @return the intersections, consumed by the harness
+     */
+    @Benchmark
+    public Object polygonHelper() {
+        return polygon.findGeoIntersectionsHelper(tracedRay, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Sphere's distance kernel
+     *
+     * @return the distance, consumed by the harness
+     */
+    @Benchmark
+    public double sphereDistance() {
+        return sphere.findIntersectionDistance(tracedRay, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Plane's distance kernel
+     *
+     * @return the distance, consumed by the harness
+     */
+    @Benchmark
+    public double planeDistance() {
+        return plane.findIntersectionDistance(tracedRay, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Triangle's distance kernel
+     *
+     * @return the distance, consumed by the harness
+     */
+    @Benchmark
+    public double triangleDistance() {
+        return triangle.findIntersectionDistance(tracedRay, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Polygon's distance kernel
+     *
+     * @return the distance, consumed by the harness
+     */
+    @Benchmark
+    public double polygonDistance() {
+        return polygon.findIntersectionDistance(tracedRay, Double.POSITIVE_INFINITY);
+    }
+}
@@ -0,0 +1,107 @@
+package imageRenders;
+
+import lighting.AmbientLight;
+import lighting.DirectionalLight;
+import lighting.PointLight;
+import lighting.SpotLight;
+import org.openjdk.jmh.annotations.*;
+import primitives.Color;
+import primitives.Point;
+import primitives.Vector;
+import renderer.*;
+import scene.Scene;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.awt.Color.WHITE;
+
+/**
+ * Benchmark for rendering small fixed-size frames of the full scenes with the simple and voxel ray tracers.
+ * the renders are single threaded, so the results do not depend on the machine's cores count
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class SceneBenchmark {
+    /**
+     * The benchmarked scene
+     */
+    @Param({"chess", "diamonds"})
+    public String sceneName;
+    /**
+     * The ray tracer to render with
+     */
+    @Param({"simple", "voxel"})
+    public String tracer;
+
+    /**
+     * Horizontal pixels of the rendered frames
+     */
+    private static final int WIDTH = 80;
+    /**
+     * Vertical pixels of the rendered frames
+     */
+    private static final int HEIGHT = 45;
+    /**
+     * Recursion depth of the rendered frames
+     */
+    private static final int DEPTH = 3;
+
+    /**
+     * The scene, with its geometries and lights
+     */
+    private Scene scene;
+    /**
+     * Camera for rendering the scene
+     */
+    private Camera camera;
+
+    /**
+     * Builds the scene and the camera
+     */
+    @Setup
+    public void setup() {
+        Camera.Builder builder = Camera.getBuilder();
+        if (sceneName.equals("chess")) {
+            scene = new Scene("Chess Scene").setGeometries(new ChessScene().buildScene());
+            scene.setLights(
+                    new SpotLight(new Color(85, 120, 75), new Point(0, 250, 0), new Point(200, 15, 200)),
+                    new DirectionalLight(new Color(79, 139, 168), new Vector(0.8, -0.3, 1))
+            );
+            builder.setFocusPoint(new Point(-900, 1700, -2200), new Point(400, 60, 420))
+                    .setVpDistance(600);
+        } else {
+            scene = new Scene("Diamonds Scene").setGeometries(new DiamondsScene().buildScene());
+            scene.setAmbientLight(new AmbientLight(new Color(WHITE), 0d));
+            scene.setLights(
+                    new PointLight(new Color(28, 97, 64), new Point(-150, 0, -150)).setKl(4E-5).setKq(2E-7),
+                    new SpotLight(new Color(86, 135, 204), new Point(-400, 80, 200), new Point(-100, 0, -100))
+                            .setKl(4E-5).setKq(2E-7),
+                    new SpotLight(new Color(59, 35, 21), new Point(-1300, 300, -1300), new Point(0, 0, 0))
+                            .setKl(4E-5).setKq(2E-7)
+            );
+            builder.setFocusPoint(new Point(-1000, 1700, 4000), new Point(-100, -120, -100))
+                    .setVpDistance(800);
+        }
+
+        camera = builder
+                .setRayTracer(tracer.equals("voxel") ? new VoxelRayTracer(scene) : new SimpleRayTracer(scene))
+                .setVpSize(135, 240)
+                .setImageWriter(new ImageWriter("benchmark", WIDTH, HEIGHT))
+                .build()
+                .setProgressPrintMode(Camera.ProgressPrintMode.NONE);
+    }
+
+    /**
+     * Render of a small frame of the scene
+     *
+     * @return the camera, consumed by the harness
+     */
+    @Benchmark
+    public Camera render() {
+        return camera.renderImage(DEPTH);
+    }
+}
@@ -0,0 +1,49 @@
+package imageRenders;
+
+import org.openjdk.jmh.annotations.*;
+import renderer.RayTracerBase;
+import renderer.VoxelRayTracer;
+import scene.Scene;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for building the voxel grid of the full scenes
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VoxelConstructionBenchmark {
+    /**
+     * The benchmarked scene
+     */
+    @Param({"chess", "diamonds"})
+    public String sceneName;
+
+    /**
+     * The scene with its geometries
+     */
+    private Scene scene;
+
+    /**
+     * Builds the scene
+     */
+    @Setup
+    public void setup() {
+        scene = new Scene(sceneName).setGeometries(sceneName.equals("chess")
+                ? new ChessScene().buildScene() : new DiamondsScene().buildScene());
+    }
+
+    /**
+     * Construction of the voxel grid for the scene
+     *
+     * @return the tracer, consumed by the harness
+     */
+    @Benchmark
+    public RayTracerBase voxelConstruction() {
+        return new VoxelRayTracer(scene);
+    }
+}
@@ -0,0 +1,39 @@
+package primitives;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for generating beams of rays, as done for every pixel with anti-aliasing
+ * and for every glossy or blurry reflection and refraction
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeamBenchmark {
+    /**
+     * The amount of rays in the beam
+     */
+    @Param({"9", "81", "289"})
+    public int rayCasts;
+
+    /**
+     * The main ray of the beam
+     */
+    private final Ray ray = new Ray(new Point(1, 2, 3), new Vector(0.2, -0.4, 1));
+
+    /**
+     * Generation of a beam through a 9x9 grid
+     *
+     * @return the beam, consumed by the harness
+     */
+    @Benchmark
+    public List<Ray> generateBeam() {
+        return ray.generateBeam(9, 2, 10, rayCasts);
+    }
+}
@@ -0,0 +1,40 @@
+package renderer;
+
+import org.openjdk.jmh.annotations.*;
+import primitives.Point;
+import primitives.Vector;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for the random sampling of points on a square blackboard
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlackboardBenchmark {
+    /**
+     * The amount of points to sample
+     */
+    @Param({"9", "81", "289"})
+    public int points;
+
+    /**
+     * The sampled blackboard
+     */
+    private final SquareBlackboard blackboard = new SquareBlackboard(2, new Point(0, 0, 10), new Vector(0, 0, 1), 9);
+
+    /**
+     * Sampling of the blackboard's points
+     *
+     * @return the points, consumed by the harness
+     */
+    @Benchmark
+    public List<Point> randomizePoints() {
+        return blackboard.randomizePoints(points);
+    }
+}
@@ -0,0 +1,92 @@
+package renderer;
+
+import geometries.Plane;
+import geometries.Sphere;
+import lighting.PointLight;
+import org.openjdk.jmh.annotations.*;
+import primitives.Color;
+import primitives.Material;
+import primitives.Point;
+import primitives.Vector;
+import scene.Scene;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for rendering a hall of mirrors with and without Russian roulette. the mirrors reflect each other
+ * until the full recursion depth, which is the worst case of the tracer. the average depth of the rays in the
+ * render's ray trees is printed after each iteration
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class RussianRouletteBenchmark {
+    /**
+     * The bounce depth from which the roulette starts, -1 for no roulette
+     */
+    @Param({"-1", "0", "2"})
+    public int minDepth;
+
+    /**
+     * Horizontal and vertical pixels of the rendered frames
+     */
+    private static final int SIZE = 60;
+    /**
+     * Recursion depth of the rendered frames - the tracer's default
+     */
+    private static final int DEPTH = 10;
+
+    /**
+     * Camera for rendering the scene
+     */
+    private Camera camera;
+
+    /**
+     * Builds the scene and the camera
+     */
+    @Setup
+    public void setup() {
+        Material mirror = new Material().setKd(0.05).setKs(0.1).setShininess(50).setKr(0.9);
+        Scene scene = new Scene("Hall of mirrors");
+        scene.geometries.add(
+                new Plane(new Point(-100, 0, 0), new Vector(1, 0, 0)).setMaterial(mirror),
+                new Plane(new Point(100, 0, 0), new Vector(-1, 0, 0)).setMaterial(mirror),
+                new Plane(new Point(0, -100, 0), new Vector(0, 1, 0))
+                        .setMaterial(new Material().setKd(0.6).setKr(0.3)),
+                new Sphere(new Point(0, -50, -200), 50d).setEmission(new Color(60, 20, 20))
+                        .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(80).setKr(0.2)));
+        scene.lights.add(new PointLight(new Color(800, 800, 700), new Point(0, 150, 0)).setKl(1E-4));
+
+        SimpleRayTracer tracer = new SimpleRayTracer(scene);
+        if (minDepth != -1)
+            tracer.enableRussianRoulette(minDepth);
+        camera = Camera.getBuilder()
+                .setLocation(new Point(30, 0, 400)).setDirection(new Vector(-0.3, 0, -1), Vector.UP)
+                .setVpDistance(400).setVpSize(200, 200)
+                .setImageWriter(new ImageWriter("benchmark", SIZE, SIZE))
+                .setRayTracer(tracer)
+                .build()
+                .setProgressPrintMode(Camera.ProgressPrintMode.NONE);
+    }
+
+    /**
+     * Prints the average depth of the rays in the last render's ray trees
+     */
+    @TearDown(Level.Iteration)
+    public void printDepth() {
+        System.out.printf("average ray depth: %.3f%n", camera.getRenderStats().getAverageRayDepth());
+    }
+
+    /**
+     * Render of a frame of the scene
+     *
+     * @return the camera, consumed by the harness
+     */
+    @Benchmark
+    public Camera render() {
+        return camera.renderImage(DEPTH);
+    }
+}
@@ -18,6 +18,12 @@ public class Geometries extends Intersectable {
      */
     private List<Intersectable> geometries = new LinkedList<>();
 
+    /**
+     * The amount of modifications of the container's content. the acceleration structures over the
+     * geometries compare it to tell whether they must be rebuilt
+     */
+    private long modificationCount = 0;
+
     /**
      * Empty default constructor for creating an empty geometries container
      */
@@ -32,7 +38,12 @@ public class Geometries extends Intersectable {
      */
     public Geometries setEmission(Color emission) {
         for (Intersectable geo : geometries) {
-            ((Geometry) geo).setEmission(emission);
+            if (geo instanceof Geometries nested)
+                nested.setEmission(emission);
+            else if (geo instanceof TriangleMesh mesh)
+                mesh.setEmission(emission);
+            else
+                ((Geometry) geo).setEmission(emission);
         }
         return this;
     }
@@ -45,7 +56,12 @@ public class Geometries extends Intersectable {
      */
     public Geometries setMaterial(Material material) {
         for (Intersectable geo : geometries) {
-            ((Geometry) geo).setMaterial(material);
+            if (geo instanceof Geometries nested)
+                nested.setMaterial(material);
+            else if (geo instanceof TriangleMesh mesh)
+                mesh.setMaterial(material);
+            else
+                ((Geometry) geo).setMaterial(material);
         }
         return this;
     }
@@ -81,6 +97,22 @@ public class Geometries extends Intersectable {
     public void add(Intersectable... geometries) {
         this.geometries.addAll(Arrays.asList(geometries));
         this.setPivot(pivot);
+        ++modificationCount;
+    }
+
+    /**
+     * Gives the amount of modifications of the container's content, including the content of the
+     * containers nested in it. the count only grows, so an unchanged count means unchanged geometries
+     *
+     * @return the amount of modifications of the container and its nested containers
+     */
+    public long getModificationCount() {
+        long count = modificationCount;
+        for (Intersectable geometry : geometries) {
+            if (geometry instanceof Geometries nested)
+                count += nested.getModificationCount();
+        }
+        return count;
     }
 
     @Override
@@ -98,6 +130,42 @@ public class Geometries extends Intersectable {
         return list;
     }
 
+    @Override
+    public GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        //only the distances are compared, the geo-point is created once for the closest geometry
+        Geometry closestGeometry = null;
+        GeoPoint closestNested = null;
+        double closestDistance = maxDistance;
+        for (Intersectable intersectable : geometries) {
+            if (intersectable instanceof Geometry geometry) {
+                double distance = geometry.findIntersectionDistance(ray, closestDistance);
+                if (distance < closestDistance) {
+                    closestDistance = distance;
+                    closestGeometry = geometry;
+                    closestNested = null;
+                }
+            } else {
+                GeoPoint nested = intersectable.findClosestGeoIntersection(ray, closestDistance);
+                if (nested != null) {
+                    closestDistance = ray.getHead().distance(nested.point);
+                    closestNested = nested;
+                    closestGeometry = null;
+                }
+            }
+        }
+        return closestGeometry != null ? new GeoPoint(ray.getPoint(closestDistance), closestGeometry) : closestNested;
+    }
+
+    @Override
+    public Double3 findTransparency(Ray ray, double maxDistance, Double3 ktr, Double3 minK) {
+        for (Intersectable geometry : geometries) {
+            ktr = geometry.findTransparency(ray, maxDistance, ktr, minK);
+            if (ktr.lowerThan(minK))
+                return Double3.ZERO;
+        }
+        return ktr;
+    }
+
     /**
      * Calculates the amount of individual geometry objects contained within
      * this geometries container object
@@ -109,6 +177,8 @@ public class Geometries extends Intersectable {
         for (Intersectable geometry : geometries) {
             if (geometry instanceof Geometries)
                 counter += ((Geometries) geometry).getGeometriesCount();
+            else if (geometry instanceof TriangleMesh mesh)
+                counter += mesh.getTrianglesCount();
             else
                 ++counter;
         }
@@ -126,6 +196,8 @@ public class Geometries extends Intersectable {
         for (Intersectable geometry : geometries) {
             if (geometry instanceof Geometries)
                 boxes.addAll(((Geometries) geometry).getAllBoundingBoxes());
+            else if (geometry instanceof TriangleMesh mesh)
+                boxes.addAll(mesh.getBoundingBoxes());
             else {
                 boxes.add(((Geometry) geometry).getBoundingBox());
             }
@@ -2,6 +2,8 @@ package geometries;
 
 import primitives.*;
 
+import java.util.List;
+
 /**
  * Interface that represents a geometry object in a three-dimensional space
  *
@@ -17,7 +19,24 @@ public abstract class Geometry extends Intersectable {
     /**
      * The Material of the geometry object
      */
-    private Material material = new Material();
+    private Material material;
+
+    /**
+     * Constructor that initializes the geometry with a default material
+     */
+    protected Geometry() {
+        this(new Material());
+    }
+
+    /**
+     * Constructor that initializes the geometry with the given material. used by geometries that share
+     * a single material, such as the faces of a mesh, so no default material is created for each of them
+     *
+     * @param material the material of the geometry object
+     */
+    protected Geometry(Material material) {
+        this.material = material;
+    }
 
     /**
      * Getter for the geometry object's emission light
@@ -73,4 +92,78 @@ public abstract class Geometry extends Intersectable {
      * @return the bounding box that contains this geometry object
      */
     public abstract BoundingBox getBoundingBox();
+
+    /**
+     * Checks if the geometry has a finite bounding box. unbounded geometries (e.g. planes) only have a
+     * box around a portion of them, so acceleration structures keep them aside and test them for every ray
+     *
+     * @return true if the geometry is contained in its bounding box, default is true
+     */
+    public boolean isBounded() {
+        return true;
+    }
+
+    /**
+     * Gives the distance from the ray's head to the closest intersection of the ray with this geometry,
+     * within the given distance-range. the test is counted in the intersection counter bound to
+     * the current thread, if there is one
+     *
+     * @param ray         a ray we wish to trace its intersections
+     * @param maxDistance distance range. how far from the ray's starting point we will look for intersections
+     * @return the distance to the closest intersection, or positive infinity if there is none in range
+     */
+    public final double findIntersectionDistance(Ray ray, double maxDistance) {
+        IntersectionCounter.count(this);
+        return findIntersectionDistanceHelper(ray, maxDistance);
+    }
+
+    /**
+     * Helper method for finding the distance to the closest intersection of the ray with this geometry,
+     * within the given distance-range. geometries used in the rendering's hot path override this with
+     * a kernel that works on raw doubles and allocates no objects
+     *
+     * @param ray         a ray we wish to trace its intersections
+     * @param maxDistance distance range. how far from the ray's starting point we will look for intersections
+     * @return the distance to the closest intersection, or positive infinity if there is none in range
+     */
+    protected double findIntersectionDistanceHelper(Ray ray, double maxDistance) {
+        List<GeoPoint> intersections = findGeoIntersectionsHelper(ray, maxDistance);
+        if (intersections == null)
+            return Double.POSITIVE_INFINITY;
+        Point head = ray.getHead();
+        double closest = Double.POSITIVE_INFINITY;
+        for (GeoPoint intersection : intersections)
+            closest = Math.min(closest, head.distance(intersection.point));
+        return closest;
+    }
+
+    /**
+     * Gives the amount of intersections of the ray with this geometry within the given distance-range.
+     * geometries used in the rendering's hot path override this without allocating any objects
+     *
+     * @param ray         a ray we wish to trace its intersections
+     * @param maxDistance distance range. how far from the ray's starting point we will look for intersections
+     * @return the amount of intersections in range
+     */
+    protected int countIntersections(Ray ray, double maxDistance) {
+        List<GeoPoint> intersections = findGeoIntersectionsHelper(ray, maxDistance);
+        return intersections == null ? 0 : intersections.size();
+    }
+
+    @Override
+    public GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        double distance = findIntersectionDistance(ray, maxDistance);
+        return distance == Double.POSITIVE_INFINITY ? null : new GeoPoint(ray.getPoint(distance), this);
+    }
+
+    @Override
+    public Double3 findTransparency(Ray ray, double maxDistance, Double3 ktr, Double3 minK) {
+        IntersectionCounter.count(this);
+        for (int i = countIntersections(ray, maxDistance); i > 0; --i) {
+            ktr = ktr.product(material.kT);
+            if (ktr.lowerThan(minK))
+                return Double3.ZERO;
+        }
+        return ktr;
+    }
 }
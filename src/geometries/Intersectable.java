@@ -1,5 +1,6 @@
 package geometries;
 
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
@@ -108,6 +109,42 @@ public abstract class Intersectable extends Movable implements Cloneable {
         return findGeoIntersectionsHelper(ray, maxDistance);
     }
 
+    /**
+     * Gives the closest intersection of the ray with this object within the given distance-range
+     *
+     * @param ray         a ray we wish to trace its intersections
+     * @param maxDistance distance range. how far from the ray's starting point we will look for intersections
+     * @return the closest geo-point, or null if there are no intersections in range
+     */
+    public GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        var intersections = findGeoIntersectionsHelper(ray, maxDistance);
+        return intersections == null ? null : ray.findClosestGeoPoint(intersections);
+    }
+
+    /**
+     * Gives the transparency factor accumulated along the given ray by all the geometries it passes through
+     * within the given distance-range. the factor of each intersected geometry is multiplied into the given
+     * starting factor, and the search stops as soon as the accumulated factor drops below the given threshold,
+     * without collecting the intersections
+     *
+     * @param ray         a ray we wish to trace its intersections
+     * @param maxDistance distance range. how far from the ray's starting point we will look for intersections
+     * @param ktr         the transparency factor accumulated before reaching this object
+     * @param minK        the lowest distinguishable factor. the search stops once the factor is lower than it
+     * @return the accumulated transparency factor, or zero if it dropped below the given threshold
+     */
+    public Double3 findTransparency(Ray ray, double maxDistance, Double3 ktr, Double3 minK) {
+        var intersections = findGeoIntersectionsHelper(ray, maxDistance);
+        if (intersections == null)
+            return ktr;
+        for (GeoPoint intersection : intersections) {
+            ktr = ktr.product(intersection.geometry.getMaterial().kT);
+            if (ktr.lowerThan(minK))
+                return Double3.ZERO;
+        }
+        return ktr;
+    }
+
     /**
      * Helper method for getting all the intersection points of a given ray with geometries in the scene
      *
@@ -0,0 +1,105 @@
+package geometries;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Counts the intersection tests of the geometries by the geometries' types. a counter is used by
+ * a single thread at a time - the thread binds it before tracing rays, and each intersection test
+ * the thread makes is counted in it as a plain increment, with no synchronization between the threads.
+ * the counters of several threads are summed by their owner after the threads are done
+ */
+public final class IntersectionCounter {
+    /**
+     * The counter bound to each thread, null if the thread's tests are not counted
+     */
+    private static final ThreadLocal<IntersectionCounter> BOUND = new ThreadLocal<>();
+    /**
+     * The geometry types that were counted so far, by the index of their counts
+     */
+    private static final List<Class<?>> TYPES = new CopyOnWriteArrayList<>();
+    /**
+     * The index of each geometry type's count in the counters
+     */
+    private static final ClassValue<Integer> TYPE_INDEX = new ClassValue<>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            synchronized (TYPES) {
+                TYPES.add(type);
+                return TYPES.size() - 1;
+            }
+        }
+    };
+
+    /**
+     * The amount of tests of each geometry type, by the types' indexes
+     */
+    private long[] counts = new long[8];
+
+    /**
+     * Binds this counter to the current thread, so the thread's intersection tests are counted in it
+     */
+    public void bind() {
+        BOUND.set(this);
+    }
+
+    /**
+     * Unbinds the counter of the current thread, so its intersection tests are no longer counted
+     */
+    public static void unbind() {
+        BOUND.remove();
+    }
+
+    /**
+     * Counts an intersection test of the given geometry in the counter bound to the current thread
+     *
+     * @param geometry the tested geometry
+     */
+    static void count(Geometry geometry) {
+        IntersectionCounter counter = BOUND.get();
+        if (counter != null) {
+            int type = TYPE_INDEX.get(geometry.getClass());
+            if (type >= counter.counts.length)
+                counter.counts = Arrays.copyOf(counter.counts, Math.max(type + 1, counter.counts.length * 2));
+            ++counter.counts[type];
+        }
+    }
+
+    /**
+     * Adds the counts of this counter to the given totals
+     *
+     * @param totals the amount of tests by the geometries' type names, sorted by the names
+     */
+    public void addTo(Map<String, Long> totals) {
+        for (int i = 0; i < counts.length; ++i) {
+            if (counts[i] != 0)
+                totals.merge(typeName(TYPES.get(i)), counts[i], Long::sum);
+        }
+    }
+
+    /**
+     * Gives the amount of tests of each geometry type counted by this counter
+     *
+     * @return the amount of tests by the geometries' type names, sorted by the names
+     */
+    public Map<String, Long> getCounts() {
+        Map<String, Long> totals = new TreeMap<>();
+        addTo(totals);
+        return totals;
+    }
+
+    /**
+     * Gives the name of the given geometry type for the reports. nested types are named with
+     * their enclosing type, e.g. the faces of a mesh are "TriangleMesh.Face"
+     *
+     * @param type a geometry type
+     * @return the name of the type
+     */
+    private static String typeName(Class<?> type) {
+        Class<?> enclosing = type.getEnclosingClass();
+        return enclosing == null ? type.getSimpleName() : enclosing.getSimpleName() + "." + type.getSimpleName();
+    }
+}
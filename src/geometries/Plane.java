@@ -104,6 +104,25 @@ public class Plane extends Geometry {
         return t > 0 && alignZero(t - maxDistance) < 0 ? List.of(new GeoPoint(ray.getPoint(t), this)) : null;
     }
 
+    @Override
+    protected double findIntersectionDistanceHelper(Ray ray, double maxDistance) {
+        Point h = ray.getHead();
+        Vector v = ray.getDirection();
+        double nx = normal.getX(), ny = normal.getY(), nz = normal.getZ();
+        double nv = nx * v.getX() + ny * v.getY() + nz * v.getZ();
+        double qhx = q.getX() - h.getX(), qhy = q.getY() - h.getY(), qhz = q.getZ() - h.getZ();
+        if ((isZero(qhx) && isZero(qhy) && isZero(qhz)) || isZero(nv))
+            return Double.POSITIVE_INFINITY;
+
+        double t = alignZero((nx * qhx + ny * qhy + nz * qhz) / nv);
+        return t > 0 && alignZero(t - maxDistance) < 0 ? t : Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    protected int countIntersections(Ray ray, double maxDistance) {
+        return findIntersectionDistanceHelper(ray, maxDistance) == Double.POSITIVE_INFINITY ? 0 : 1;
+    }
+
     @Override
     public Point getMinCoordinates() {
         return q.subtract(BOUNDING_BOX_DIAMETER);
@@ -119,6 +138,11 @@ public class Plane extends Geometry {
         return new BoundingBox(this, getMinCoordinates(), getMaxCoordinates());
     }
 
+    @Override
+    public boolean isBounded() {
+        return false;
+    }
+
     @Override
     public Intersectable moveCloneTo(Point position) {
         Plane cloned = (Plane) this.getClone();
@@ -31,6 +31,10 @@ public class Polygon extends Geometry {
      * The size of the polygon - the amount of the vertices in the polygon
      */
     private final int size;
+    /**
+     * The x,y,z coordinates of the vertices one after the other, for the allocation-free intersection kernel
+     */
+    protected double[] coordinates;
 
     /**
      * Polygon constructor based on vertices list. The list must be ordered by edge
@@ -59,6 +63,7 @@ public class Polygon extends Geometry {
             throw new IllegalArgumentException("A polygon can't have less than 3 vertices");
         this.vertices = List.of(vertices);
         size = vertices.length;
+        coordinates = toCoordinates(this.vertices);
 
         // Generate the plane according to the first three vertices and associate the
         // polygon with this plane.
@@ -131,6 +136,86 @@ public class Polygon extends Geometry {
         return List.of(new GeoPoint(intersections.getFirst(), this));
     }
 
+    @Override
+    protected double findIntersectionDistanceHelper(Ray ray, double maxDistance) {
+        double t = plane.findIntersectionDistanceHelper(ray, maxDistance);
+        if (t == Double.POSITIVE_INFINITY)
+            return t;
+
+        Point h = ray.getHead();
+        Vector dir = ray.getDirection();
+        double hx = h.getX(), hy = h.getY(), hz = h.getZ();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+
+        boolean positive = false;
+        //head-to-vertex[i] vector, starting with the last vertex so the edges are checked in a cycle
+        int last = (size - 1) * 3;
+        double v1x = coordinates[last] - hx, v1y = coordinates[last + 1] - hy, v1z = coordinates[last + 2] - hz;
+        for (int i = 0; i < size; ++i) {
+            //head-to-vertex[i+1] vector
+            double v2x = coordinates[i * 3] - hx, v2y = coordinates[i * 3 + 1] - hy, v2z = coordinates[i * 3 + 2] - hz;
+            double sign = edgeSign(v1x, v1y, v1z, v2x, v2y, v2z, dx, dy, dz);
+            //verifying that the sign is identical with all the vertexes
+            if (i == 0) {
+                positive = sign > 0;
+            } else if (positive != (sign > 0)) {
+                return Double.POSITIVE_INFINITY;
+            }
+            v1x = v2x;
+            v1y = v2y;
+            v1z = v2z;
+        }
+        return t;
+    }
+
+    @Override
+    protected int countIntersections(Ray ray, double maxDistance) {
+        return findIntersectionDistanceHelper(ray, maxDistance) == Double.POSITIVE_INFINITY ? 0 : 1;
+    }
+
+    /**
+     * Gives the side of an edge the ray passes by: the sign of the ray's direction projected on the
+     * normalized normal of the plane that contains the ray's head and the edge
+     *
+     * @param v1x the x coordinate of the head-to-first-vertex vector
+     * @param v1y the y coordinate of the head-to-first-vertex vector
+     * @param v1z the z coordinate of the head-to-first-vertex vector
+     * @param v2x the x coordinate of the head-to-second-vertex vector
+     * @param v2y the y coordinate of the head-to-second-vertex vector
+     * @param v2z the z coordinate of the head-to-second-vertex vector
+     * @param dx  the x coordinate of the ray's direction
+     * @param dy  the y coordinate of the ray's direction
+     * @param dz  the z coordinate of the ray's direction
+     * @return the aligned sign. zero if the ray passes on the edge (or the head is in line with it)
+     */
+    protected static double edgeSign(double v1x, double v1y, double v1z, double v2x, double v2y, double v2z,
+                                     double dx, double dy, double dz) {
+        double nx = v1y * v2z - v1z * v2y;
+        double ny = v1z * v2x - v1x * v2z;
+        double nz = v1x * v2y - v1y * v2x;
+        double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+        if (isZero(length))
+            return 0;
+        return alignZero((nx * dx + ny * dy + nz * dz) / length);
+    }
+
+    /**
+     * Flattens the given vertices into an array of their x,y,z coordinates one after the other
+     *
+     * @param vertices the vertices of the polygon
+     * @return the coordinates of the vertices
+     */
+    private static double[] toCoordinates(List<Point> vertices) {
+        double[] coordinates = new double[vertices.size() * 3];
+        int i = 0;
+        for (Point vertex : vertices) {
+            coordinates[i++] = vertex.getX();
+            coordinates[i++] = vertex.getY();
+            coordinates[i++] = vertex.getZ();
+        }
+        return coordinates;
+    }
+
     @Override
     public Point getMinCoordinates() {
         double x = Double.MAX_VALUE;
@@ -174,6 +259,7 @@ public class Polygon extends Geometry {
             newVertices.add(point.add(movement));
         }
         cloned.vertices = newVertices;
+        cloned.coordinates = toCoordinates(newVertices);
         cloned.plane = (Plane) plane.moveCloneTo(position);
         return cloned;
     }
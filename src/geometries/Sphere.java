@@ -9,6 +9,7 @@ import java.util.List;
 import java.util.Objects;
 
 import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
 
 /**
  * A sphere in a three-dimensional space, represented with a center point and radius
@@ -87,6 +88,52 @@ public class Sphere extends RadialGeometry {
         return alignZero(t2 - maxDistance) >= 0 ? null : List.of(new GeoPoint(ray.getPoint(t2), this));
     }
 
+    @Override
+    protected double findIntersectionDistanceHelper(Ray ray, double maxDistance) {
+        Point h = ray.getHead();
+        Vector v = ray.getDirection();
+        double ux = center.getX() - h.getX(), uy = center.getY() - h.getY(), uz = center.getZ() - h.getZ();
+        if (isZero(ux) && isZero(uy) && isZero(uz)) //the ray starts at the center
+            return radius;
+
+        double tm = v.getX() * ux + v.getY() * uy + v.getZ() * uz;
+        double thSquared = alignZero(radiusSquared - (ux * ux + uy * uy + uz * uz - tm * tm));
+        if (thSquared <= 0)
+            return Double.POSITIVE_INFINITY;
+        double th = Math.sqrt(thSquared);
+
+        double t1 = alignZero(tm - th);
+        double t2 = alignZero(tm + th);
+        if (alignZero(t1 - maxDistance) >= 0 || t2 <= 0)
+            return Double.POSITIVE_INFINITY;
+        if (t1 > 0)
+            return t1;
+        return alignZero(t2 - maxDistance) >= 0 ? Double.POSITIVE_INFINITY : t2;
+    }
+
+    @Override
+    protected int countIntersections(Ray ray, double maxDistance) {
+        Point h = ray.getHead();
+        Vector v = ray.getDirection();
+        double ux = center.getX() - h.getX(), uy = center.getY() - h.getY(), uz = center.getZ() - h.getZ();
+        if (isZero(ux) && isZero(uy) && isZero(uz)) //the ray starts at the center
+            return 1;
+
+        double tm = v.getX() * ux + v.getY() * uy + v.getZ() * uz;
+        double thSquared = alignZero(radiusSquared - (ux * ux + uy * uy + uz * uz - tm * tm));
+        if (thSquared <= 0)
+            return 0;
+        double th = Math.sqrt(thSquared);
+
+        double t1 = alignZero(tm - th);
+        double t2 = alignZero(tm + th);
+        if (alignZero(t1 - maxDistance) >= 0 || t2 <= 0)
+            return 0;
+        if (t1 > 0)
+            return alignZero(t2 - maxDistance) >= 0 ? 1 : 2;
+        return alignZero(t2 - maxDistance) >= 0 ? 0 : 1;
+    }
+
     @Override
     public Point getMinCoordinates() {
         return center.subtract(radius);
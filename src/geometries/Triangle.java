@@ -51,5 +51,31 @@ public class Triangle extends Polygon {
 
         return List.of(new GeoPoint(intersections.getFirst(), this));
     }
+
+    @Override
+    protected double findIntersectionDistanceHelper(Ray ray, double maxDistance) {
+        double t = plane.findIntersectionDistanceHelper(ray, maxDistance);
+        if (t == Double.POSITIVE_INFINITY)
+            return t;
+
+        Point h = ray.getHead();
+        Vector v = ray.getDirection();
+        double hx = h.getX(), hy = h.getY(), hz = h.getZ();
+        double dx = v.getX(), dy = v.getY(), dz = v.getZ();
+
+        double v1x = coordinates[0] - hx, v1y = coordinates[1] - hy, v1z = coordinates[2] - hz;
+        double v2x = coordinates[3] - hx, v2y = coordinates[4] - hy, v2z = coordinates[5] - hz;
+        double sign1 = edgeSign(v1x, v1y, v1z, v2x, v2y, v2z, dx, dy, dz);
+        if (sign1 == 0) return Double.POSITIVE_INFINITY;
+
+        double v3x = coordinates[6] - hx, v3y = coordinates[7] - hy, v3z = coordinates[8] - hz;
+        double sign2 = edgeSign(v2x, v2y, v2z, v3x, v3y, v3z, dx, dy, dz);
+        if (sign1 * sign2 <= 0) return Double.POSITIVE_INFINITY;
+
+        double sign3 = edgeSign(v3x, v3y, v3z, v1x, v1y, v1z, dx, dy, dz);
+        if (sign1 * sign3 <= 0) return Double.POSITIVE_INFINITY;
+
+        return t;
+    }
 }
 
@@ -0,0 +1,331 @@
+package geometries;
+
+import primitives.*;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
+/**
+ * A mesh of triangles that share their vertices. the vertex positions are kept in one flat array of
+ * x,y,z coordinates, and each triangle is three indexes into it. the whole mesh has a single material
+ * and emission. each triangle is exposed to the acceleration structures as a lightweight face geometry
+ * that holds nothing but the offsets of its vertices
+ */
+public class TriangleMesh extends Intersectable {
+
+    /**
+     * The x,y,z coordinates of the mesh's vertices one after the other
+     */
+    private final double[] vertices;
+    /**
+     * The vertex indexes of the mesh's triangles, three for each triangle
+     */
+    private final int[] indices;
+    /**
+     * The faces (triangles) of the mesh
+     */
+    private final Face[] faces;
+    /**
+     * The emission color of the mesh. default is black
+     */
+    private Color emission = Color.BLACK;
+    /**
+     * The material of the mesh, shared by all of its faces
+     */
+    private Material material = new Material();
+
+    /**
+     * Constructor that builds the mesh from the given vertices and triangles
+     *
+     * @param vertices the x,y,z coordinates of the vertices one after the other
+     * @param indices  the vertex indexes of the triangles, three for each triangle
+     * @throws IllegalArgumentException if the arrays' lengths are not multiples of 3, or if an index
+     *                                  does not refer to a vertex
+     */
+    public TriangleMesh(double[] vertices, int[] indices) {
+        if (vertices.length % 3 != 0)
+            throw new IllegalArgumentException("The vertices must be given as x,y,z triplets");
+        if (indices.length % 3 != 0)
+            throw new IllegalArgumentException("Each triangle must have 3 vertex indexes");
+        int verticesCount = vertices.length / 3;
+        for (int index : indices) {
+            if (index < 0 || index >= verticesCount)
+                throw new IllegalArgumentException("Vertex index out of range: " + index);
+        }
+
+        this.vertices = vertices.clone();
+        this.indices = indices.clone();
+        this.faces = new Face[indices.length / 3];
+        for (int i = 0; i < faces.length; ++i)
+            faces[i] = new Face(i);
+    }
+
+    /**
+     * A single triangle of the mesh. the face keeps the offsets of its vertices in the mesh's vertices
+     * array, and the mesh's material. the intersection uses the Möller–Trumbore algorithm on raw doubles
+     */
+    private final class Face extends Geometry {
+        /**
+         * The offset of the first vertex's coordinates in the mesh's vertices array
+         */
+        private final int a;
+        /**
+         * The offset of the second vertex's coordinates in the mesh's vertices array
+         */
+        private final int b;
+        /**
+         * The offset of the third vertex's coordinates in the mesh's vertices array
+         */
+        private final int c;
+
+        /**
+         * Constructor for the face of the given triangle
+         *
+         * @param triangle the index of the triangle in the mesh
+         */
+        Face(int triangle) {
+            super(material);
+            setEmission(emission);
+            a = indices[triangle * 3] * 3;
+            b = indices[triangle * 3 + 1] * 3;
+            c = indices[triangle * 3 + 2] * 3;
+        }
+
+        @Override
+        public Vector getNormal(Point point) {
+            Vector e1 = new Vector(vertices[b] - vertices[a], vertices[b + 1] - vertices[a + 1],
+                    vertices[b + 2] - vertices[a + 2]);
+            Vector e2 = new Vector(vertices[c] - vertices[a], vertices[c + 1] - vertices[a + 1],
+                    vertices[c + 2] - vertices[a + 2]);
+            return e1.crossProduct(e2).normalize();
+        }
+
+        @Override
+        public BoundingBox getBoundingBox() {
+            return new BoundingBox(this, getMinCoordinates(), getMaxCoordinates());
+        }
+
+        @Override
+        public Point getMinCoordinates() {
+            return new Point(Math.min(vertices[a], Math.min(vertices[b], vertices[c])),
+                    Math.min(vertices[a + 1], Math.min(vertices[b + 1], vertices[c + 1])),
+                    Math.min(vertices[a + 2], Math.min(vertices[b + 2], vertices[c + 2])));
+        }
+
+        @Override
+        public Point getMaxCoordinates() {
+            return new Point(Math.max(vertices[a], Math.max(vertices[b], vertices[c])),
+                    Math.max(vertices[a + 1], Math.max(vertices[b + 1], vertices[c + 1])),
+                    Math.max(vertices[a + 2], Math.max(vertices[b + 2], vertices[c + 2])));
+        }
+
+        @Override
+        protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+            double t = findIntersectionDistanceHelper(ray, maxDistance);
+            return t == Double.POSITIVE_INFINITY ? null : List.of(new GeoPoint(ray.getPoint(t), this));
+        }
+
+        @Override
+        protected double findIntersectionDistanceHelper(Ray ray, double maxDistance) {
+            Point h = ray.getHead();
+            Vector v = ray.getDirection();
+            double dx = v.getX(), dy = v.getY(), dz = v.getZ();
+
+            double e1x = vertices[b] - vertices[a], e1y = vertices[b + 1] - vertices[a + 1];
+            double e1z = vertices[b + 2] - vertices[a + 2];
+            double e2x = vertices[c] - vertices[a], e2y = vertices[c + 1] - vertices[a + 1];
+            double e2z = vertices[c + 2] - vertices[a + 2];
+
+            //p = direction x e2
+            double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+            double det = e1x * px + e1y * py + e1z * pz;
+            if (isZero(det)) //the ray is parallel to the triangle
+                return Double.POSITIVE_INFINITY;
+            double invDet = 1d / det;
+
+            //barycentric coordinates of the intersection with the triangle's plane. like the triangle, an
+            //intersection on an edge is not counted, so a ray through an edge two faces share hits neither
+            double sx = h.getX() - vertices[a], sy = h.getY() - vertices[a + 1], sz = h.getZ() - vertices[a + 2];
+            double u = alignZero((sx * px + sy * py + sz * pz) * invDet);
+            if (u <= 0 || alignZero(u - 1) >= 0)
+                return Double.POSITIVE_INFINITY;
+            //q = s x e1
+            double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+            double w = alignZero((dx * qx + dy * qy + dz * qz) * invDet);
+            if (w <= 0 || alignZero(u + w - 1) >= 0)
+                return Double.POSITIVE_INFINITY;
+
+            double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * invDet);
+            return t > 0 && alignZero(t - maxDistance) < 0 ? t : Double.POSITIVE_INFINITY;
+        }
+
+        @Override
+        protected int countIntersections(Ray ray, double maxDistance) {
+            return findIntersectionDistanceHelper(ray, maxDistance) == Double.POSITIVE_INFINITY ? 0 : 1;
+        }
+
+        @Override
+        public Intersectable moveCloneTo(Point position) {
+            throw new UnsupportedOperationException("A face can only be moved with its mesh");
+        }
+
+        @Override
+        public Intersectable cloneAndRotate(Vector rotationAxis, double degrees) {
+            throw new UnsupportedOperationException("A face can only be rotated with its mesh");
+        }
+    }
+
+    /**
+     * Getter for the mesh's emission light
+     *
+     * @return the mesh's emission light
+     */
+    public Color getEmission() {
+        return emission;
+    }
+
+    /**
+     * Getter for the mesh's material
+     *
+     * @return the material of the mesh
+     */
+    public Material getMaterial() {
+        return material;
+    }
+
+    /**
+     * Setter for the mesh's emission light, for all of its faces
+     *
+     * @param emission emission color for the mesh
+     * @return the mesh itself
+     */
+    public TriangleMesh setEmission(Color emission) {
+        this.emission = emission;
+        for (Face face : faces)
+            face.setEmission(emission);
+        return this;
+    }
+
+    /**
+     * Setter for the mesh's material, shared by all of its faces
+     *
+     * @param material new material for the mesh
+     * @return the mesh itself
+     */
+    public TriangleMesh setMaterial(Material material) {
+        this.material = material;
+        for (Face face : faces)
+            face.setMaterial(material);
+        return this;
+    }
+
+    /**
+     * Gives the amount of triangles in the mesh
+     *
+     * @return the amount of triangles in the mesh
+     */
+    public int getTrianglesCount() {
+        return faces.length;
+    }
+
+    /**
+     * Calculates the bounding boxes of all the mesh's triangles, for the acceleration structures
+     *
+     * @return list of the bounding boxes of the mesh's triangles
+     */
+    public List<BoundingBox> getBoundingBoxes() {
+        List<BoundingBox> boxes = new ArrayList<>(faces.length);
+        for (Face face : faces)
+            boxes.add(face.getBoundingBox());
+        return boxes;
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        List<GeoPoint> list = null;
+        for (Face face : faces) {
+            double t = face.findIntersectionDistance(ray, maxDistance);
+            if (t != Double.POSITIVE_INFINITY) {
+                if (list == null)
+                    list = new LinkedList<>();
+                list.add(new GeoPoint(ray.getPoint(t), face));
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        Face closest = null;
+        double closestDistance = maxDistance;
+        for (Face face : faces) {
+            double t = face.findIntersectionDistance(ray, closestDistance);
+            if (t < closestDistance) {
+                closestDistance = t;
+                closest = face;
+            }
+        }
+        return closest == null ? null : new GeoPoint(ray.getPoint(closestDistance), closest);
+    }
+
+    @Override
+    public Double3 findTransparency(Ray ray, double maxDistance, Double3 ktr, Double3 minK) {
+        for (Face face : faces) {
+            ktr = face.findTransparency(ray, maxDistance, ktr, minK);
+            if (ktr.lowerThan(minK))
+                return Double3.ZERO;
+        }
+        return ktr;
+    }
+
+    @Override
+    public Point getMinCoordinates() {
+        double x = Double.POSITIVE_INFINITY;
+        double y = Double.POSITIVE_INFINITY;
+        double z = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < vertices.length; i += 3) {
+            x = Math.min(x, vertices[i]);
+            y = Math.min(y, vertices[i + 1]);
+            z = Math.min(z, vertices[i + 2]);
+        }
+        return new Point(x, y, z);
+    }
+
+    @Override
+    public Point getMaxCoordinates() {
+        double x = Double.NEGATIVE_INFINITY;
+        double y = Double.NEGATIVE_INFINITY;
+        double z = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < vertices.length; i += 3) {
+            x = Math.max(x, vertices[i]);
+            y = Math.max(y, vertices[i + 1]);
+            z = Math.max(z, vertices[i + 2]);
+        }
+        return new Point(x, y, z);
+    }
+
+    @Override
+    public Intersectable moveCloneTo(Point position) {
+        if (position.equals(pivot))
+            return this.getClone();
+        Vector movement = position.subtract(pivot);
+        double[] moved = vertices.clone();
+        for (int i = 0; i < moved.length; i += 3) {
+            moved[i] += movement.getX();
+            moved[i + 1] += movement.getY();
+            moved[i + 2] += movement.getZ();
+        }
+        TriangleMesh cloned = new TriangleMesh(moved, indices).setMaterial(material).setEmission(emission);
+        cloned.pivot = position;
+        return cloned;
+    }
+
+    @Override
+    public Intersectable cloneAndRotate(Vector rotationAxis, double degrees) {
+        return this.getClone();
+    }
+}
@@ -64,6 +64,11 @@ public class Tube extends RadialGeometry {
         return null;
     }
 
+    @Override
+    public boolean isBounded() {
+        return false;
+    }
+
     @Override
     public Intersectable moveCloneTo(Point position) {
         return this.getClone();
@@ -41,4 +41,9 @@ public class DirectionalLight extends Light implements LightSource {
     public Vector getL(Point p) {
         return direction;
     }
+
+    @Override
+    public String describe() {
+        return getClass().getName() + " " + intensity + " " + direction;
+    }
 }
@@ -81,4 +81,9 @@ public class FlashLight extends SpotLight {
         //Scaling the intensity of the spot-light by the beam factor
         return super.getIntensity(p).scale(beamFactor);
     }
+
+    @Override
+    public String describe() {
+        return super.describe() + " " + beamFocusStrength;
+    }
 }
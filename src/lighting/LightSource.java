@@ -35,4 +35,12 @@ public interface LightSource {
      * @return the normalized direction vector to the given scene
      */
     public Vector getL(Point p);
+
+    /**
+     * Describes the light's settings - its type, intensity, placement and attenuation, so two lights that
+     * illuminate the scene differently never have the same description
+     *
+     * @return a description of the light's settings
+     */
+    String describe();
 }
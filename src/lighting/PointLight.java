@@ -92,4 +92,9 @@ public class PointLight extends Light implements LightSource {
     public Vector getL(Point p) {
         return p.subtract(position).normalize();
     }
+
+    @Override
+    public String describe() {
+        return getClass().getName() + " " + intensity + " " + position + " " + kC + " " + kL + " " + kQ;
+    }
 }
@@ -67,4 +67,8 @@ public class SpotLight extends PointLight {
         return super.getIntensity(p).scale(angle);
     }
 
+    @Override
+    public String describe() {
+        return super.describe() + " " + direction;
+    }
 }
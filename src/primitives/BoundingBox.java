@@ -4,7 +4,9 @@ import geometries.Geometry;
 
 /**
  * Cubic Bounding box that contains one geometry object. contains the
- * geometry object and a min and max points
+ * geometry object and a min and max points.
+ * rays are intersected with the box analytically by the slab test - the distances at which the ray crosses the
+ * pair of planes bounding each axis, which give the ray's range inside the box in a few operations
  */
 public class BoundingBox {
 
@@ -23,6 +25,31 @@ public class BoundingBox {
      */
     private final Point maxCoordinates;
 
+    /**
+     * The minimum x coordinate of the box
+     */
+    private final double minX;
+    /**
+     * The minimum y coordinate of the box
+     */
+    private final double minY;
+    /**
+     * The minimum z coordinate of the box
+     */
+    private final double minZ;
+    /**
+     * The maximum x coordinate of the box
+     */
+    private final double maxX;
+    /**
+     * The maximum y coordinate of the box
+     */
+    private final double maxY;
+    /**
+     * The maximum z coordinate of the box
+     */
+    private final double maxZ;
+
     /**
      * Constructor that initializes the bounding box with the given geometry object and
      * the minimum and maximum coordinates of the geometry, which together form a bounding box
@@ -35,6 +62,12 @@ public class BoundingBox {
         geometry = geo;
         minCoordinates = min;
         maxCoordinates = max;
+        minX = min.getX();
+        minY = min.getY();
+        minZ = min.getZ();
+        maxX = max.getX();
+        maxY = max.getY();
+        maxZ = max.getZ();
     }
 
     /**
@@ -63,4 +96,89 @@ public class BoundingBox {
     public Point getMaxCoords() {
         return maxCoordinates;
     }
+
+    /**
+     * Gives the distance from a ray's head at which the ray enters the box (slab test)
+     *
+     * @param head        the head point of the ray
+     * @param invDir      the inverted x,y,z components of the ray's direction
+     * @param maxDistance the maximum distance from the ray's head that is relevant
+     * @return the entry distance of the ray into the box (0 if the head is inside the box),
+     * or positive infinity if the ray misses the box within the given distance
+     */
+    public double entryDistance(Point head, double[] invDir, double maxDistance) {
+        return entryDistance(minX, minY, minZ, maxX, maxY, maxZ, head, invDir, maxDistance);
+    }
+
+    /**
+     * Gives the distance from a ray's head at which the ray exits the box (slab test)
+     *
+     * @param head   the head point of the ray
+     * @param invDir the inverted x,y,z components of the ray's direction
+     * @return the exit distance of the ray from the box, negative if the box is behind the ray.
+     * meaningful only if the ray enters the box
+     */
+    public double exitDistance(Point head, double[] invDir) {
+        return exitDistance(minX, minY, minZ, maxX, maxY, maxZ, head, invDir);
+    }
+
+    /**
+     * Gives the distance from a ray's head at which the ray enters the given axis-aligned box (slab test).
+     * for structures that keep the coordinates of many boxes without box objects
+     *
+     * @param minX        the minimum x coordinate of the box
+     * @param minY        the minimum y coordinate of the box
+     * @param minZ        the minimum z coordinate of the box
+     * @param maxX        the maximum x coordinate of the box
+     * @param maxY        the maximum y coordinate of the box
+     * @param maxZ        the maximum z coordinate of the box
+     * @param head        the head point of the ray
+     * @param invDir      the inverted x,y,z components of the ray's direction
+     * @param maxDistance the maximum distance from the ray's head that is relevant
+     * @return the entry distance of the ray into the box (0 if the head is inside the box),
+     * or positive infinity if the ray misses the box within the given distance
+     */
+    public static double entryDistance(double minX, double minY, double minZ, double maxX, double maxY,
+                                       double maxZ, Point head, double[] invDir, double maxDistance) {
+        double t1 = (minX - head.getX()) * invDir[0];
+        double t2 = (maxX - head.getX()) * invDir[0];
+        double tMin = Math.min(t1, t2);
+        double tMax = Math.max(t1, t2);
+
+        t1 = (minY - head.getY()) * invDir[1];
+        t2 = (maxY - head.getY()) * invDir[1];
+        tMin = Math.max(tMin, Math.min(t1, t2));
+        tMax = Math.min(tMax, Math.max(t1, t2));
+
+        t1 = (minZ - head.getZ()) * invDir[2];
+        t2 = (maxZ - head.getZ()) * invDir[2];
+        tMin = Math.max(tMin, Math.min(t1, t2));
+        tMax = Math.min(tMax, Math.max(t1, t2));
+
+        //a NaN coordinate (ray parallel to a slab, on its plane) is treated as a hit, to stay conservative
+        if (tMax < tMin || tMax < 0 || tMin > maxDistance)
+            return Double.POSITIVE_INFINITY;
+        return tMin > 0 ? tMin : 0;
+    }
+
+    /**
+     * Gives the distance from a ray's head at which the ray exits the given axis-aligned box (slab test)
+     *
+     * @param minX   the minimum x coordinate of the box
+     * @param minY   the minimum y coordinate of the box
+     * @param minZ   the minimum z coordinate of the box
+     * @param maxX   the maximum x coordinate of the box
+     * @param maxY   the maximum y coordinate of the box
+     * @param maxZ   the maximum z coordinate of the box
+     * @param head   the head point of the ray
+     * @param invDir the inverted x,y,z components of the ray's direction
+     * @return the exit distance of the ray from the box, negative if the box is behind the ray.
+     * meaningful only if the ray enters the box
+     */
+    public static double exitDistance(double minX, double minY, double minZ, double maxX, double maxY,
+                                      double maxZ, Point head, double[] invDir) {
+        double tMax = Math.max((minX - head.getX()) * invDir[0], (maxX - head.getX()) * invDir[0]);
+        tMax = Math.min(tMax, Math.max((minY - head.getY()) * invDir[1], (maxY - head.getY()) * invDir[1]));
+        return Math.min(tMax, Math.max((minZ - head.getZ()) * invDir[2], (maxZ - head.getZ()) * invDir[2]));
+    }
 }
@@ -103,6 +103,28 @@ public class Color {
         return new java.awt.Color(ir > 255 ? 255 : ir, ig > 255 ? 255 : ig, ib > 255 ? 255 : ib);
     }
 
+    /**
+     * Color getter - returns the color packed into an RGB int, 8 bits for each component from the red
+     * in the high bits to the blue in the low bits, without creating a java.awt.Color object. During the
+     * conversion any component bigger than 255 is set to 255, and any negative component is set to 0
+     *
+     * @return the packed RGB components of this Color
+     */
+    public int getRGB() {
+        return 0xFF000000 | channel(rgb.d1) << 16 | channel(rgb.d2) << 8 | channel(rgb.d3);
+    }
+
+    /**
+     * Converts a color component into the 8 bits of a packed RGB int
+     *
+     * @param component the color component
+     * @return the component, truncated into the 0-255 range
+     */
+    private static int channel(double component) {
+        int channel = (int) component;
+        return channel > 255 ? 255 : Math.max(channel, 0);
+    }
+
     /**
      * Operation of adding this and one or more other colors (by component)
      *
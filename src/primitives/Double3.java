@@ -165,4 +165,13 @@ public class Double3 {
     public boolean higherThan(Double3 other) {
         return !this.lowerThan(other) && !this.equals(other);
     }
+
+    /**
+     * Gives the highest of the three numbers
+     *
+     * @return the highest number in the triad
+     */
+    public double max() {
+        return Math.max(d1, Math.max(d2, d3));
+    }
 }
@@ -1,5 +1,7 @@
 package primitives;
 
+import renderer.SampleSequence;
+
 /**
  * Represents a material of an object
  */
@@ -64,6 +66,16 @@ public class Material {
      */
     public int transparencyBlurCasts = 1;
 
+    /**
+     * The sequence of the rays in the reflection blurriness multisampling computation
+     */
+    public SampleSequence reflectionSequence = SampleSequence.JITTERED;
+
+    /**
+     * The sequence of the rays in the transparency blurriness multisampling computation
+     */
+    public SampleSequence transparencySequence = SampleSequence.JITTERED;
+
     /**
      * Setter for the transparency blur effect
      *
@@ -82,6 +94,23 @@ public class Material {
         return this;
     }
 
+    /**
+     * Setter for the transparency blur effect, with the rays spread by the given sample sequence.
+     * the low-discrepancy sequences give the same smoothness with far fewer ray casts
+     *
+     * @param blurAngle the angle between the casting ray and the multisampling blackboard.
+     *                  the higher the angle, the more blurry objects that are behind the
+     *                  material will appear (blurred glass effect)
+     * @param rayCasts  the amount of ray casts for the multisampling of this effect
+     * @param sequence  the sequence of the rays on the multisampling blackboard
+     * @return the material object itself
+     */
+    public Material setTransparencyBlur(double blurAngle, int rayCasts, SampleSequence sequence) {
+        setTransparencyBlur(blurAngle, rayCasts);
+        transparencySequence = sequence;
+        return this;
+    }
+
     /**
      * Setter for the reflection blur effect
      *
@@ -100,6 +129,23 @@ public class Material {
         return this;
     }
 
+    /**
+     * Setter for the reflection blur effect, with the rays spread by the given sample sequence.
+     * the low-discrepancy sequences give the same smoothness with far fewer ray casts
+     *
+     * @param blurAngle the angle between the casting ray and the multisampling blackboard.
+     *                  the higher the angle, the more blurry object's reflections will appear on the
+     *                  material (blurred mirror effect)
+     * @param rayCasts  the amount of ray casts for the multisampling of this effect
+     * @param sequence  the sequence of the rays on the multisampling blackboard
+     * @return the material object itself
+     */
+    public Material setReflectionBlur(double blurAngle, int rayCasts, SampleSequence sequence) {
+        setReflectionBlur(blurAngle, rayCasts);
+        reflectionSequence = sequence;
+        return this;
+    }
+
     /**
      * Setter for the Diffusion factor of the material
      *
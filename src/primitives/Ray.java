@@ -2,6 +2,7 @@ package primitives;
 
 import geometries.Intersectable.GeoPoint;
 import renderer.BlackboardBase;
+import renderer.SampleSequence;
 import renderer.SquareBlackboard;
 
 import java.util.LinkedList;
@@ -109,6 +110,27 @@ public class Ray {
      */
     public List<Ray> generateBeam(int gridSize, double blackBoardDiameter, double distance,
                                   int minTotalRayCasts, Vector normal) {
+        return generateBeam(gridSize, blackBoardDiameter, distance, minTotalRayCasts, normal, SampleSequence.JITTERED);
+    }
+
+    /**
+     * Generates a beam of rays from the head point of this ray through a blackboard with
+     * the given diameter, which is located at the given distance from the head point and faces
+     * the given direction. the rays pass through points of the given sample sequence.
+     *
+     * @param gridSize           the size of the grid to create on the black board, rows and columns (total
+     *                           cells: gridSize * gridSize). only used by the jittered sequence
+     * @param blackBoardDiameter the diameter for the square blackboard (the width and height)
+     * @param distance           the distance of the blackboard from beam's origin
+     * @param minTotalRayCasts   total rays we should cast through the blackboard, heavily impacts performance.
+     *                           exact for all the sequences but the jittered one
+     * @param normal             the normal vector of the black board(the direction in which the blackboard will be facing)
+     * @param sequence           the sequence of the points on the blackboard
+     * @return a collection of rays which are all generated from the current ray's head point and pass
+     * through a specified blackboard in the 3D space
+     */
+    public List<Ray> generateBeam(int gridSize, double blackBoardDiameter, double distance,
+                                  int minTotalRayCasts, Vector normal, SampleSequence sequence) {
         List<Ray> rays = new LinkedList<>();
 
         //if there is 1 ray in the beam OR the blackboard size is 0, there is
@@ -119,7 +141,7 @@ public class Ray {
 
         //calculating the center point of the blackboard and forming it
         Point center = this.getPoint(distance);
-        BlackboardBase BlackboardBase = new SquareBlackboard(blackBoardDiameter, center, normal, gridSize);
+        BlackboardBase BlackboardBase = new SquareBlackboard(blackBoardDiameter, center, normal, gridSize, sequence);
 
         //creating points on the blackboard and forming rays through them
         List<Point> points = BlackboardBase.randomizePoints(minTotalRayCasts);
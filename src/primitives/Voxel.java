@@ -3,6 +3,8 @@ package primitives;
 import geometries.Geometry;
 import geometries.Intersectable.GeoPoint;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -14,12 +16,31 @@ public class Voxel {
      * A collection of geometries whose bounding boxes intersect this voxel
      */
     public List<Geometry> geometries;
+    /**
+     * The ids of the geometries in their grid, in the order of the geometries collection.
+     * may be longer than the collection
+     */
+    public int[] ids = new int[0];
 
     /**
      * Constructor that initializes the geometries collection of the voxel
      */
     public Voxel() {
-        geometries = new LinkedList<>();
+        geometries = new ArrayList<>();
+    }
+
+    /**
+     * Adds a geometry to the voxel
+     *
+     * @param geometry a geometry whose bounding box intersects this voxel
+     * @param id       the id of the geometry in its grid
+     */
+    public void add(Geometry geometry, int id) {
+        int size = geometries.size();
+        if (size == ids.length)
+            ids = Arrays.copyOf(ids, Math.max(4, size * 2));
+        ids[size] = id;
+        geometries.add(geometry);
     }
 
     /**
@@ -0,0 +1,80 @@
+package renderer;
+
+import geometries.Intersectable.GeoPoint;
+import primitives.Double3;
+import primitives.Ray;
+import scene.Scene;
+
+import java.util.List;
+
+/**
+ * Ray tracer that finds the intersections through an acceleration structure over the scene's geometries.
+ * the structure is brought up-to-date before each render, so it is rebuilt only if the geometries changed,
+ * and a single structure may be shared by the tracers of many cameras
+ */
+public class AcceleratedRayTracer extends SimpleRayTracer {
+    /**
+     * The acceleration structure over the scene's geometries
+     */
+    private final AccelerationStructure structure;
+
+    /**
+     * The build time of the structure that was not reported by a render yet, in nanoseconds
+     */
+    private long unreportedBuildNanos = 0;
+
+    /**
+     * Constructor that initializes the tracer with the given scene and acceleration structure.
+     * the structure is built now if it was not built yet, or if it is out of date
+     *
+     * @param scene     a scene for the tracer
+     * @param structure an acceleration structure over the scene's geometries
+     * @throws IllegalArgumentException if the structure is built over other geometries than the scene's
+     */
+    public AcceleratedRayTracer(Scene scene, AccelerationStructure structure) {
+        super(scene);
+        if (structure.getGeometries() != scene.geometries)
+            throw new IllegalArgumentException("The acceleration structure is not built over the scene's geometries");
+        this.structure = structure;
+        if (structure.update())
+            unreportedBuildNanos = structure.getBuildNanos();
+    }
+
+    /**
+     * Getter for the acceleration structure
+     *
+     * @return the acceleration structure over the scene's geometries
+     */
+    public AccelerationStructure getAccelerationStructure() {
+        return structure;
+    }
+
+    @Override
+    long prepareRender() {
+        if (structure.update())
+            unreportedBuildNanos += structure.getBuildNanos();
+        long buildNanos = unreportedBuildNanos;
+        unreportedBuildNanos = 0;
+        return buildNanos;
+    }
+
+    @Override
+    public GeoPoint findClosestIntersection(Ray ray) {
+        return structure.findClosestIntersection(ray, stats());
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersections(Ray ray) {
+        return structure.findGeoIntersections(ray, Double.POSITIVE_INFINITY, stats());
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+        return structure.findGeoIntersections(ray, maxDistance, stats());
+    }
+
+    @Override
+    protected Double3 findTransparency(Ray ray, double maxDistance) {
+        return structure.findTransparency(ray, maxDistance, MIN_CALC_COLOR_K, stats());
+    }
+}
@@ -0,0 +1,147 @@
+package renderer;
+
+import geometries.Geometries;
+import geometries.Intersectable.GeoPoint;
+import primitives.BoundingBox;
+import primitives.Double3;
+import primitives.Ray;
+
+import java.util.List;
+
+/**
+ * A spatial index over a geometries container, for finding the geometries a ray hits without testing all of
+ * them. the structure is built explicitly, and can be shared by any amount of tracers and cameras - e.g. all
+ * the frames of a video, or several views of the same geometries with different lights.
+ * the structure remembers the modification count of the geometries it was built from, so it is rebuilt
+ * only once the geometries are actually changed
+ */
+public abstract class AccelerationStructure {
+    /**
+     * The indexed geometries
+     */
+    protected final Geometries geometries;
+
+    /**
+     * The modification count of the geometries when the structure was last built. -1 if it was never built
+     */
+    private long builtModificationCount = -1;
+    /**
+     * The time the last build took in nanoseconds
+     */
+    private long buildNanos = 0;
+    /**
+     * The amount of times the structure was built
+     */
+    private int buildsCount = 0;
+
+    /**
+     * Constructor that initializes the structure for the given geometries. the structure is not built yet
+     *
+     * @param geometries the geometries to index
+     */
+    protected AccelerationStructure(Geometries geometries) {
+        this.geometries = geometries;
+    }
+
+    /**
+     * Builds the structure from the current state of the geometries, even if they did not change
+     *
+     * @return the structure itself
+     */
+    public synchronized AccelerationStructure build() {
+        long start = System.nanoTime();
+        long modificationCount = geometries.getModificationCount();
+        //the boxes are calculated once for each build, and shared by all the steps of the build
+        buildStructure(geometries.getAllBoundingBoxes());
+        builtModificationCount = modificationCount;
+        buildNanos = System.nanoTime() - start;
+        ++buildsCount;
+        return this;
+    }
+
+    /**
+     * Builds the structure if it was never built, or if the geometries changed since it was last built
+     *
+     * @return true if the structure was built, false if it was up-to-date
+     */
+    public synchronized boolean update() {
+        if (!isStale())
+            return false;
+        build();
+        return true;
+    }
+
+    /**
+     * Checks if the structure does not match the current state of its geometries
+     *
+     * @return true if the structure was never built, or if the geometries changed since it was last built
+     */
+    public synchronized boolean isStale() {
+        return builtModificationCount != geometries.getModificationCount();
+    }
+
+    /**
+     * Getter for the indexed geometries
+     *
+     * @return the geometries the structure is built from
+     */
+    public Geometries getGeometries() {
+        return geometries;
+    }
+
+    /**
+     * Getter for the last build's time
+     *
+     * @return the time the last build took in nanoseconds, zero if the structure was never built
+     */
+    public long getBuildNanos() {
+        return buildNanos;
+    }
+
+    /**
+     * Getter for the amount of builds
+     *
+     * @return the amount of times the structure was built
+     */
+    public int getBuildsCount() {
+        return buildsCount;
+    }
+
+    /**
+     * Builds the structure's index from the given bounding boxes, replacing the previous index
+     *
+     * @param boxes the bounding boxes of all the geometries, one box for each geometry
+     */
+    protected abstract void buildStructure(List<BoundingBox> boxes);
+
+    /**
+     * Gives the closest intersection of the given ray with the geometries
+     *
+     * @param ray   a ray to trace
+     * @param stats the statistics of the current render
+     * @return the closest intersection, null if the ray hits nothing
+     */
+    abstract GeoPoint findClosestIntersection(Ray ray, RenderStats stats);
+
+    /**
+     * Gives all the intersections of the given ray with the geometries within the given distance from its head
+     *
+     * @param ray         a ray to trace
+     * @param maxDistance the maximum distance from the ray's head to look for intersections in
+     * @param stats       the statistics of the current render
+     * @return the intersections, null if there are none
+     */
+    abstract List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance, RenderStats stats);
+
+    /**
+     * Gives the transparency factor accumulated along the given ray by the geometries it passes through
+     * within the given distance from its head
+     *
+     * @param ray         a ray to trace
+     * @param maxDistance the maximum distance from the ray's head to look for intersections in
+     * @param minK        the lowest distinguishable transparency factor, the search stops below it
+     * @param stats       the statistics of the current render
+     * @return the accumulated transparency factor, zero if the ray is blocked
+     */
+    abstract Double3 findTransparency(Ray ray, double maxDistance, Double3 minK, RenderStats stats);
+}
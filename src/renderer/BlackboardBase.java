@@ -48,11 +48,13 @@ public abstract class BlackboardBase {
     }
 
     /**
-     * Generate points on the blackboard's grid in a semi-random technique (jitter method)
+     * Generate points on the blackboard in a semi-random technique, such as the jitter method or
+     * a randomly shifted low-discrepancy sequence
      *
      * @param totalPoints the minimum total amount of points to generate.
-     *                    if the total cell count of the grid cannot be divided perfectly with this number,
-     *                    this number will be scaled up (so that there are even amount of points in each cell)
+     *                    for the jitter method, if the total cell count of the grid cannot be divided perfectly
+     *                    with this number, this number will be scaled up (so that there are even amount of points
+     *                    in each cell)
      * @return a list of generated points on the blackboard
      */
     public abstract List<Point> randomizePoints(int totalPoints);
@@ -0,0 +1,543 @@
+package renderer;
+
+import geometries.Geometries;
+import geometries.Geometry;
+import geometries.Intersectable.GeoPoint;
+import primitives.BoundingBox;
+import primitives.Double3;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Bounding volume hierarchy over the geometries - a binary tree of axis-aligned boxes which is built with
+ * the surface-area-heuristic (SAH). rays descend only into the boxes they hit.
+ * unlike the uniform voxel grid, the tree adapts to the distribution of the geometries,
+ * so it is most effective for scenes that mix large sparse areas with dense clusters of small objects.
+ * unbounded geometries (e.g. planes) are kept out of the tree and tested for every ray
+ */
+public class BoundingVolumeHierarchy extends AccelerationStructure {
+    /**
+     * The maximum amount of geometries in a leaf node that will never be split further
+     */
+    private static final int MAX_LEAF_SIZE = 2;
+    /**
+     * The amount of buckets along each axis used for evaluating the split candidates of the heuristic
+     */
+    private static final int SAH_BUCKETS_COUNT = 12;
+    /**
+     * The estimated cost of traversing an inner node, relative to the cost of one ray-geometry intersection test
+     */
+    private static final double TRAVERSAL_COST = 0.125;
+
+    /**
+     * A node in the hierarchy. contains its axis-aligned bounds and either two child nodes (inner node)
+     * or the geometries that are contained in it (leaf node)
+     */
+    private static final class Node {
+        /**
+         * The minimum x coordinate of the node's box
+         */
+        private double minX;
+        /**
+         * The minimum y coordinate of the node's box
+         */
+        private double minY;
+        /**
+         * The minimum z coordinate of the node's box
+         */
+        private double minZ;
+        /**
+         * The maximum x coordinate of the node's box
+         */
+        private double maxX;
+        /**
+         * The maximum y coordinate of the node's box
+         */
+        private double maxY;
+        /**
+         * The maximum z coordinate of the node's box
+         */
+        private double maxZ;
+        /**
+         * The left child of the node. null for leaf nodes
+         */
+        private Node left;
+        /**
+         * The right child of the node. null for leaf nodes
+         */
+        private Node right;
+        /**
+         * The geometries of a leaf node. null for inner nodes
+         */
+        private Geometry[] geometries;
+    }
+
+    /**
+     * A geometry's bounding box with its cached coordinates and centroid, used while building the tree
+     */
+    private static final class Item {
+        /**
+         * The geometry object of the item
+         */
+        private final Geometry geometry;
+        /**
+         * The minimum x,y,z coordinates of the geometry's bounding box
+         */
+        private final double[] min;
+        /**
+         * The maximum x,y,z coordinates of the geometry's bounding box
+         */
+        private final double[] max;
+        /**
+         * The x,y,z coordinates of the center of the geometry's bounding box
+         */
+        private final double[] centroid;
+
+        /**
+         * Constructor that caches the coordinates of the given bounding box
+         *
+         * @param box the bounding box of a geometry in the scene
+         */
+        private Item(BoundingBox box) {
+            Point min = box.getMinCoords();
+            Point max = box.getMaxCoords();
+            geometry = box.getGeometry();
+            this.min = new double[]{min.getX(), min.getY(), min.getZ()};
+            this.max = new double[]{max.getX(), max.getY(), max.getZ()};
+            centroid = new double[]{(this.min[0] + this.max[0]) / 2d,
+                    (this.min[1] + this.max[1]) / 2d, (this.min[2] + this.max[2]) / 2d};
+        }
+    }
+
+    /**
+     * The root node of the hierarchy. null if the scene is empty
+     */
+    private Node root;
+    /**
+     * The unbounded geometries, which are kept out of the tree and tested for every ray
+     */
+    private List<Geometry> sideGeometries = List.of();
+
+    /**
+     * The amount of nodes in the hierarchy. for the report
+     */
+    private int nodesCount = 0;
+    /**
+     * The amount of leaf nodes in the hierarchy. for the report
+     */
+    private int leavesCount = 0;
+    /**
+     * The depth of the deepest leaf in the hierarchy. for the report
+     */
+    private int maxDepth = 0;
+
+    /**
+     * Constructor that initializes the hierarchy for the given geometries. the hierarchy is built by
+     * {@link #build()}, or by the first tracer that uses it
+     *
+     * @param geometries the geometries to build the hierarchy of
+     */
+    public BoundingVolumeHierarchy(Geometries geometries) {
+        super(geometries);
+    }
+
+    @Override
+    protected void buildStructure(List<BoundingBox> boundingBoxes) {
+        nodesCount = 0;
+        leavesCount = 0;
+        maxDepth = 0;
+        //an unbounded geometry has no real box - it would inflate the boxes up the tree, and rays starting
+        //outside its stand-in box would miss it
+        List<Geometry> side = new ArrayList<>();
+        List<Item> bounded = new ArrayList<>(boundingBoxes.size());
+        for (BoundingBox boundingBox : boundingBoxes) {
+            if (boundingBox.getGeometry().isBounded())
+                bounded.add(new Item(boundingBox));
+            else
+                side.add(boundingBox.getGeometry());
+        }
+        sideGeometries = side;
+        Item[] items = bounded.toArray(new Item[0]);
+        root = items.length == 0 ? null : build(items, 0, items.length, 0);
+    }
+
+    /**
+     * Recursively builds the hierarchy of the given range of items. the range is partitioned in-place
+     * by the split with the lowest surface-area-heuristic cost
+     *
+     * @param items the items of the scene
+     * @param start the index of the first item in the range (inclusive)
+     * @param end   the index of the last item in the range (exclusive)
+     * @param depth the depth of the built node in the hierarchy
+     * @return the root node of the built sub-tree
+     */
+    private Node build(Item[] items, int start, int end, int depth) {
+        Node node = new Node();
+        ++nodesCount;
+        maxDepth = Math.max(maxDepth, depth);
+
+        //calculating the bounds of the node and of the centroids of its items
+        double[] min = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+        double[] max = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        double[] centroidMin = min.clone();
+        double[] centroidMax = max.clone();
+        for (int i = start; i < end; ++i) {
+            for (int axis = 0; axis < 3; ++axis) {
+                min[axis] = Math.min(min[axis], items[i].min[axis]);
+                max[axis] = Math.max(max[axis], items[i].max[axis]);
+                centroidMin[axis] = Math.min(centroidMin[axis], items[i].centroid[axis]);
+                centroidMax[axis] = Math.max(centroidMax[axis], items[i].centroid[axis]);
+            }
+        }
+        node.minX = min[0];
+        node.minY = min[1];
+        node.minZ = min[2];
+        node.maxX = max[0];
+        node.maxY = max[1];
+        node.maxZ = max[2];
+
+        int count = end - start;
+        if (count > MAX_LEAF_SIZE) {
+            int mid = partition(items, start, end, centroidMin, centroidMax, surfaceArea(min, max));
+            if (mid != -1) {
+                node.left = build(items, start, mid, depth + 1);
+                node.right = build(items, mid, end, depth + 1);
+                return node;
+            }
+        }
+
+        //creating a leaf node - either there are too few items, or splitting them is not worth it
+        node.geometries = new Geometry[count];
+        for (int i = 0; i < count; ++i) {
+            node.geometries[i] = items[start + i].geometry;
+        }
+        ++leavesCount;
+        return node;
+    }
+
+    /**
+     * Finds the cheapest split of the given range of items according to the surface-area-heuristic,
+     * by binning the items' centroids into buckets along each axis, and partitions the range accordingly
+     *
+     * @param items       the items of the scene
+     * @param start       the index of the first item in the range (inclusive)
+     * @param end         the index of the last item in the range (exclusive)
+     * @param centroidMin the minimum coordinates of the centroids in the range
+     * @param centroidMax the maximum coordinates of the centroids in the range
+     * @param nodeArea    the surface area of the bounding box of the whole range
+     * @return the index that separates the two partitions, or -1 if a leaf is cheaper than any split
+     */
+    private int partition(Item[] items, int start, int end, double[] centroidMin, double[] centroidMax,
+                          double nodeArea) {
+        int count = end - start;
+        double bestCost = count; //the cost of keeping all the items in a leaf
+        int bestAxis = -1;
+        int bestBucket = -1;
+
+        for (int axis = 0; axis < 3; ++axis) {
+            double extent = centroidMax[axis] - centroidMin[axis];
+            if (extent <= 0)
+                continue;
+
+            //sorting the items into the buckets and calculating the bounds of each bucket
+            int[] counts = new int[SAH_BUCKETS_COUNT];
+            double[][] bucketMin = new double[SAH_BUCKETS_COUNT][];
+            double[][] bucketMax = new double[SAH_BUCKETS_COUNT][];
+            for (int i = start; i < end; ++i) {
+                int b = bucketIndex(items[i], axis, centroidMin[axis], extent);
+                ++counts[b];
+                bucketMin[b] = bucketMin[b] == null ? items[i].min.clone() : minCoords(bucketMin[b], items[i].min);
+                bucketMax[b] = bucketMax[b] == null ? items[i].max.clone() : maxCoords(bucketMax[b], items[i].max);
+            }
+
+            //sweeping from the right for the areas of all the suffixes of buckets
+            double[] rightAreas = new double[SAH_BUCKETS_COUNT];
+            int[] rightCounts = new int[SAH_BUCKETS_COUNT];
+            double[] accMin = null;
+            double[] accMax = null;
+            int accCount = 0;
+            for (int b = SAH_BUCKETS_COUNT - 1; b > 0; --b) {
+                if (counts[b] != 0) {
+                    accMin = accMin == null ? bucketMin[b].clone() : minCoords(accMin, bucketMin[b]);
+                    accMax = accMax == null ? bucketMax[b].clone() : maxCoords(accMax, bucketMax[b]);
+                    accCount += counts[b];
+                }
+                rightCounts[b] = accCount;
+                rightAreas[b] = accMin == null ? 0 : surfaceArea(accMin, accMax);
+            }
+
+            //sweeping from the left and evaluating the cost of splitting after each bucket
+            accMin = null;
+            accMax = null;
+            accCount = 0;
+            for (int b = 0; b < SAH_BUCKETS_COUNT - 1; ++b) {
+                if (counts[b] != 0) {
+                    accMin = accMin == null ? bucketMin[b].clone() : minCoords(accMin, bucketMin[b]);
+                    accMax = accMax == null ? bucketMax[b].clone() : maxCoords(accMax, bucketMax[b]);
+                    accCount += counts[b];
+                }
+                if (accCount == 0 || rightCounts[b + 1] == 0)
+                    continue;
+                double cost = TRAVERSAL_COST + (accCount * surfaceArea(accMin, accMax)
+                        + rightCounts[b + 1] * rightAreas[b + 1]) / nodeArea;
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestAxis = axis;
+                    bestBucket = b;
+                }
+            }
+        }
+
+        if (bestAxis == -1)
+            return count > MAX_LEAF_SIZE * 8 ? partitionInHalf(items, start, end, centroidMin, centroidMax) : -1;
+
+        //partitioning the items in-place: the items of the buckets up to the best bucket go first
+        double extent = centroidMax[bestAxis] - centroidMin[bestAxis];
+        int mid = start;
+        for (int i = start; i < end; ++i) {
+            if (bucketIndex(items[i], bestAxis, centroidMin[bestAxis], extent) <= bestBucket) {
+                Item temp = items[i];
+                items[i] = items[mid];
+                items[mid++] = temp;
+            }
+        }
+        return mid;
+    }
+
+    /**
+     * Fallback split for large ranges that the heuristic refuses to split (e.g. items with identical centroids).
+     * splits the range into two equal halves, so that the leaves will not grow too large
+     *
+     * @param items       the items of the scene
+     * @param start       the index of the first item in the range (inclusive)
+     * @param end         the index of the last item in the range (exclusive)
+     * @param centroidMin the minimum coordinates of the centroids in the range
+     * @param centroidMax the maximum coordinates of the centroids in the range
+     * @return the index that separates the two halves
+     */
+    private int partitionInHalf(Item[] items, int start, int end, double[] centroidMin, double[] centroidMax) {
+        int axis = 0;
+        for (int a = 1; a < 3; ++a) {
+            if (centroidMax[a] - centroidMin[a] > centroidMax[axis] - centroidMin[axis])
+                axis = a;
+        }
+        final int sortAxis = axis;
+        Arrays.sort(items, start, end, (i1, i2) -> Double.compare(i1.centroid[sortAxis], i2.centroid[sortAxis]));
+        return start + (end - start) / 2;
+    }
+
+    /**
+     * Gives the index of the bucket that the centroid of the given item falls into on the given axis
+     *
+     * @param item        an item of the scene
+     * @param axis        the axis index (0 = x, 1 = y, 2 = z)
+     * @param centroidMin the minimum centroid coordinate on the axis
+     * @param extent      the extent of the centroids on the axis
+     * @return the bucket index of the item
+     */
+    private static int bucketIndex(Item item, int axis, double centroidMin, double extent) {
+        int b = (int) (SAH_BUCKETS_COUNT * (item.centroid[axis] - centroidMin) / extent);
+        return Math.min(b, SAH_BUCKETS_COUNT - 1);
+    }
+
+    /**
+     * Gives the minimum of two coordinates arrays, stored into the first one
+     *
+     * @param acc    the accumulated coordinates. will be modified
+     * @param coords coordinates to merge into the accumulated coordinates
+     * @return the accumulated coordinates array
+     */
+    private static double[] minCoords(double[] acc, double[] coords) {
+        for (int axis = 0; axis < 3; ++axis)
+            acc[axis] = Math.min(acc[axis], coords[axis]);
+        return acc;
+    }
+
+    /**
+     * Gives the maximum of two coordinates arrays, stored into the first one
+     *
+     * @param acc    the accumulated coordinates. will be modified
+     * @param coords coordinates to merge into the accumulated coordinates
+     * @return the accumulated coordinates array
+     */
+    private static double[] maxCoords(double[] acc, double[] coords) {
+        for (int axis = 0; axis < 3; ++axis)
+            acc[axis] = Math.max(acc[axis], coords[axis]);
+        return acc;
+    }
+
+    /**
+     * Gives the surface area of the box with the given minimum and maximum coordinates
+     *
+     * @param min the minimum x,y,z coordinates of the box
+     * @param max the maximum x,y,z coordinates of the box
+     * @return the surface area of the box
+     */
+    private static double surfaceArea(double[] min, double[] max) {
+        double dx = max[0] - min[0];
+        double dy = max[1] - min[1];
+        double dz = max[2] - min[2];
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    @Override
+    List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance, RenderStats stats) {
+        List<GeoPoint> intersections = new LinkedList<>();
+        for (Geometry geometry : sideGeometries) {
+            var geoPoints = geometry.findGeoIntersections(ray, maxDistance);
+            if (geoPoints != null)
+                intersections.addAll(geoPoints);
+        }
+        if (root != null) {
+            Vector dir = ray.getDirection();
+            double[] invDir = {1d / dir.getX(), 1d / dir.getY(), 1d / dir.getZ()};
+            collectIntersections(root, ray, invDir, maxDistance, intersections);
+        }
+        return intersections.isEmpty() ? null : intersections;
+    }
+
+    @Override
+    GeoPoint findClosestIntersection(Ray ray, RenderStats stats) {
+        ClosestHit hit = new ClosestHit(Double.POSITIVE_INFINITY);
+        for (Geometry geometry : sideGeometries)
+            hit.update(ray, geometry);
+        if (root == null)
+            return hit.toGeoPoint(ray);
+        Vector dir = ray.getDirection();
+        double[] invDir = {1d / dir.getX(), 1d / dir.getY(), 1d / dir.getZ()};
+        //the tree is only searched up to the closest side geometry
+        if (entryDistance(root, ray.getHead(), invDir, hit.distance) != Double.POSITIVE_INFINITY)
+            findClosest(root, ray, invDir, hit);
+        return hit.toGeoPoint(ray);
+    }
+
+    @Override
+    Double3 findTransparency(Ray ray, double maxDistance, Double3 minK, RenderStats stats) {
+        Double3 ktr = Double3.ONE;
+        for (Geometry geometry : sideGeometries) {
+            ktr = geometry.findTransparency(ray, maxDistance, ktr, minK);
+            if (ktr.lowerThan(minK))
+                return Double3.ZERO;
+        }
+        if (root == null)
+            return ktr;
+        Vector dir = ray.getDirection();
+        double[] invDir = {1d / dir.getX(), 1d / dir.getY(), 1d / dir.getZ()};
+        return findTransparency(root, ray, invDir, maxDistance, ktr, minK);
+    }
+
+    /**
+     * Recursively accumulates the transparency factor of the geometries in the given sub-tree that
+     * the given ray passes through, until the factor becomes insignificantly low
+     *
+     * @param node        the root of the sub-tree
+     * @param ray         a ray to trace
+     * @param invDir      the inverted x,y,z components of the ray's direction
+     * @param maxDistance the maximum distance from the ray's head to look for intersections in
+     * @param ktr         the transparency factor accumulated so far
+     * @param minK        the lowest distinguishable transparency factor, the search stops below it
+     * @return the accumulated transparency factor, zero if the ray is blocked
+     */
+    private Double3 findTransparency(Node node, Ray ray, double[] invDir, double maxDistance, Double3 ktr,
+                                     Double3 minK) {
+        if (entryDistance(node, ray.getHead(), invDir, maxDistance) == Double.POSITIVE_INFINITY)
+            return ktr;
+        if (node.geometries != null) {
+            for (Geometry geometry : node.geometries) {
+                ktr = geometry.findTransparency(ray, maxDistance, ktr, minK);
+                if (ktr.lowerThan(minK))
+                    return Double3.ZERO;
+            }
+            return ktr;
+        }
+        ktr = findTransparency(node.left, ray, invDir, maxDistance, ktr, minK);
+        return ktr.lowerThan(minK) ? Double3.ZERO
+                : findTransparency(node.right, ray, invDir, maxDistance, ktr, minK);
+    }
+
+    /**
+     * Recursively collects all the intersections of the given ray with the geometries in the given sub-tree
+     *
+     * @param node          the root of the sub-tree
+     * @param ray           a ray to trace
+     * @param invDir        the inverted x,y,z components of the ray's direction
+     * @param maxDistance   the maximum distance from the ray's head to look for intersections in
+     * @param intersections the collection the found intersections are added to
+     */
+    private void collectIntersections(Node node, Ray ray, double[] invDir, double maxDistance,
+                                      List<GeoPoint> intersections) {
+        if (entryDistance(node, ray.getHead(), invDir, maxDistance) == Double.POSITIVE_INFINITY)
+            return;
+        if (node.geometries != null) {
+            for (Geometry geometry : node.geometries) {
+                var geoPoints = geometry.findGeoIntersections(ray, maxDistance);
+                if (geoPoints != null)
+                    intersections.addAll(geoPoints);
+            }
+            return;
+        }
+        collectIntersections(node.left, ray, invDir, maxDistance, intersections);
+        collectIntersections(node.right, ray, invDir, maxDistance, intersections);
+    }
+
+    /**
+     * Recursively finds the closest intersection of the given ray in the given sub-tree.
+     * the children of each node are visited front-to-back, and a child is skipped entirely
+     * if its box is entered beyond the closest intersection found so far.
+     * the given node must have already been tested to be hit by the ray
+     *
+     * @param node   the root of the sub-tree
+     * @param ray    a ray to trace
+     * @param invDir the inverted x,y,z components of the ray's direction
+     * @param hit    the closest intersection found so far. will be updated with closer intersections
+     */
+    private void findClosest(Node node, Ray ray, double[] invDir, ClosestHit hit) {
+        Point head = ray.getHead();
+        if (node.geometries != null) {
+            for (Geometry geometry : node.geometries) {
+                hit.update(ray, geometry);
+            }
+            return;
+        }
+
+        double tLeft = entryDistance(node.left, head, invDir, hit.distance);
+        double tRight = entryDistance(node.right, head, invDir, hit.distance);
+        Node near = tLeft <= tRight ? node.left : node.right;
+        Node far = near == node.left ? node.right : node.left;
+        double tNear = Math.min(tLeft, tRight);
+        double tFar = Math.max(tLeft, tRight);
+
+        if (tNear != Double.POSITIVE_INFINITY)
+            findClosest(near, ray, invDir, hit);
+        //the far child is only relevant if it is entered before the closest intersection found so far
+        if (tFar != Double.POSITIVE_INFINITY && tFar <= hit.distance)
+            findClosest(far, ray, invDir, hit);
+    }
+
+    /**
+     * Gives the distance from the ray's head at which the ray enters the box of the given node (slab test)
+     *
+     * @param node        a node of the hierarchy
+     * @param head        the head point of the ray
+     * @param invDir      the inverted x,y,z components of the ray's direction
+     * @param maxDistance the maximum distance from the ray's head that is relevant
+     * @return the entry distance of the ray into the node's box (0 if the head is inside the box),
+     * or positive infinity if the ray misses the box within the given distance
+     */
+    private static double entryDistance(Node node, Point head, double[] invDir, double maxDistance) {
+        return BoundingBox.entryDistance(node.minX, node.minY, node.minZ, node.maxX, node.maxY, node.maxZ,
+                head, invDir, maxDistance);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("bounding volume hierarchy of %d nodes, %d leaves, depth %d, %d objects outside the tree",
+                nodesCount, leavesCount, maxDepth, sideGeometries.size());
+    }
+}
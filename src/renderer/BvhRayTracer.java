@@ -0,0 +1,32 @@
+package renderer;
+
+import scene.Scene;
+
+/**
+ * Bounding-volume-hierarchy ray tracer. performs ray tracing by descending a binary tree of
+ * axis-aligned boxes which is built with the surface-area-heuristic (SAH).
+ * unlike the uniform grid of the voxel tracer, the tree adapts to the distribution of the geometries,
+ * so it is most effective for scenes that mix large sparse areas with dense clusters of small objects
+ */
+public class BvhRayTracer extends AcceleratedRayTracer {
+    /**
+     * Constructor that initializes the tracer with the given scene.
+     * will build the bounding volume hierarchy of the scene's geometries
+     *
+     * @param scene a scene for the tracer
+     */
+    public BvhRayTracer(Scene scene) {
+        this(scene, new BoundingVolumeHierarchy(scene.geometries));
+    }
+
+    /**
+     * Constructor that initializes the tracer with the given scene and a hierarchy over its geometries,
+     * which may be shared with other tracers. the hierarchy is built now only if it is not up-to-date
+     *
+     * @param scene     a scene for the tracer
+     * @param hierarchy a bounding volume hierarchy over the scene's geometries
+     */
+    public BvhRayTracer(Scene scene, BoundingVolumeHierarchy hierarchy) {
+        super(scene, hierarchy);
+    }
+}
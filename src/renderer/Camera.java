@@ -1,13 +1,23 @@
 package renderer;
 
 
+import geometries.Geometry;
+import lighting.LightSource;
+import primitives.BoundingBox;
 import primitives.Color;
+import primitives.Material;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
+import scene.Scene;
 
+import java.io.File;
+import java.nio.file.Path;
+import java.util.BitSet;
 import java.util.List;
 import java.util.MissingResourceException;
+import java.util.SplittableRandom;
+import java.util.concurrent.*;
 
 import static primitives.Util.compare;
 import static primitives.Util.isZero;
@@ -42,6 +52,27 @@ public class Camera implements Cloneable {
         PROGRESS_ONLY_SHORT
     }
 
+    /**
+     * Options for the way the pixels are scheduled between the threads in a multithreaded render
+     */
+    public enum SchedulingMode {
+        /**
+         * Each thread claims the next tile of the image, until all the tiles are rendered
+         */
+        TILES,
+        /**
+         * The image is split recursively in a fork-join pool down to the tile size, and idle threads
+         * steal the parts of the regions other threads did not get to yet. best for images where some
+         * regions are much more expensive than others
+         */
+        WORK_STEALING,
+        /**
+         * Each tile is rendered on its own virtual thread, on the JVM's shared carrier pool. the threads count
+         * is ignored, so several cameras can render at the same time without tuning the threads of each of them
+         */
+        VIRTUAL_THREADS
+    }
+
     /**
      * Progress print mode of the camera
      */
@@ -96,6 +127,90 @@ public class Camera implements Cloneable {
      */
     private int gridSize = 1;
 
+    /**
+     * The sequence of the anti-aliasing rays in each pixel
+     */
+    private SampleSequence antiAliasingSequence = SampleSequence.JITTERED;
+
+    /**
+     * Whether the antialiasing is adaptive - only pixels with high color variance get more than
+     * the first batch of rays
+     */
+    private boolean adaptiveAntiAliasing = false;
+
+    /**
+     * The maximum amount of ray casts per pixel for the adaptive antialiasing
+     */
+    private int maxAntiAliasingRayCasts = 1;
+
+    /**
+     * The adaptive antialiasing stops refining a pixel once the standard error of its brightness
+     * is no higher than this threshold (in color units, 0-255)
+     */
+    private double adaptiveThreshold = 0;
+
+    /**
+     * The amount of rays cast through each pixel in the last render, row after row
+     */
+    private int[] pixelSamples;
+
+    /**
+     * Whether the current pass over the pixels is a pass of a progressive render - each pixel gets a single ray
+     */
+    private boolean progressivePass = false;
+
+    /**
+     * The seed of the pixels' sample shifts in the current progressive render
+     */
+    private long progressiveSeed = 0;
+
+    /**
+     * The running mean of the brightness of each pixel's samples in the current progressive render
+     */
+    private double[] brightnessMeans;
+
+    /**
+     * The running sum of squared deviations of the brightness of each pixel's samples
+     * in the current progressive render
+     */
+    private double[] brightnessDeviations;
+
+    /**
+     * The standard error of the pixels' brightness after the last pass of the last progressive render
+     */
+    private double progressiveError = Double.POSITIVE_INFINITY;
+
+    /**
+     * The directory of the renders' checkpoints, null for rendering without checkpoints
+     */
+    private Path checkpointDirectory = null;
+
+    /**
+     * The time between forcing a render's checkpoint to the disk in milliseconds
+     */
+    private long checkpointMillis = 0;
+
+    /**
+     * The checkpoint of the current render, null if there is no render on its way or it has no checkpoint
+     */
+    private RenderCheckpoint checkpoint = null;
+
+    /**
+     * The progressive render writes a snapshot of the image every this many passes. 0 for no snapshots by passes
+     */
+    private int snapshotPasses = 0;
+
+    /**
+     * The progressive render writes a snapshot of the image once this many milliseconds passed since the last
+     * snapshot. 0 for no snapshots by time
+     */
+    private long snapshotMillis = 0;
+    /**
+     * Whether the image writer's high-dynamic-range buffer was enabled by the last progressive render and not by
+     * the user, so the next render drops it instead of accumulating over the progressive passes
+     */
+    private boolean progressiveHdrBuffer = false;
+
     /**
      * The threads count for the next image-render. if this value is higher than 1,
      * parallelization will be used for the rendering
@@ -103,14 +218,19 @@ public class Camera implements Cloneable {
     private int threadsCount = 0;
 
     /**
-     * Executor for the rendering of pixels in parallelization
+     * The default length (in pixels) of the side of each tile the image is divided into for parallel rendering
      */
-    private PixelExecutor pixelExecutor;
+    private static final int DEFAULT_TILE_SIZE = 16;
 
     /**
-     * Determines if multithreading is enabled
+     * The length (in pixels) of the side of each tile the image is divided into for parallel rendering
      */
-    private boolean multiThreadingEnabled = false;
+    private int tileSize = DEFAULT_TILE_SIZE;
+
+    /**
+     * The way the pixels are scheduled between the threads in a multithreaded render
+     */
+    private SchedulingMode schedulingMode = SchedulingMode.TILES;
 
     /**
      * The horizontal pixels count of the camera's image writer
@@ -125,7 +245,7 @@ public class Camera implements Cloneable {
     /**
      * The completed pixels of the current image render. only relevant once a render is on its way
      */
-    private double completedPixelsCount = 0;
+    private int completedPixelsCount = 0;
 
     /**
      * The total amount of pixels to render for the current image render.
@@ -151,6 +271,11 @@ public class Camera implements Cloneable {
      */
     private long elapsedTime = 0;
 
+    /**
+     * The statistics of the last image render
+     */
+    private RenderStats renderStats = new RenderStats();
+
     /**
      * Empty constructor
      */
@@ -249,6 +374,26 @@ public class Camera implements Cloneable {
      * @return a ray constructed through the pixel at column j and row i at the view-plane
      */
     public List<Ray> constructRay(int nX, int nY, int j, int i) {
+        Point pIJ = pixelCenter(nX, nY, j, i);
+        //pixel size
+        double rY = vpHeight / (double) nY;
+        double rX = vpWidth / (double) nX;
+
+        Ray mainRay = new Ray(position, pIJ.subtract(position).normalize());
+        return antiAliasingRayCasts == 1 ? List.of(mainRay) : mainRay.generateBeam(
+                gridSize, Double.min(rY, rX), position.distance(pIJ), antiAliasingRayCasts, vTo, antiAliasingSequence);
+    }
+
+    /**
+     * Gives the center point of a pixel on the view plane
+     *
+     * @param nX the amount of horizontal pixels in each row of the view plane
+     * @param nY the amount of vertical pixels in each column of the view plane
+     * @param j  the required column index in the view plane
+     * @param i  the required row index in the view plane
+     * @return the center point of the pixel at column j and row i at the view-plane
+     */
+    private Point pixelCenter(int nX, int nY, int j, int i) {
         //center point of the view plane
         Point pc = position.add(vTo.scale(vpDistance));
 
@@ -267,10 +412,7 @@ public class Camera implements Cloneable {
         if (!isZero(yI)) {
             pIJ = pIJ.add(vUp.scale(-yI));
         }
-
-        Ray mainRay = new Ray(position, pIJ.subtract(position).normalize());
-        return antiAliasingRayCasts == 1 ? List.of(mainRay) : mainRay.generateBeam(
-                gridSize, Double.min(rY, rX), position.distance(pIJ), antiAliasingRayCasts, vTo);
+        return pIJ;
     }
 
     /**
@@ -281,9 +423,37 @@ public class Camera implements Cloneable {
      * @return the camera object itself
      */
     public Camera enableMultiThreading(int threadsCount) {
+        return enableMultiThreading(threadsCount, DEFAULT_TILE_SIZE);
+    }
+
+    /**
+     * Enable multithreading for the camera, with the given tile size. each thread renders a whole
+     * tile of tileSize x tileSize pixels at a time. smaller tiles balance the work better between the
+     * threads, bigger tiles reduce the scheduling and progress-report overhead
+     *
+     * @param threadsCount the amount of threads the camera is allowed to use
+     * @param tileSize     the length (in pixels) of each tile's side
+     * @return the camera object itself
+     */
+    public Camera enableMultiThreading(int threadsCount, int tileSize) {
         if (threadsCount <= 0)
             throw new IllegalArgumentException("Threads count must be 1 or higher");
+        if (tileSize <= 0)
+            throw new IllegalArgumentException("Tile size must be 1 or higher");
         this.threadsCount = threadsCount;
+        this.tileSize = tileSize;
+        return this;
+    }
+
+    /**
+     * Set the way the pixels are scheduled between the threads in a multithreaded render.
+     * only relevant when multithreading is enabled, except for virtual threads which are always used once set
+     *
+     * @param schedulingMode the scheduling mode for the next renders of the camera
+     * @return the camera object itself
+     */
+    public Camera setSchedulingMode(SchedulingMode schedulingMode) {
+        this.schedulingMode = schedulingMode;
         return this;
     }
 
@@ -294,32 +464,31 @@ public class Camera implements Cloneable {
      * and the image file can be constructed
      *
      * @return the camera itself
+     * @throws IllegalStateException if checkpoints are enabled while the image writer's high-dynamic-range
+     *                               buffer is enabled
      */
     public Camera renderImage() {
         return renderImage(-1);
     }
 
     /**
-     * Called when a pixel is finished rendering
+     * Called when a batch of pixels is finished rendering
+     *
+     * @param count the amount of pixels in the batch
      */
-    private void onPixelDone() {
-        //if multi threading is on, submit the next pixel to the render executor
-        if (multiThreadingEnabled) {
-            PixelExecutor.Pixel pixel = pixelExecutor.nextPixel();
-            if (pixel != null) {
-                pixelExecutor.submit(() ->
-                        castRay(nX, nY, pixel.col(), pixel.row())
-                );
-            }
-        }
-        ++completedPixelsCount;
-        printProgress();
+    private synchronized void onPixelsDone(int count) {
+        completedPixelsCount += count;
+        if (checkpoint != null)
+            checkpoint.forceIfDue();
+        //a progressive render reports its progress by passes
+        if (!progressivePass)
+            printProgress();
     }
 
     /**
      * Prints rendering progress according to the camera's progress print mode
      */
-    private synchronized void printProgress() {
+    private void printProgress() {
         double dProgress = ((completedPixelsCount / (double) totalPixelsCount) * 100);
         int progress = (int) dProgress;
         switch (printMode) {
@@ -352,8 +521,12 @@ public class Camera implements Cloneable {
                 }
                 break;
             case PROGRESS_ONLY_SHORT:
-                if (dProgress == 25.0 || dProgress == 50.0 || dProgress == 75.0 || dProgress == 99.0)
-                    System.out.println("Progress: " + progress + "%");
+                //progress is reported in batches, so print the last milestone that was passed by this batch
+                int milestone = progress >= 99 ? 99 : progress / 25 * 25;
+                if (milestone > this.percentageProgress) {
+                    this.percentageProgress = milestone;
+                    System.out.println("Progress: " + milestone + "%");
+                }
                 break;
         }
     }
@@ -381,49 +554,279 @@ public class Camera implements Cloneable {
      * @param recursionDepth the maximum recursion depth for calculating reflection and refraction
      *                       lighting during the rendering phase. highly affects performance.
      * @return the camera itself
+     * @throws IllegalStateException if checkpoints are enabled while the image writer's high-dynamic-range
+     *                               buffer is enabled
      */
     public Camera renderImage(int recursionDepth) {
         if (recursionDepth != -1)
             rayTracer.setMaxRecursionDepth(recursionDepth);
+        renderPixels();
+        rayTracer.resetMaxRecursionDepth();
+        return this;
+    }
+
+    /**
+     * Enables checkpoints for the next renders of the camera. each render keeps the colors of its completed
+     * pixels in a memory-mapped checkpoint file in the given directory, named after the image, which is forced
+     * to the disk every given interval. a render that finds a checkpoint of the same image, with the same
+     * fingerprint of the scene and the camera, only renders the pixels the checkpoint is missing.
+     * the checkpoint is deleted once its render is complete.
+     * since the frames of a video have their own images, a video resumes its interrupted frames from their
+     * checkpoints as well. the checkpoints are not used by progressive renders.
+     * a checkpoint keeps the clamped colors of the pixels, so it can not resume a render into the image
+     * writer's high-dynamic-range buffer - such a render fails
+     *
+     * @param directory      the directory of the checkpoint files, null for disabling the checkpoints
+     * @param intervalMillis the time between forcing a checkpoint to the disk in milliseconds
+     * @return the camera itself
+     */
+    public Camera enableCheckpoints(Path directory, long intervalMillis) {
+        if (intervalMillis < 0)
+            throw new IllegalArgumentException("Checkpoint interval must not be negative");
+        checkpointDirectory = directory;
+        checkpointMillis = intervalMillis;
+        return this;
+    }
+
+    /**
+     * Sets the snapshots of a progressive render - the image is written every given amount of passes,
+     * or once the given time passed since the last snapshot, whichever comes first. the snapshots are
+     * written over the image file, so it always shows the latest snapshot
+     *
+     * @param passes the amount of passes between snapshots, 0 for no snapshots by passes
+     * @param millis the time between snapshots in milliseconds, 0 for no snapshots by time
+     * @return the camera itself
+     */
+    public Camera setProgressiveSnapshots(int passes, long millis) {
+        if (passes < 0 || millis < 0)
+            throw new IllegalArgumentException("Snapshot intervals must not be negative");
+        snapshotPasses = passes;
+        snapshotMillis = millis;
+        return this;
+    }
+
+    /**
+     * Renders the image progressively with the default recursion depth of the ray tracer.
+     * see {@link #renderProgressive(int, long, double, int)}
+     *
+     * @param maxPasses        the maximum amount of passes, 1 or more
+     * @param timeBudgetMillis the time after which no more passes are started in milliseconds, 0 for no limit
+     * @param threshold        the render stops once the standard error of the pixels' brightness is no
+     *                         higher than this threshold (in color units, 0-255). 0 for no convergence check
+     * @return the camera itself
+     */
+    public Camera renderProgressive(int maxPasses, long timeBudgetMillis, double threshold) {
+        return renderProgressive(maxPasses, timeBudgetMillis, threshold, -1);
+    }
+
+    /**
+     * Renders the image progressively - each pass casts one more ray through every pixel, and the image
+     * writer's high-dynamic-range buffer keeps the average of the passes, so a usable image is ready after
+     * the first pass and gets cleaner with every pass. the render stops after the maximum amount of passes,
+     * once the time budget is spent, or once the image converged - whichever comes first.
+     * the stop conditions are checked after each pass. the camera's antialiasing settings are not used
+     *
+     * @param maxPasses        the maximum amount of passes, 1 or more
+     * @param timeBudgetMillis the time after which no more passes are started in milliseconds, 0 for no limit
+     * @param threshold        the render stops once the standard error of the pixels' brightness (the
+     *                         root-mean-square over all the pixels) is no higher than this threshold
+     *                         (in color units, 0-255). 0 for no convergence check
+     * @param recursionDepth   the maximum recursion depth for calculating reflection and refraction
+     *                         lighting, -1 for the default recursion depth of the tracer
+     * @return the camera itself
+     */
+    public Camera renderProgressive(int maxPasses, long timeBudgetMillis, double threshold, int recursionDepth) {
+        if (maxPasses <= 0)
+            throw new IllegalArgumentException("Passes count must be 1 or higher");
+        if (timeBudgetMillis < 0 || threshold < 0)
+            throw new IllegalArgumentException("Time budget and threshold must not be negative");
+        if (recursionDepth != -1)
+            rayTracer.setMaxRecursionDepth(recursionDepth);
 
         nY = imageWriter.getNy();
         nX = imageWriter.getNx();
         totalPixelsCount = nX * nY;
-        completedPixelsCount = 0;
+        pixelSamples = new int[totalPixelsCount];
+        brightnessMeans = new double[totalPixelsCount];
+        brightnessDeviations = new double[totalPixelsCount];
+        progressiveSeed = ThreadLocalRandom.current().nextLong();
+        progressiveError = Double.POSITIVE_INFINITY;
+        renderStats = new RenderStats();
+        renderStats.setBuildNanos(rayTracer.prepareRender());
+        //a buffer the progressive render enables for itself is dropped by the next render
+        progressiveHdrBuffer = progressiveHdrBuffer || !imageWriter.isHdrBufferEnabled();
+        imageWriter.enableHdrBuffer();
+
+        long start = System.nanoTime();
+        long lastSnapshot = System.currentTimeMillis();
+        //the snapshots are written in the background, while the next passes are traced
+        CompletableFuture<File> snapshot = null;
+        progressivePass = true;
+        try {
+            for (int pass = 1; pass <= maxPasses; ++pass) {
+                imageWriter.startPass();
+                tracePixels();
+                if (pass > 1)
+                    progressiveError = brightnessError();
+
+                long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                if (printMode != ProgressPrintMode.NONE)
+                    System.out.printf("Pass %d | Standard error: %.3f | Elapsed time: %s%n",
+                            pass, progressiveError, formatTime(elapsedMillis));
+                long now = System.currentTimeMillis();
+                if ((snapshotPasses > 0 && pass % snapshotPasses == 0)
+                        || (snapshotMillis > 0 && now - lastSnapshot >= snapshotMillis)) {
+                    awaitSnapshot(snapshot);
+                    snapshot = imageWriter.writeToImageAsync();
+                    lastSnapshot = now;
+                }
+
+                if ((timeBudgetMillis > 0 && elapsedMillis >= timeBudgetMillis)
+                        || (threshold > 0 && progressiveError <= threshold))
+                    break;
+            }
+            //the last snapshot is on the disk before the render returns, so it is never written over a later image
+            awaitSnapshot(snapshot);
+        } finally {
+            progressivePass = false;
+            rayTracer.resetMaxRecursionDepth();
+        }
+        renderStats.setRenderNanos(System.nanoTime() - start);
+        if (printMode != ProgressPrintMode.NONE)
+            System.out.println(renderStats);
+        return this;
+    }
+
+    /**
+     * Waits for the writing of a snapshot of a progressive render
+     *
+     * @param snapshot the pending writing of the snapshot, null if no snapshot was written
+     * @throws IllegalStateException if the snapshot could not be written
+     */
+    private static void awaitSnapshot(CompletableFuture<File> snapshot) {
+        if (snapshot == null)
+            return;
+        try {
+            snapshot.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Failed to write a snapshot of the progressive render", e.getCause());
+        }
+    }
+
+    /**
+     * Getter for the convergence of the last progressive render
+     *
+     * @return the root-mean-square standard error of the pixels' brightness after the last pass of the last
+     * progressive render, infinity if it had a single pass
+     */
+    public double getProgressiveError() {
+        return progressiveError;
+    }
+
+    /**
+     * Calculates the standard error of the pixels' mean brightness over the passes so far
+     *
+     * @return the root-mean-square over all the pixels of the standard error of each pixel's mean brightness
+     */
+    private double brightnessError() {
+        double squaredErrors = 0;
+        for (int pixel = 0; pixel < totalPixelsCount; ++pixel) {
+            int count = pixelSamples[pixel];
+            squaredErrors += brightnessDeviations[pixel] / (count - 1) / count;
+        }
+        return Math.sqrt(squaredErrors / totalPixelsCount);
+    }
 
-        multiThreadingEnabled = threadsCount > 1;
+    /**
+     * Renders all the pixels of the image into the image-writer, with the tracer's current recursion depth
+     */
+    private void renderPixels() {
+        nY = imageWriter.getNy();
+        nX = imageWriter.getNx();
+        totalPixelsCount = nX * nY;
+        pixelSamples = new int[totalPixelsCount];
+        renderStats = new RenderStats();
+        renderStats.setBuildNanos(rayTracer.prepareRender());
+        //with a high-dynamic-range buffer, the render is accumulated over the previous renders - unless the
+        //buffer was only enabled for a progressive render, which this render replaces
+        if (progressiveHdrBuffer) {
+            imageWriter.disableHdrBuffer();
+            progressiveHdrBuffer = false;
+        }
+        if (checkpointDirectory != null && imageWriter.isHdrBufferEnabled())
+            throw new IllegalStateException("Checkpoints can not restore the linear colors of the HDR buffer");
+        imageWriter.startPass();
+        if (checkpointDirectory != null) {
+            checkpoint = new RenderCheckpoint(checkpointDirectory.resolve(imageWriter.getImageName() + ".checkpoint"),
+                    fingerprint(), nX, nY, checkpointMillis);
+            if (printMode != ProgressPrintMode.NONE && checkpoint.getRestoredPixels() > 0)
+                System.out.println("Resuming from checkpoint: " + checkpoint.getRestoredPixels() + " out of "
+                        + totalPixelsCount + " pixels are done");
+        }
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            tracePixels();
+            completed = true;
+        } finally {
+            if (checkpoint != null) {
+                checkpoint.close(completed);
+                checkpoint = null;
+            }
+        }
+        renderStats.setRenderNanos(System.nanoTime() - start);
+        if (printMode != ProgressPrintMode.NONE)
+            System.out.println(renderStats);
+    }
+
+    /**
+     * Casts the rays of all the pixels of the image, with the camera's multithreading settings
+     */
+    private void tracePixels() {
+        completedPixelsCount = 0;
+        percentageProgress = 0;
+        lastUpdateTime = 0;
+        elapsedTime = 0;
 
         //using the executor if multithreading is enabled
-        if (multiThreadingEnabled) {
-            pixelExecutor = new PixelExecutor(threadsCount, nX, nY);
-            pixelExecutor.setPixelCompleteListener(this::onPixelDone);
-
-            int activeThreads = threadsCount;
-            while (activeThreads-- > 0) { //initiate the first pixels
-                PixelExecutor.Pixel pixel = pixelExecutor.nextPixel();
-                if (pixel != null) {
-                    pixelExecutor.submit(() ->
-                            castRay(nX, nY, pixel.col(), pixel.row())
-                    );
-                }
+        if (threadsCount > 1 || schedulingMode == SchedulingMode.VIRTUAL_THREADS) {
+            PixelExecutor pixelExecutor = new PixelExecutor(Math.max(threadsCount, 1), nX, nY, tileSize);
+            pixelExecutor.setPixelsCompleteListener(this::onPixelsDone);
+            switch (schedulingMode) {
+                case TILES -> pixelExecutor.render((x, y) -> castRay(nX, nY, x, y));
+                case WORK_STEALING -> pixelExecutor.renderWorkStealing((x, y) -> castRay(nX, nY, x, y));
+                case VIRTUAL_THREADS -> pixelExecutor.renderVirtualThreads((x, y) -> castRay(nX, nY, x, y));
+            }
+
+            if (printMode != ProgressPrintMode.NONE && !progressivePass) {
+                for (PixelExecutor.WorkerReport report : pixelExecutor.getWorkerReports())
+                    System.out.printf("%s: %d pixels, %.1f%% utilisation%n",
+                            report.worker(), report.pixels(), report.utilisation() * 100);
             }
-            pixelExecutor.render();
         } else { //no multithreading
-            for (int i = 0; i < nY; ++i) {
-                for (int j = 0; j < nX; ++j) {
-                    final int y = i;
-                    final int x = j;
+            for (int y = 0; y < nY; ++y) {
+                for (int x = 0; x < nX; ++x) {
                     castRay(nX, nY, x, y);
                 }
+                onPixelsDone(nX);
             }
         }
+    }
 
-        rayTracer.resetMaxRecursionDepth();
-        return this;
+    /**
+     * Getter for the statistics of the last image render. the image writing time is filled in
+     * once the image is written
+     *
+     * @return the statistics of the last image render
+     */
+    public RenderStats getRenderStats() {
+        return renderStats;
     }
 
     /**
-     * Helper method for casting a ray through the given pixel and coloring it per calculation
+     * Helper method for casting a ray through the given pixel and coloring it per calculation. an idle worker of
+     * the render is bound to the current thread for the pixel only, so the render allocates a worker for each
+     * pixel rendered at the same time, rather than for each thread that renders its pixels
      *
      * @param nX     the amount of horizontal pixels
      * @param nY     the amount of vertical pixels
@@ -431,12 +834,197 @@ public class Camera implements Cloneable {
      * @param row    the row's index (y pixel) for casting the ray through
      */
     private void castRay(int nX, int nY, int column, int row) {
+        RenderWorker worker = renderStats.bindWorker();
+        try {
+            castPixelRays(nX, nY, column, row);
+        } finally {
+            renderStats.releaseWorker(worker);
+        }
+    }
+
+    /**
+     * Helper method for casting the rays through the given pixel and coloring it per calculation, by the worker
+     * bound to the current thread
+     *
+     * @param nX     the amount of horizontal pixels
+     * @param nY     the amount of vertical pixels
+     * @param column the column's index (x pixel) for casting the rays through
+     * @param row    the row's index (y pixel) for casting the rays through
+     */
+    private void castPixelRays(int nX, int nY, int column, int row) {
+        if (progressivePass) {
+            castProgressiveRay(nX, nY, column, row);
+            return;
+        }
+        int pixel = row * nX + column;
+        if (checkpoint != null && checkpoint.isCompleted(pixel)) {
+            //the pixel was completed before the render was interrupted
+            imageWriter.writePixel(column, row, new Color(new java.awt.Color(checkpoint.getColor(pixel))));
+            pixelSamples[pixel] = checkpoint.getSamples(pixel);
+            return;
+        }
+        if (adaptiveAntiAliasing) {
+            castAdaptiveRays(nX, nY, column, row);
+            return;
+        }
         List<Ray> beam = constructRay(nX, nY, column, row);
+        renderStats.countPrimaryRays(beam.size());
+        pixelSamples[pixel] = beam.size();
         if (antiAliasingRayCasts != 1)
-            imageWriter.writePixel(column, row, rayTracer.traceBeam(beam));
+            writePixel(column, row, rayTracer.traceBeam(beam));
         else
-            imageWriter.writePixel(column, row, rayTracer.traceRay(beam.getFirst()));
-        onPixelDone();
+            writePixel(column, row, rayTracer.traceRay(beam.getFirst()));
+    }
+
+    /**
+     * Helper method for writing the final color of a pixel to the image writer, and to the render's checkpoint
+     *
+     * @param column the column's index (x pixel)
+     * @param row    the row's index (y pixel)
+     * @param color  the pixel's color
+     */
+    private void writePixel(int column, int row, Color color) {
+        imageWriter.accumulatePixel(column, row, color);
+        if (checkpoint != null)
+            checkpoint.complete(row * nX + column, color.getRGB(), pixelSamples[row * nX + column]);
+    }
+
+    /**
+     * Calculates the fingerprint of the scene and the camera, which a checkpoint must match to be resumed.
+     * the fingerprint covers the geometries' bounding boxes, emissions and materials (with their blur), the
+     * lights' settings, the camera's view, resolution and antialiasing settings, and the tracer's settings
+     *
+     * @return a 64-bit hash of the render's settings
+     */
+    private long fingerprint() {
+        Scene scene = rayTracer.scene;
+        StringBuilder description = new StringBuilder();
+        description.append(scene.name).append(scene.background).append(scene.ambientLight.getIntensity());
+        for (LightSource light : scene.lights)
+            description.append(light.describe());
+        for (BoundingBox box : scene.geometries.getAllBoundingBoxes()) {
+            Geometry geometry = box.getGeometry();
+            Material material = geometry.getMaterial();
+            description.append(geometry.getClass().getName()).append(box.getMinCoords()).append(box.getMaxCoords())
+                    .append(geometry.getEmission()).append(material.kD).append(material.kS).append(material.kR)
+                    .append(material.kT).append(material.nShininess).append(material.reflectionBlackboardDiameter)
+                    .append(material.reflectionBlurCasts).append(material.reflectionSequence)
+                    .append(material.transparencyBlackboardDiameter).append(material.transparencyBlurCasts)
+                    .append(material.transparencySequence);
+        }
+        description.append(position).append(vTo).append(vUp).append(vpDistance).append(vpWidth).append(vpHeight)
+                .append(nX).append(nY).append(antiAliasingRayCasts).append(gridSize).append(antiAliasingSequence)
+                .append(adaptiveAntiAliasing).append(maxAntiAliasingRayCasts).append(adaptiveThreshold)
+                .append(rayTracer.describe());
+
+        //64-bit FNV-1a
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < description.length(); ++i) {
+            hash ^= description.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Helper method for coloring the given pixel with adaptive antialiasing. the rays are cast in batches
+     * through points of the antialiasing sequence, and after each batch the pixel is done if the
+     * standard error of its brightness is low enough, or if it got the maximum amount of rays
+     *
+     * @param nX     the amount of horizontal pixels
+     * @param nY     the amount of vertical pixels
+     * @param column the column's index (x pixel) for casting the rays through
+     * @param row    the row's index (y pixel) for casting the rays through
+     */
+    private void castAdaptiveRays(int nX, int nY, int column, int row) {
+        Point pIJ = pixelCenter(nX, nY, column, row);
+        double rY = vpHeight / (double) nY;
+        double rX = vpWidth / (double) nX;
+        double[] samples = antiAliasingSequence.generate(maxAntiAliasingRayCasts, ThreadLocalRandom.current());
+
+        Color sum = Color.BLACK;
+        //running mean and sum of squared deviations of the samples' brightness (Welford's method)
+        double mean = 0;
+        double squaredDeviations = 0;
+        int count = 0;
+        while (count < maxAntiAliasingRayCasts) {
+            int batchEnd = Math.min(count + antiAliasingRayCasts, maxAntiAliasingRayCasts);
+            for (; count < batchEnd; ++count) {
+                Color color = rayTracer.traceRay(sampleRay(pIJ, rX, rY, samples[count * 2], samples[count * 2 + 1]));
+                sum = sum.add(color);
+
+                double brightness = brightness(color);
+                double delta = brightness - mean;
+                mean += delta / (count + 1);
+                squaredDeviations += delta * (brightness - mean);
+            }
+            //the standard error of the mean brightness: sqrt(variance / count)
+            if (count > 1 && squaredDeviations / (count - 1) / count <= adaptiveThreshold * adaptiveThreshold)
+                break;
+        }
+
+        renderStats.countPrimaryRays(count);
+        pixelSamples[row * nX + column] = count;
+        writePixel(column, row, sum.reduce(count));
+    }
+
+    /**
+     * Helper method for adding a single sample to the given pixel in a pass of a progressive render.
+     * the samples of each pixel follow the R2 sequence, shifted by a random amount for each pixel - so
+     * the samples of the passes so far are always spread evenly over the pixel
+     *
+     * @param nX     the amount of horizontal pixels
+     * @param nY     the amount of vertical pixels
+     * @param column the column's index (x pixel) for casting the ray through
+     * @param row    the row's index (y pixel) for casting the ray through
+     */
+    private void castProgressiveRay(int nX, int nY, int column, int row) {
+        int pixel = row * nX + column;
+        int count = pixelSamples[pixel];
+        SplittableRandom shift = new SplittableRandom(progressiveSeed + pixel);
+        double[] sample = SampleSequence.r2Point(count, shift.nextDouble(), shift.nextDouble());
+        Color color = rayTracer.traceRay(sampleRay(pixelCenter(nX, nY, column, row),
+                vpWidth / (double) nX, vpHeight / (double) nY, sample[0], sample[1]));
+
+        double brightness = brightness(color);
+        double delta = brightness - brightnessMeans[pixel];
+        brightnessMeans[pixel] += delta / (count + 1);
+        brightnessDeviations[pixel] += delta * (brightness - brightnessMeans[pixel]);
+
+        renderStats.countPrimaryRays(1);
+        pixelSamples[pixel] = count + 1;
+        //the image writer accumulates the passes, and shows their average
+        imageWriter.accumulatePixel(column, row, color);
+    }
+
+    /**
+     * Constructs the ray through a sample point in a pixel
+     *
+     * @param pIJ the center of the pixel on the view plane
+     * @param rX  the pixel's width
+     * @param rY  the pixel's height
+     * @param x   the sample's horizontal position in the pixel, in [0,1)
+     * @param y   the sample's vertical position in the pixel, in [0,1)
+     * @return the ray from the camera through the sample point
+     */
+    private Ray sampleRay(Point pIJ, double rX, double rY, double x, double y) {
+        //moving the sample from the unit square to the pixel's square on the view plane
+        double dx = (x - 0.5) * rX;
+        double dy = (y - 0.5) * rY;
+        Point point = new Point(pIJ.getX() + vRight.getX() * dx + vUp.getX() * dy,
+                pIJ.getY() + vRight.getY() * dx + vUp.getY() * dy,
+                pIJ.getZ() + vRight.getZ() * dx + vUp.getZ() * dy);
+        return new Ray(position, point.subtract(position).normalize());
+    }
+
+    /**
+     * Gives the perceived brightness of a color
+     *
+     * @param color a color
+     * @return the luminance of the color, in color units
+     */
+    private static double brightness(Color color) {
+        return 0.2126 * color.getRed() + 0.7152 * color.getGreen() + 0.0722 * color.getBlue();
     }
 
     /**
@@ -462,14 +1050,74 @@ public class Camera implements Cloneable {
     }
 
     /**
-     * Method for constructing a PNG file of our rendered image
+     * Method for constructing a PNG file of our rendered image. the write time is set in the render's statistics
+     *
+     * @return the image file
+     * @throws IllegalStateException if the file could not be written
+     */
+    public File writeToImage() {
+        long start = System.nanoTime();
+        try {
+            return imageWriter.writeToImage();
+        } finally {
+            renderStats.setWriteNanos(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Method for constructing a PNG file of our rendered image in the background, so the camera can start the
+     * next render right away. the write time in the render's statistics is set once the file is written
+     *
+     * @return the pending writing of the image, completed with the image file once it is written.
+     * an I/O failure completes it exceptionally with an IllegalStateException
+     */
+    public Future<File> writeToImageAsync() {
+        long start = System.nanoTime();
+        RenderStats stats = renderStats;
+        return imageWriter.writeToImageAsync()
+                .whenComplete((file, failure) -> stats.setWriteNanos(System.nanoTime() - start));
+    }
+
+    /**
+     * Method for constructing a PFM file of the linear colors of our rendered image, averaged over all the
+     * renders accumulated in the image writer's high-dynamic-range buffer. the file is written in the background
+     *
+     * @return the pending writing of the file, completed with the file once it is written
+     * @throws IllegalStateException if the image writer's high-dynamic-range buffer is not enabled
+     */
+    public Future<File> writeHdrImage() {
+        return imageWriter.writeHdrImage();
+    }
+
+    /**
+     * Writes a debug image of the amount of rays cast through each pixel in the last render.
+     * the brighter the pixel, the more rays it got - white is the most rays any pixel got
+     *
+     * @param imageName the name of the debug image file
+     * @return the image file
+     * @throws IllegalStateException if the file could not be written
      */
-    public void writeToImage() {
-        imageWriter.writeToImage();
+    public File writeSamplesImage(String imageName) {
+        if (pixelSamples == null)
+            throw new IllegalStateException("The image was not rendered yet");
+        int max = 1;
+        for (int samples : pixelSamples)
+            max = Math.max(max, samples);
+        ImageWriter samplesWriter = new ImageWriter(imageName, nX, nY);
+        for (int row = 0; row < nY; ++row) {
+            for (int column = 0; column < nX; ++column) {
+                double level = 255d * pixelSamples[row * nX + column] / max;
+                samplesWriter.writePixel(column, row, new Color(level, level, level));
+            }
+        }
+        return samplesWriter.writeToImage();
     }
 
     /**
-     * Generate multiple frames along a given bezier-curve which can than be combined into a video
+     * Generate multiple frames along a given bezier-curve which can than be combined into a video.
+     * all the frames are rendered with the same tracer, so its acceleration structure is built once and is
+     * only rebuilt if the scene's geometries are changed between the frames.
+     * the frames are rendered one at a time, while the previous frame is written
      *
      * @param frames         the total amount of frames that will be generated for this video
      * @param startFrom      the frame to start from, relevant if we already generated some frames in the past.
@@ -489,46 +1137,182 @@ public class Camera implements Cloneable {
      */
     public void generateVideo(int frames, int startFrom, String name, int nX, int nY, Point focusPoint, Point origin,
                               Point destination, Point interpolation, double rotation, int recursionDepth) {
-        printMode = ProgressPrintMode.PROGRESS_ONLY_SHORT;
-        lastUpdateTime = System.currentTimeMillis();
-        for (int i = startFrom; i < frames; ++i) {
-            //where we are along the curve, percentage wise
-            double positionOnRoute = (double) i / (double) frames;
-            String frameName = name + i;
-            imageWriter = new ImageWriter(frameName, nX, nY);
-            //calculating the position of the camera along the curve for the current frame using quadratic interpolation
-            Point position = Point.quadraticInterpolate(origin, interpolation, destination, positionOnRoute);
-            //setting the new position for the camera
-            setFocusPoint(position, focusPoint);
-            rotate(rotation);
-
-            System.out.println("Working on frame " + i + " ...");
-
-            if (recursionDepth >= 1) //rendering with user-defined recursion depth
-                renderImage(recursionDepth);
-            else //rendering with the ray tracer's default recursion depth
-                renderImage();
-
-            writeToImage();
+        generateVideo(frames, startFrom, name, nX, nY, focusPoint, origin, destination, interpolation, rotation,
+                recursionDepth, 1);
+    }
 
-            //handling progress print
-            int progress = (int) ((i / (double) frames) * 100);
-            long currentTime = System.currentTimeMillis();
-            long timeBetweenCalls = currentTime - lastUpdateTime;
-            elapsedTime += timeBetweenCalls;
+    /**
+     * Generate multiple frames along a given bezier-curve which can than be combined into a video, rendering
+     * several frames at the same time. each frame is rendered by a snapshot of this camera at the frame's
+     * position, so the camera itself is not changed. the rendered frames are passed through a bounded queue
+     * to the calling thread, which writes them - so the PNG encoding and the disk writes overlap the tracing
+     * of the next frames.
+     * the frames may finish out of order - the progress prints tell the frame to resume from, all the frames
+     * before it are written. each frame is rendered with the camera's own multithreading settings, so the
+     * total amount of threads is the concurrent frames times the camera's threads count
+     *
+     * @param frames           the total amount of frames that will be generated for this video
+     * @param startFrom        the frame to start from, relevant if we already generated some frames in the past.
+     *                         the frames before it are not rendered again
+     * @param name             the name of the frames, each frame-image will be named with a running
+     *                         index-number: "name + (frame-number)"
+     * @param nX               horizontal resolution (pixel count)
+     * @param nY               vertical resolution (pixel count)
+     * @param focusPoint       the point which the camera will focus at throughout all the frames
+     * @param origin           the origin point, where the camera will start from at the first frame
+     * @param destination      interpolation point for forming a bezier-curve on which the camera will move
+     * @param interpolation    the destination point, where the camera should reach at the last frame
+     * @param rotation         rotation of the camera throughout all the frames (in degrees). leave 0 for no rotation
+     * @param recursionDepth   the recursion depth for lighting calculation for each frame of the video. leave 0
+     *                         for the default recursion depth of the tracer.
+     * @param concurrentFrames the amount of frames rendered at the same time, 1 or more
+     * @throws IllegalArgumentException if the amount of concurrent frames is not positive
+     * @throws IllegalStateException if rendering or writing a frame failed, or if the generation was interrupted
+     */
+    public void generateVideo(int frames, int startFrom, String name, int nX, int nY, Point focusPoint, Point origin,
+                              Point destination, Point interpolation, double rotation, int recursionDepth,
+                              int concurrentFrames) {
+        if (concurrentFrames <= 0)
+            throw new IllegalArgumentException("Concurrent frames count must be 1 or higher");
+        if (recursionDepth >= 1)
+            rayTracer.setMaxRecursionDepth(recursionDepth);
+        //bringing the tracer up-to-date once, before the frames share it
+        rayTracer.prepareRender();
+
+        //the queue holds the rendered frames until they are written, so the renderers wait for a slow writer
+        BlockingQueue<RenderedFrame> renderedFrames = new ArrayBlockingQueue<>(concurrentFrames);
+        ExecutorService renderers = Executors.newFixedThreadPool(concurrentFrames);
+        try {
+            for (int i = startFrom; i < frames; ++i) {
+                //where we are along the curve, percentage wise
+                double positionOnRoute = (double) i / (double) frames;
+                //calculating the position of the camera along the curve for the frame using quadratic interpolation
+                Point position = Point.quadraticInterpolate(origin, interpolation, destination, positionOnRoute);
+                int frame = i;
+                renderers.execute(() -> renderFrame(renderedFrames, frame, name + frame, nX, nY, position,
+                        focusPoint, rotation));
+            }
+            //the calling thread is the writing stage
+            writeFrames(renderedFrames, frames, startFrom);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The video generation was interrupted", e);
+        } finally {
+            renderers.shutdownNow();
+            rayTracer.resetMaxRecursionDepth();
+        }
+    }
 
-            double estimatedTotalTime = (elapsedTime / (double) (i - startFrom + 1)) * (frames - startFrom);
-            long estimatedRemainingTime = (long) (estimatedTotalTime - elapsedTime);
+    /**
+     * A rendered frame of a video, waiting to be written
+     *
+     * @param index   the index of the frame in the video
+     * @param camera  the snapshot of the camera that rendered the frame
+     * @param failure the failure of the frame's render, null if it was rendered
+     */
+    private record RenderedFrame(int index, Camera camera, RuntimeException failure) {
+    }
 
-            System.out.println("Completed frame " + i + " out of " + frames
-                    + " | Progress: " + progress + "%"
-                    + " | Time taken for last frame: " + formatTime(timeBetweenCalls)
-                    + " | Estimated time remaining: " + formatTime(estimatedRemainingTime));
+    /**
+     * Renders a single frame of a video with a snapshot of this camera, and passes it to the writing stage.
+     * a failed render is passed on as well, so the writing stage stops the video
+     *
+     * @param renderedFrames the queue of the rendered frames
+     * @param frame          the index of the frame in the video
+     * @param frameName      the name of the frame's image
+     * @param nX             horizontal resolution (pixel count)
+     * @param nY             vertical resolution (pixel count)
+     * @param position       the position of the camera in the frame
+     * @param focusPoint     the point the camera focuses at
+     * @param rotation       rotation of the camera around its forward vector (in degrees)
+     */
+    private void renderFrame(BlockingQueue<RenderedFrame> renderedFrames, int frame, String frameName, int nX, int nY,
+                             Point position, Point focusPoint, double rotation) {
+        RenderedFrame rendered;
+        try {
+            Camera snapshot = frameSnapshot(frameName, nX, nY, position, focusPoint, rotation);
+            snapshot.renderPixels();
+            rendered = new RenderedFrame(frame, snapshot, null);
+        } catch (RuntimeException e) {
+            rendered = new RenderedFrame(frame, null, e);
+        }
+        try {
+            renderedFrames.put(rendered);
+        } catch (InterruptedException e) {
+            //the video was stopped, no one waits for the frame
+            Thread.currentThread().interrupt();
+        }
+    }
 
-            lastUpdateTime = currentTime;
+    /**
+     * Creates a snapshot of this camera for rendering a single frame of a video. the snapshot has its own
+     * position, direction, image writer and statistics, and shares the ray tracer and the rendering
+     * settings of this camera. it is not changed after its creation, other than by its render
+     *
+     * @param frameName  the name of the frame's image
+     * @param nX         horizontal resolution (pixel count)
+     * @param nY         vertical resolution (pixel count)
+     * @param position   the position of the camera in the frame
+     * @param focusPoint the point the camera focuses at
+     * @param rotation   rotation of the camera around its forward vector (in degrees)
+     * @return the frame's camera
+     */
+    private Camera frameSnapshot(String frameName, int nX, int nY, Point position, Point focusPoint,
+                                 double rotation) {
+        Camera snapshot;
+        try {
+            snapshot = (Camera) clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError("Cloning failed");
         }
+        snapshot.imageWriter = new ImageWriter(frameName, nX, nY);
+        snapshot.setFocusPoint(position, focusPoint);
+        snapshot.rotate(rotation);
+        snapshot.printMode = ProgressPrintMode.NONE;
+        snapshot.renderStats = new RenderStats();
+        return snapshot;
+    }
 
-        printMode = ProgressPrintMode.PROGRESS_AND_TIME;
+    /**
+     * Writes the rendered frames of a video as they arrive, until all the frames are written,
+     * and prints the progress of the video
+     *
+     * @param renderedFrames the queue of the rendered frames
+     * @param frames         the total amount of frames of the video
+     * @param startFrom      the first rendered frame
+     * @throws InterruptedException  if the writer was interrupted while waiting for a frame
+     * @throws IllegalStateException if the render of a frame failed
+     */
+    private void writeFrames(BlockingQueue<RenderedFrame> renderedFrames, int frames, int startFrom)
+            throws InterruptedException {
+        BitSet written = new BitSet(frames);
+        int resumeFrom = startFrom;
+        int total = frames - startFrom;
+        long start = System.currentTimeMillis();
+        for (int done = 1; done <= total; ++done) {
+            RenderedFrame frame = renderedFrames.take();
+            if (frame.failure() != null)
+                throw new IllegalStateException("Failed to render frame " + frame.index(), frame.failure());
+            try {
+                //the frame is written before the next one is taken, so the resume point only counts frames
+                //that are on the disk
+                frame.camera().writeToImage();
+            } catch (IllegalStateException e) {
+                throw new IllegalStateException("Failed to write frame " + frame.index(), e);
+            }
+            written.set(frame.index());
+            resumeFrom = written.nextClearBit(resumeFrom);
+
+            if (printMode != ProgressPrintMode.NONE) {
+                long elapsed = System.currentTimeMillis() - start;
+                long estimatedRemainingTime = elapsed / done * (total - done);
+                System.out.println("Completed frame " + frame.index() + " | " + done + " out of " + total
+                        + " frames | Render time: "
+                        + formatTime(TimeUnit.NANOSECONDS.toMillis(frame.camera().renderStats.getRenderNanos()))
+                        + " | Estimated time remaining: " + formatTime(estimatedRemainingTime)
+                        + " | Resume from frame: " + resumeFrom);
+            }
+        }
     }
 
     /**
@@ -583,6 +1367,55 @@ public class Camera implements Cloneable {
             throw new IllegalArgumentException("Anti-Aliasing ray casts must be 1 or higher");
         this.antiAliasingRayCasts = minRayCasts;
         this.gridSize = gridSize;
+        this.antiAliasingSequence = SampleSequence.JITTERED;
+        this.adaptiveAntiAliasing = false;
+        return this;
+    }
+
+    /**
+     * Enable antialiasing effect for the image render, with the rays of each pixel spread by the given
+     * sample sequence. the low-discrepancy sequences give the same smoothness with far fewer ray casts
+     *
+     * @param gridSize the grid size for the multisampling beam computation. only used by the
+     *                 jittered sequence
+     * @param rayCasts the amount of ray casts per pixel. the minimum amount for the jittered sequence
+     * @param sequence the sequence of the rays in each pixel
+     * @return the camera object itself
+     */
+    public Camera enableAntiAliasing(int gridSize, int rayCasts, SampleSequence sequence) {
+        enableAntiAliasing(gridSize, rayCasts);
+        this.antiAliasingSequence = sequence;
+        return this;
+    }
+
+    /**
+     * Enable adaptive antialiasing for the image render. each pixel first gets a small batch of rays,
+     * and more batches only while its color varies, so flat areas of the image get the first batch only
+     * and the rays are spent on the edges and the noisy areas
+     *
+     * @param batchRayCasts the amount of rays in each batch, the first batch included
+     * @param maxRayCasts   the maximum amount of rays per pixel
+     * @param threshold     a pixel is done once the standard error of its brightness is no higher than this
+     *                      value, in color units (0-255). lower values mean smoother images and more rays
+     * @param sequence      the sequence of the rays in each pixel. the batches are taken from the sequence in
+     *                      order, so it should be spread evenly at any amount of points (not the jittered grid)
+     * @return the camera object itself
+     */
+    public Camera enableAdaptiveAntiAliasing(int batchRayCasts, int maxRayCasts, double threshold,
+                                             SampleSequence sequence) {
+        if (batchRayCasts < 2)
+            throw new IllegalArgumentException("Each batch must have 2 ray casts or more");
+        if (maxRayCasts < batchRayCasts)
+            throw new IllegalArgumentException("The maximum ray casts must be at least the batch's ray casts");
+        if (threshold < 0)
+            throw new IllegalArgumentException("The threshold must not be negative");
+        if (sequence == SampleSequence.JITTERED)
+            throw new IllegalArgumentException("The jittered grid is not evenly spread in batches");
+        this.antiAliasingRayCasts = batchRayCasts;
+        this.maxAntiAliasingRayCasts = maxRayCasts;
+        this.adaptiveThreshold = threshold;
+        this.antiAliasingSequence = sequence;
+        this.adaptiveAntiAliasing = true;
         return this;
     }
 
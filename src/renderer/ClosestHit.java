@@ -0,0 +1,56 @@
+package renderer;
+
+import geometries.Geometry;
+import geometries.Intersectable.GeoPoint;
+import primitives.Ray;
+
+/**
+ * Mutable container for the closest intersection found so far while a single ray is traced
+ * through an acceleration structure. only the distance and the geometry are kept while searching,
+ * the geo-point is created once the search is done
+ */
+final class ClosestHit {
+    /**
+     * The geometry of the closest intersection found so far. null if nothing was hit yet
+     */
+    Geometry geometry;
+    /**
+     * The distance of the closest intersection from the ray's head. intersections beyond this
+     * distance are no longer relevant
+     */
+    double distance;
+
+    /**
+     * Constructor that initializes an empty hit with the given distance limit
+     *
+     * @param maxDistance the maximum distance from the ray's head to look for intersections in
+     */
+    ClosestHit(double maxDistance) {
+        distance = maxDistance;
+    }
+
+    /**
+     * Updates the hit with the intersection of the ray with the given geometry, if it is closer than
+     * the closest one found so far
+     *
+     * @param ray      the traced ray
+     * @param geometry a geometry the ray may intersect
+     */
+    void update(Ray ray, Geometry geometry) {
+        double d = geometry.findIntersectionDistance(ray, distance);
+        if (d < distance) {
+            distance = d;
+            this.geometry = geometry;
+        }
+    }
+
+    /**
+     * Gives the closest intersection found
+     *
+     * @param ray the traced ray
+     * @return the closest geo-point, or null if nothing was hit
+     */
+    GeoPoint toGeoPoint(Ray ray) {
+        return geometry == null ? null : new GeoPoint(ray.getPoint(distance), geometry);
+    }
+}
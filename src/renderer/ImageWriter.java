@@ -4,8 +4,17 @@ import primitives.Color;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.*;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -13,7 +22,12 @@ import java.util.logging.Logger;
  * Image writer class combines accumulation of pixel color matrix and finally
  * producing a non-optimized jpeg image from this matrix. The class although is
  * responsible for holding image related parameters of View Plane - pixel matrix
- * size and resolution
+ * size and resolution.
+ * the pixels are written as packed RGB ints straight into the image's buffer, so render threads writing
+ * different pixels do not contend, and the images are encoded in the background.
+ * optionally, the writer keeps the linear (unclamped) colors in a high-dynamic-range buffer as well,
+ * accumulated over any amount of render passes - so the image can be re-exposed and written as a PFM
+ * file without rendering it again
  *
  * @author Dan
  */
@@ -33,10 +47,31 @@ public class ImageWriter {
      */
     private static final String FOLDER_PATH = System.getProperty("user.dir") + "/images";
 
+    /**
+     * Background thread for encoding and writing the images, in the order they were requested.
+     * the thread is not a daemon, so pending images are written before the program ends, and it stops
+     * after a second without images to write
+     */
+    private static final ExecutorService ENCODER = new ThreadPoolExecutor(0, 1, 1, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), runnable -> new Thread(runnable, "image-encoder"));
+
     /**
      * Image generation buffer (the matrix of the pixels)
      */
     private BufferedImage image;
+    /**
+     * The pixels of the image buffer as packed RGB ints, row after row
+     */
+    private final int[] pixels;
+    /**
+     * The sum of the linear colors written to each pixel over all the passes, 3 components for each
+     * pixel, row after row. null if the high-dynamic-range buffer is not enabled
+     */
+    private double[] radiance = null;
+    /**
+     * The amount of passes accumulated in the high-dynamic-range buffer
+     */
+    private int passes = 0;
     /**
      * Image file name, not including the file extension '.png'
      */
@@ -61,6 +96,7 @@ public class ImageWriter {
         this.nX = nX;
         this.nY = nY;
         image = new BufferedImage(nX, nY, BufferedImage.TYPE_INT_RGB);
+        pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
     }
 
     // ***************** Getters/Setters ********************** //
@@ -74,6 +110,15 @@ public class ImageWriter {
         return nY;
     }
 
+    /**
+     * Getter for the image's name
+     *
+     * @return the name of the image file, not including the file extension
+     */
+    public String getImageName() {
+        return imageName;
+    }
+
     /**
      * View Plane X axis resolution
      *
@@ -83,21 +128,110 @@ public class ImageWriter {
         return nX;
     }
 
+    /**
+     * Enables the high-dynamic-range buffer, or clears it if it is already enabled.
+     * the buffer accumulates the linear colors of the passes started since, and the image pixels show the
+     * average of the accumulated passes
+     *
+     * @return the image writer itself
+     */
+    public ImageWriter enableHdrBuffer() {
+        radiance = new double[nX * nY * 3];
+        passes = 0;
+        return this;
+    }
+
+    /**
+     * Disables the high-dynamic-range buffer, and drops its accumulated passes. the image pixels are kept
+     *
+     * @return the image writer itself
+     */
+    public ImageWriter disableHdrBuffer() {
+        radiance = null;
+        passes = 0;
+        return this;
+    }
+
+    /**
+     * Checks if the high-dynamic-range buffer is enabled
+     *
+     * @return true if the writer accumulates the linear colors
+     */
+    public boolean isHdrBufferEnabled() {
+        return radiance != null;
+    }
+
+    /**
+     * Getter for the amount of accumulated passes
+     *
+     * @return the amount of passes accumulated in the high-dynamic-range buffer
+     */
+    public int getPasses() {
+        return passes;
+    }
+
+    /**
+     * Starts a new pass over the image - each pixel accumulated from now on adds its color to the pixel's
+     * previous passes. does nothing if the high-dynamic-range buffer is not enabled
+     */
+    public void startPass() {
+        if (radiance != null)
+            ++passes;
+    }
+
     // ***************** Operations ******************** //
 
     /**
      * Function writeToImage produces unoptimized png file of the image according
      * to
      * pixel color matrix in the directory of the project
+     *
+     * @return the image file
+     * @throws IllegalStateException if the file could not be written
+     */
+    public File writeToImage() {
+        return write(snapshot());
+    }
+
+    /**
+     * Produces the png file of the image like {@link #writeToImage()}, in the background. the pixels are copied
+     * before the method returns, so the writer can be used for the next image right away
+     *
+     * @return the pending writing of the image, completed with the image file once it is written.
+     * an I/O failure completes it exceptionally with an IllegalStateException
+     */
+    public CompletableFuture<File> writeToImageAsync() {
+        BufferedImage snapshot = snapshot();
+        return CompletableFuture.supplyAsync(() -> write(snapshot), ENCODER);
+    }
+
+    /**
+     * Copies the current pixels of the image
+     *
+     * @return a copy of the image
+     */
+    private BufferedImage snapshot() {
+        BufferedImage snapshot = new BufferedImage(nX, nY, BufferedImage.TYPE_INT_RGB);
+        System.arraycopy(pixels, 0, ((DataBufferInt) snapshot.getRaster().getDataBuffer()).getData(), 0,
+                pixels.length);
+        return snapshot;
+    }
+
+    /**
+     * Encodes the given image to the png file of this writer
+     *
+     * @param snapshot the image to write
+     * @return the image file
      */
-    public void writeToImage() {
+    private File write(BufferedImage snapshot) {
         try {
             File file = new File(FOLDER_PATH + '/' + imageName + ".png");
             //creating the directory if it does not exist
             if (!file.exists()) {
                 file.mkdirs();
             }
-            ImageIO.write(image, "png", file);
+            ImageIO.write(snapshot, "png", file);
+            return file;
         } catch (IOException e) {
             logger.log(Level.SEVERE, "I/O error", e);
             throw new IllegalStateException("I/O error - may be missing directory " + FOLDER_PATH, e);
@@ -106,15 +240,154 @@ public class ImageWriter {
 
     /**
      * The function writePixel writes a color of a specific pixel into pixel color
-     * matrix
+     * matrix. the color replaces the pixel's accumulated passes in the high-dynamic-range buffer too
      *
      * @param xIndex X axis index of the pixel
      * @param yIndex Y axis index of the pixel
      * @param color  final color of the pixel
      */
     public void writePixel(int xIndex, int yIndex, Color color) {
-        image.setRGB(xIndex, yIndex, color.getColor().getRGB());
+        int pixel = yIndex * nX + xIndex;
+        pixels[pixel] = color.getRGB();
+        if (radiance == null)
+            return;
+        //the passes sum up to the color, so their average is the color
+        int index = pixel * 3;
+        int count = Math.max(passes, 1);
+        radiance[index] = color.getRed() * count;
+        radiance[index + 1] = color.getGreen() * count;
+        radiance[index + 2] = color.getBlue() * count;
     }
 
-}
+    /**
+     * Adds the color of a pixel in the current pass to the pixel's previous passes in the high-dynamic-range
+     * buffer, and shows the average of the passes. writes the color like {@link #writePixel} if the buffer is
+     * not enabled
+     *
+     * @param xIndex X axis index of the pixel
+     * @param yIndex Y axis index of the pixel
+     * @param color  the pixel's color in the current pass
+     */
+    public void accumulatePixel(int xIndex, int yIndex, Color color) {
+        int pixel = yIndex * nX + xIndex;
+        if (radiance == null) {
+            pixels[pixel] = color.getRGB();
+            return;
+        }
+        int index = pixel * 3;
+        radiance[index] += color.getRed();
+        radiance[index + 1] += color.getGreen();
+        radiance[index + 2] += color.getBlue();
+        pixels[pixel] = averageColor(pixel, 1).getRGB();
+    }
+
+    /**
+     * Re-exposes the image from the high-dynamic-range buffer - each pixel is set to the average of its
+     * accumulated passes, scaled by the given exposure
+     *
+     * @param exposure the factor of the linear colors, 1 for the colors as they were rendered
+     * @return the image writer itself
+     * @throws IllegalArgumentException if the exposure is negative
+     * @throws IllegalStateException    if the high-dynamic-range buffer is not enabled
+     */
+    public ImageWriter expose(double exposure) {
+        if (exposure < 0)
+            throw new IllegalArgumentException("Exposure must not be negative");
+        requireHdrBuffer();
+        for (int pixel = 0; pixel < pixels.length; ++pixel)
+            pixels[pixel] = averageColor(pixel, exposure).getRGB();
+        return this;
+    }
+
+    /**
+     * Writes the average of the accumulated passes as an uncompressed PFM file of linear colors, with the
+     * same name as the png image. the colors are copied before the method returns, and the file is written
+     * in the background
+     *
+     * @return the pending writing of the file, completed with the file once it is written.
+     * an I/O failure completes it exceptionally with an IllegalStateException
+     * @throws IllegalStateException if the high-dynamic-range buffer is not enabled
+     */
+    public CompletableFuture<File> writeHdrImage() {
+        requireHdrBuffer();
+        //PFM rows go from the bottom of the image to its top
+        float[] snapshot = new float[radiance.length];
+        double scale = 1d / Math.max(passes, 1);
+        for (int row = 0; row < nY; ++row) {
+            int from = row * nX * 3;
+            int to = (nY - 1 - row) * nX * 3;
+            for (int i = 0; i < nX * 3; ++i)
+                snapshot[to + i] = (float) (radiance[from + i] * scale);
+        }
+        return CompletableFuture.supplyAsync(() -> writePfm(snapshot), ENCODER);
+    }
+
+    /**
+     * Writes the given linear colors to the PFM file of this writer through a file channel
+     *
+     * @param colors the colors of the pixels, 3 components for each pixel, bottom row first
+     * @return the PFM file
+     */
+    private File writePfm(float[] colors) {
+        Path path = Path.of(FOLDER_PATH, imageName + ".pfm");
+        //a negative scale marks little-endian floats
+        byte[] header = ("PF\n" + nX + " " + nY + "\n-1.0\n").getBytes(StandardCharsets.US_ASCII);
+        try {
+            Files.createDirectories(path.getParent());
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.allocate(Math.max(header.length, nX * 3 * Float.BYTES))
+                        .order(ByteOrder.LITTLE_ENDIAN);
+                buffer.put(header).flip();
+                writeFully(channel, buffer);
+                //one row at a time, so the buffer stays small for big images
+                for (int row = 0; row < nY; ++row) {
+                    buffer.clear();
+                    buffer.asFloatBuffer().put(colors, row * nX * 3, nX * 3);
+                    buffer.limit(nX * 3 * Float.BYTES);
+                    writeFully(channel, buffer);
+                }
+            }
+            return path.toFile();
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "I/O error", e);
+            throw new IllegalStateException("I/O error - may be missing directory " + FOLDER_PATH, e);
+        }
+    }
 
+    /**
+     * Writes all the remaining bytes of the buffer to the channel
+     *
+     * @param channel the channel to write to
+     * @param buffer  the bytes to write
+     * @throws IOException if the writing failed
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+    }
+
+    /**
+     * Calculates the average color of a pixel over the accumulated passes
+     *
+     * @param pixel    the index of the pixel, row after row
+     * @param exposure the factor of the average color
+     * @return the pixel's average color, scaled by the exposure
+     */
+    private Color averageColor(int pixel, double exposure) {
+        double scale = exposure / Math.max(passes, 1);
+        int index = pixel * 3;
+        return new Color(radiance[index] * scale, radiance[index + 1] * scale, radiance[index + 2] * scale);
+    }
+
+    /**
+     * Checks the high-dynamic-range buffer is enabled
+     *
+     * @throws IllegalStateException if the buffer is not enabled
+     */
+    private void requireHdrBuffer() {
+        if (radiance == null)
+            throw new IllegalStateException("The high-dynamic-range buffer is not enabled");
+    }
+
+}
@@ -0,0 +1,50 @@
+package renderer;
+
+import java.util.Arrays;
+
+/**
+ * The mailboxes of the rays a single thread traces through an acceleration structure - the id of the last ray
+ * that tested each geometry, by the geometries' dense ids in the structure. a geometry that spans several cells
+ * of the structure is tested only once for each ray, in the first cell the ray reaches it in
+ */
+final class Mailbox {
+    /**
+     * The id of the last ray that tested each geometry, by the geometries' ids. zero if no ray tested it yet
+     */
+    private int[] stamps = new int[0];
+    /**
+     * The id of the current ray
+     */
+    private int ray = 0;
+
+    /**
+     * Starts a new ray, for which no geometry was tested yet
+     *
+     * @param geometriesCount the amount of geometries ids in the structure
+     * @return the mailbox itself
+     */
+    Mailbox startRay(int geometriesCount) {
+        if (stamps.length < geometriesCount)
+            stamps = new int[geometriesCount];
+        //once the ids run out, the old stamps are cleared so they are not mistaken for the new rays
+        if (ray == Integer.MAX_VALUE) {
+            Arrays.fill(stamps, 0);
+            ray = 0;
+        }
+        ++ray;
+        return this;
+    }
+
+    /**
+     * Checks if the current ray did not test the given geometry yet, and marks it as tested
+     *
+     * @param id the dense id of the geometry in the structure
+     * @return true on the first check of the geometry for the current ray, false afterwards
+     */
+    boolean firstTest(int id) {
+        if (stamps[id] == ray)
+            return false;
+        stamps[id] = ray;
+        return true;
+    }
+}
@@ -1,19 +1,27 @@
 package renderer;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * Provides a service for rendering pixels with parallelization
+ * Provides a service for rendering pixels with parallelization. the image is divided into square tiles,
+ * and each worker thread claims the next tile from a single atomic counter, renders all of its pixels
+ * and reports them as one batch. no locks are involved in handing out the work.
+ * alternatively, the image can be rendered with work-stealing, where regions are recursively split
+ * in a fork-join pool, so idle workers can steal parts of expensive regions, or with a virtual thread
+ * per tile
  */
 public class PixelExecutor {
-    /**
-     * The total amount of pixels in the image
-     */
-    private final int totalPixelsCount;
     /**
      * The amount of pixel in each column - the y-axis
      */
@@ -23,143 +31,367 @@ public class PixelExecutor {
      */
     private final int horizontalPixels;
     /**
-     * The executor (only executes pixels...)
+     * The amount of worker threads
+     */
+    private final int numberOfThreads;
+    /**
+     * The length (in pixels) of each tile's side
      */
-    private final ExecutorService executor;
+    private final int tileSize;
     /**
-     * The amount of completed(rendered) pixels
+     * The amount of tiles in each row of tiles
      */
-    private final AtomicInteger completedPixelsCounter;
+    private final int horizontalTiles;
     /**
-     * The current horizontal pixel being rendered
+     * The total amount of tiles in the image
      */
-    private final AtomicInteger currentHorizontalPixel = new AtomicInteger(0);//x
+    private final int totalTilesCount;
     /**
-     * The current vertical pixel being rendered
+     * The index of the next tile to be claimed by a worker
      */
-    private final AtomicInteger currentVerticalPixel = new AtomicInteger(0);//y
+    private final AtomicInteger nextTile = new AtomicInteger(0);
     /**
-     * A listener for providing a callback on each pixel completion
+     * A listener for providing a callback on each tile completion
      */
-    private PixelCompleteListener listener;
+    private PixelsCompleteListener listener;
     /**
-     * Lock to ensure thread-safe access to pixel indexes
+     * The name under which the work of all the virtual threads is reported
      */
-    private final ReentrantLock lock;
+    private static final String VIRTUAL_WORKER = "virtual threads";
+    /**
+     * The work done by each of the worker threads in the last render, by the workers' names
+     */
+    private final Map<String, WorkerLoad> workerLoads = new ConcurrentHashMap<>();
+    /**
+     * The amount of carrier threads the virtual threads of the last render shared. 1 for platform threads
+     */
+    private int carriersCount = 1;
+    /**
+     * The wall-clock duration of the last render in nanoseconds
+     */
+    private long renderNanos = 0;
 
     /**
      * Initializes the executor
      *
-     * @param numberOfThreads  the amount of threads for the thread pool
+     * @param numberOfThreads  the amount of worker threads
      * @param horizontalPixels the amount of horizontal pixels for the image
-     * @param verticalPixels   the amount of vertical pixels for hte image
+     * @param verticalPixels   the amount of vertical pixels for the image
+     * @param tileSize         the length (in pixels) of each tile's side
      */
-    public PixelExecutor(int numberOfThreads, int horizontalPixels, int verticalPixels) {
+    public PixelExecutor(int numberOfThreads, int horizontalPixels, int verticalPixels, int tileSize) {
+        if (numberOfThreads <= 0)
+            throw new IllegalArgumentException("Threads count must be 1 or higher");
+        if (tileSize <= 0)
+            throw new IllegalArgumentException("Tile size must be 1 or higher");
+
+        this.numberOfThreads = numberOfThreads;
         this.verticalPixels = verticalPixels;
         this.horizontalPixels = horizontalPixels;
-        this.totalPixelsCount = verticalPixels * horizontalPixels;
+        this.tileSize = tileSize;
 
-        this.executor = Executors.newFixedThreadPool(numberOfThreads);
-        this.completedPixelsCounter = new AtomicInteger(0);
-        this.lock = new ReentrantLock();
+        this.horizontalTiles = (horizontalPixels + tileSize - 1) / tileSize;
+        int verticalTiles = (verticalPixels + tileSize - 1) / tileSize;
+        this.totalTilesCount = horizontalTiles * verticalTiles;
     }
 
     /**
-     * Submit a new pixel to the executor
+     * Functional-Interface for a method that renders a single pixel
+     */
+    public interface PixelRenderer {
+        /**
+         * Renders the given pixel
+         *
+         * @param col the column index of the pixel - x value
+         * @param row the row index of the pixel - y value
+         */
+        void renderPixel(int col, int row);
+    }
+
+    /**
+     * Functional-Interface for a callback method to be invoked when a batch of pixels is completed
+     * rendering
+     */
+    public interface PixelsCompleteListener {
+        /**
+         * Called when a batch of pixels has completed rendering
+         *
+         * @param count the amount of pixels in the batch
+         */
+        void onPixelsComplete(int count);
+    }
+
+    /**
+     * The work done by a single worker thread during a render. the work of all the virtual threads
+     * is accumulated together
+     */
+    private static final class WorkerLoad {
+        /**
+         * The time the worker spent rendering pixels in nanoseconds
+         */
+        long busyNanos;
+        /**
+         * The amount of pixels rendered by the worker
+         */
+        int pixels;
+    }
+
+    /**
+     * Summary of the work done by a single worker thread during the last render
      *
-     * @param task the task to be added to the executor's thread pool. should be a pixel render call
-     */
-    public void submit(Runnable task) {
-        executor.submit(() -> {
-            try {
-                task.run();
-            } finally {
-                onTaskCompleted();
-            }
-        });
+     * @param worker      the worker thread's name
+     * @param pixels      the amount of pixels rendered by the worker
+     * @param utilisation the fraction of the render's duration the worker spent rendering pixels. for virtual
+     *                    threads, the average over their carrier threads
+     */
+    public record WorkerReport(String worker, int pixels, double utilisation) {
     }
 
     /**
-     * Invoked when a pixel rendering task is completed. It checks if all pixels
-     * have been rendered and, if so, shuts down the executor. also responsible for triggering the
-     * pixel completion listener.
+     * Set a method to be called when a tile of pixels is done rendering
+     *
+     * @param listener object that implements the PixelsCompleteListener interface
      */
-    private void onTaskCompleted() {
-        if (completedPixelsCounter.incrementAndGet() >= totalPixelsCount) {
-            if (listener != null) {
-                listener.onPixelComplete();
-            }
-            executor.shutdown();
-        }
+    public void setPixelsCompleteListener(PixelsCompleteListener listener) {
+        this.listener = listener;
     }
 
     /**
-     * Gives the next pixel to be rendered
+     * Renders all the image's pixels with the given renderer and waits until all the workers are done.
+     * once a worker fails, the other workers stop claiming tiles, and the first failure is thrown
      *
-     * @return the next pixel
+     * @param renderer the method for rendering a single pixel
      */
-    public Pixel nextPixel() {
-        lock.lock();
+    public void render(PixelRenderer renderer) {
+        workerLoads.clear();
+        carriersCount = 1;
+        long start = System.nanoTime();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> workers = new ArrayList<>(numberOfThreads);
+        for (int i = 0; i < numberOfThreads; ++i) {
+            Thread worker = new Thread(() -> {
+                try {
+                    work(renderer, failure);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }, "render-worker-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+
         try {
-            if (completedPixelsCounter.get() >= totalPixelsCount) {
-                return null;
-            }
+            for (Thread worker : workers)
+                worker.join();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+        renderNanos = System.nanoTime() - start;
+        if (failure.get() != null)
+            rethrow(failure.get());
+    }
 
-            if (currentHorizontalPixel.incrementAndGet() < horizontalPixels) {
-                return new Pixel(currentHorizontalPixel.get(), currentVerticalPixel.get());
-            }
+    /**
+     * Throws the failure of a worker in the rendering thread
+     *
+     * @param failure the failure of the worker
+     */
+    private static void rethrow(Throwable failure) {
+        if (failure instanceof RuntimeException e)
+            throw e;
+        if (failure instanceof Error e)
+            throw e;
+        throw new IllegalStateException("A render worker failed", failure);
+    }
 
-            currentHorizontalPixel.set(0);
+    /**
+     * Renders all the image's pixels with the given renderer using work-stealing, and waits until all
+     * the pixels are done. the whole image is split recursively until the regions are no bigger than a tile,
+     * so when a worker runs out of work it steals the unsplit half of a region another worker is busy with
+     *
+     * @param renderer the method for rendering a single pixel
+     */
+    public void renderWorkStealing(PixelRenderer renderer) {
+        workerLoads.clear();
+        carriersCount = 1;
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(numberOfThreads);
+        try {
+            pool.invoke(new RegionTask(renderer, 0, 0, horizontalPixels, verticalPixels));
+        } finally {
+            pool.shutdown();
+        }
+        renderNanos = System.nanoTime() - start;
+    }
 
-            if (currentVerticalPixel.incrementAndGet() < verticalPixels) {
-                return new Pixel(currentHorizontalPixel.get(), currentVerticalPixel.get());
+    /**
+     * Renders all the image's pixels with the given renderer, with a virtual thread for each tile, and waits until
+     * all the tiles are done. the virtual threads run on the JVM's shared carrier pool, which is bounded by the
+     * available processors (or the jdk.virtualThreadScheduler.parallelism system property), so any amount of
+     * renders can run at the same time in one JVM without tuning the threads count of each of them.
+     * the executor's threads count is ignored in this mode. once all the tiles are done, the failure of the
+     * first failed tile is thrown
+     *
+     * @param renderer the method for rendering a single pixel
+     */
+    public void renderVirtualThreads(PixelRenderer renderer) {
+        workerLoads.clear();
+        carriersCount = Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+                Runtime.getRuntime().availableProcessors());
+        long start = System.nanoTime();
+        List<Future<?>> tiles = new ArrayList<>(totalTilesCount);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int tile = 0; tile < totalTilesCount; ++tile) {
+                int startCol = (tile % horizontalTiles) * tileSize;
+                int startRow = (tile / horizontalTiles) * tileSize;
+                int endCol = Math.min(startCol + tileSize, horizontalPixels);
+                int endRow = Math.min(startRow + tileSize, verticalPixels);
+                tiles.add(executor.submit(() -> renderTile(renderer, startCol, startRow, endCol, endRow)));
             }
+        }
+        renderNanos = System.nanoTime() - start;
 
-            return null;
-        } finally {
-            lock.unlock();
+        //the executor is closed, so all the tiles are done
+        try {
+            for (Future<?> tile : tiles)
+                tile.get();
+        } catch (ExecutionException e) {
+            rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
         }
     }
 
     /**
-     * Functional-Interface for a callback method to be invoked when a pixel is completed
-     * rendering
+     * Fork-join task for rendering a rectangular region of the image
      */
-    public interface PixelCompleteListener {
+    private class RegionTask extends RecursiveAction {
+        /**
+         * Serialization version of the task
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The method for rendering a single pixel
+         */
+        private final transient PixelRenderer renderer;
+        /**
+         * The first column of the region (inclusive)
+         */
+        private final int startCol;
         /**
-         * Called when a pixel has completed rendering
+         * The first row of the region (inclusive)
          */
-        void onPixelComplete();
+        private final int startRow;
+        /**
+         * The last column of the region (exclusive)
+         */
+        private final int endCol;
+        /**
+         * The last row of the region (exclusive)
+         */
+        private final int endRow;
+
+        /**
+         * Constructor for a region task
+         *
+         * @param renderer the method for rendering a single pixel
+         * @param startCol the first column of the region (inclusive)
+         * @param startRow the first row of the region (inclusive)
+         * @param endCol   the last column of the region (exclusive)
+         * @param endRow   the last row of the region (exclusive)
+         */
+        RegionTask(PixelRenderer renderer, int startCol, int startRow, int endCol, int endRow) {
+            this.renderer = renderer;
+            this.startCol = startCol;
+            this.startRow = startRow;
+            this.endCol = endCol;
+            this.endRow = endRow;
+        }
+
+        @Override
+        protected void compute() {
+            int width = endCol - startCol;
+            int height = endRow - startRow;
+            if (width <= tileSize && height <= tileSize) {
+                renderTile(renderer, startCol, startRow, endCol, endRow);
+                return;
+            }
+
+            //splitting the region in half across its longer side
+            if (width >= height) {
+                int midCol = startCol + width / 2;
+                invokeAll(new RegionTask(renderer, startCol, startRow, midCol, endRow),
+                        new RegionTask(renderer, midCol, startRow, endCol, endRow));
+            } else {
+                int midRow = startRow + height / 2;
+                invokeAll(new RegionTask(renderer, startCol, startRow, endCol, midRow),
+                        new RegionTask(renderer, startCol, midRow, endCol, endRow));
+            }
+        }
     }
 
     /**
-     * Immutable class for object containing allocated pixel (with its row and
-     * column numbers)
+     * Gives a summary of the work done by each of the worker threads in the last render
      *
-     * @param col the column index of the pixel - x value
-     * @param row the row index of the pixel - y value
+     * @return a report for each worker that rendered pixels
      */
-    record Pixel(int col, int row) {
+    public List<WorkerReport> getWorkerReports() {
+        List<WorkerReport> reports = new ArrayList<>(workerLoads.size());
+        for (var entry : workerLoads.entrySet()) {
+            WorkerLoad load = entry.getValue();
+            double divisor = (double) renderNanos * (entry.getKey().equals(VIRTUAL_WORKER) ? carriersCount : 1);
+            reports.add(new WorkerReport(entry.getKey(), load.pixels, renderNanos == 0 ? 0 : load.busyNanos / divisor));
+        }
+        reports.sort((a, b) -> a.worker().compareTo(b.worker()));
+        return reports;
     }
 
     /**
-     * Set a method to be called when a pixel is done rendering
+     * The worker's loop - claims tiles and renders them until there are no tiles left, or until a worker failed
      *
-     * @param listener object that implements the PixelCompleteListener interface
+     * @param renderer the method for rendering a single pixel
+     * @param failure  the first failure of the render's workers, null while none failed
      */
-    public void setPixelCompleteListener(PixelCompleteListener listener) {
-        this.listener = listener;
+    private void work(PixelRenderer renderer, AtomicReference<Throwable> failure) {
+        int tile;
+        while (failure.get() == null && (tile = nextTile.getAndIncrement()) < totalTilesCount) {
+            //the tile's pixel range, tiles at the image's edges may be smaller
+            int startCol = (tile % horizontalTiles) * tileSize;
+            int startRow = (tile / horizontalTiles) * tileSize;
+            int endCol = Math.min(startCol + tileSize, horizontalPixels);
+            int endRow = Math.min(startRow + tileSize, verticalPixels);
+            renderTile(renderer, startCol, startRow, endCol, endRow);
+        }
     }
 
     /**
-     * Starts the rendering operation and waits until all pixels are rendered and
-     * the executor is shut down.
+     * Renders all the pixels of the given region, and reports them to the listener as one batch
+     *
+     * @param renderer the method for rendering a single pixel
+     * @param startCol the first column of the region (inclusive)
+     * @param startRow the first row of the region (inclusive)
+     * @param endCol   the last column of the region (exclusive)
+     * @param endRow   the last row of the region (exclusive)
      */
-    public void render() {
-        try {
-            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MINUTES);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
+    private void renderTile(PixelRenderer renderer, int startCol, int startRow, int endCol, int endRow) {
+        long start = System.nanoTime();
+        for (int row = startRow; row < endRow; ++row) {
+            for (int col = startCol; col < endCol; ++col) {
+                renderer.renderPixel(col, row);
+            }
         }
+
+        int count = (endCol - startCol) * (endRow - startRow);
+        Thread thread = Thread.currentThread();
+        WorkerLoad load = workerLoads.computeIfAbsent(thread.isVirtual() ? VIRTUAL_WORKER : thread.getName(),
+                name -> new WorkerLoad());
+        synchronized (load) {
+            load.busyNanos += System.nanoTime() - start;
+            load.pixels += count;
+        }
+
+        if (listener != null)
+            listener.onPixelsComplete(count);
     }
 }
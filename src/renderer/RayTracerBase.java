@@ -36,6 +36,36 @@ public abstract class RayTracerBase {
         this.scene = scene;
     }
 
+    /**
+     * Gives the statistics of the render the current thread works on, for counting the traced rays
+     *
+     * @return the statistics of the current thread's render
+     */
+    protected RenderStats stats() {
+        return RenderStats.current();
+    }
+
+    /**
+     * Prepares the tracer for the upcoming render, e.g. brings its acceleration structure up-to-date
+     * with the scene's geometries
+     *
+     * @return the time spent on building the tracer's acceleration structure since the previous render in
+     * nanoseconds. zero if it has none, or if it was not rebuilt
+     */
+    long prepareRender() {
+        return 0;
+    }
+
+    /**
+     * Describes the tracer's settings that affect the colors it traces, e.g. for telling whether a checkpoint
+     * was rendered the same way
+     *
+     * @return a description of the tracer's settings
+     */
+    String describe() {
+        return String.valueOf(maxRecursionLevel);
+    }
+
     /**
      * Set the maximum recursion depth of the tracer
      *
@@ -0,0 +1,224 @@
+package renderer;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A checkpoint of an image render in a memory-mapped file - the color and the amount of rays of each completed
+ * pixel, and a flag for each pixel marking it as completed. the pixels are written straight into the mapped
+ * memory, so the checkpoint survives the JVM dying at any point, and it is forced to the disk periodically so it
+ * survives the machine going down as well.
+ * the file starts with the fingerprint of the scene and the camera it was rendered with, and a checkpoint is
+ * only resumed by a render with the same fingerprint
+ */
+final class RenderCheckpoint {
+    /**
+     * The first bytes of every checkpoint file
+     */
+    private static final long MAGIC = 0x52454E4443484B32L;
+    /**
+     * The size of the file's header in bytes - the magic, the fingerprint and the image's resolution
+     */
+    private static final int HEADER_BYTES = 24;
+
+    /**
+     * The checkpoint's file
+     */
+    private final Path file;
+    /**
+     * The channel of the mapped file
+     */
+    private final FileChannel channel;
+    /**
+     * The mapped file
+     */
+    private final MappedByteBuffer buffer;
+    /**
+     * The amount of pixels in the image
+     */
+    private final int pixels;
+    /**
+     * logger for reporting a checkpoint that could not be deleted
+     */
+    private static final Logger logger = Logger.getLogger("RenderCheckpoint");
+    /**
+     * The offset of the pixels' colors in the file, after the header and the completion flags
+     */
+    private final int colorsOffset;
+    /**
+     * The offset of the pixels' amounts of rays in the file, after the colors
+     */
+    private final int samplesOffset;
+    /**
+     * The amount of completed pixels the checkpoint had when it was opened
+     */
+    private final int restoredPixels;
+    /**
+     * The time between forcing the mapped pixels to the disk in milliseconds
+     */
+    private final long intervalMillis;
+    /**
+     * The time the checkpoint was last forced to the disk, in milliseconds
+     */
+    private long lastForce;
+
+    /**
+     * Opens the checkpoint in the given file. an existing checkpoint is resumed if it has the given fingerprint
+     * and resolution, otherwise the file is started over
+     *
+     * @param file           the checkpoint's file
+     * @param fingerprint    the fingerprint of the scene and the camera of the render
+     * @param nX             horizontal resolution (pixel count)
+     * @param nY             vertical resolution (pixel count)
+     * @param intervalMillis the time between forcing the mapped pixels to the disk in milliseconds
+     * @throws IllegalStateException if the file can not be opened or mapped
+     */
+    RenderCheckpoint(Path file, long fingerprint, int nX, int nY, long intervalMillis) {
+        this.file = file;
+        this.intervalMillis = intervalMillis;
+        pixels = nX * nY;
+        //the colors are aligned to whole ints after the flags
+        colorsOffset = (HEADER_BYTES + pixels + 3) & ~3;
+        long size = colorsOffset + 2L * pixels * Integer.BYTES;
+        if (size > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("The image is too big for a checkpoint");
+        samplesOffset = colorsOffset + pixels * Integer.BYTES;
+        try {
+            if (file.getParent() != null)
+                Files.createDirectories(file.getParent());
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            boolean resumed = channel.size() == size;
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            resumed = resumed && buffer.getLong(0) == MAGIC && buffer.getLong(8) == fingerprint
+                    && buffer.getInt(16) == nX && buffer.getInt(20) == nY;
+            if (!resumed) {
+                //starting over - the flags are cleared, and the header is written last
+                for (int i = 0; i < pixels; ++i)
+                    buffer.put(HEADER_BYTES + i, (byte) 0);
+                buffer.putLong(8, fingerprint).putInt(16, nX).putInt(20, nY).putLong(0, MAGIC);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to open the checkpoint " + file, e);
+        }
+
+        int completed = 0;
+        for (int i = 0; i < pixels; ++i)
+            if (buffer.get(HEADER_BYTES + i) != 0)
+                ++completed;
+        restoredPixels = completed;
+        lastForce = System.currentTimeMillis();
+    }
+
+    /**
+     * Getter for the amount of restored pixels
+     *
+     * @return the amount of completed pixels the checkpoint had when it was opened
+     */
+    int getRestoredPixels() {
+        return restoredPixels;
+    }
+
+    /**
+     * Checks if a pixel was completed
+     *
+     * @param pixel the index of the pixel, row after row
+     * @return true if the pixel's color is in the checkpoint
+     */
+    boolean isCompleted(int pixel) {
+        return buffer.get(HEADER_BYTES + pixel) != 0;
+    }
+
+    /**
+     * Getter for a completed pixel's color
+     *
+     * @param pixel the index of the pixel, row after row
+     * @return the pixel's color, packed into an RGB int
+     */
+    int getColor(int pixel) {
+        return buffer.getInt(colorsOffset + pixel * Integer.BYTES);
+    }
+
+    /**
+     * Getter for the amount of rays a completed pixel got
+     *
+     * @param pixel the index of the pixel, row after row
+     * @return the amount of rays cast through the pixel
+     */
+    int getSamples(int pixel) {
+        return buffer.getInt(samplesOffset + pixel * Integer.BYTES);
+    }
+
+    /**
+     * Marks a pixel as completed with the given color. pixels are completed by many threads at the same time,
+     * but each pixel by a single thread
+     *
+     * @param pixel   the index of the pixel, row after row
+     * @param rgb     the pixel's color, packed into an RGB int
+     * @param samples the amount of rays cast through the pixel
+     */
+    void complete(int pixel, int rgb, int samples) {
+        //the color is written before the flag, so a completed pixel always has its color
+        buffer.putInt(colorsOffset + pixel * Integer.BYTES, rgb);
+        buffer.putInt(samplesOffset + pixel * Integer.BYTES, samples);
+        buffer.put(HEADER_BYTES + pixel, (byte) 1);
+    }
+
+    /**
+     * Forces the checkpoint to the disk if the interval passed since it was last forced
+     */
+    synchronized void forceIfDue() {
+        long now = System.currentTimeMillis();
+        if (now - lastForce < intervalMillis)
+            return;
+        buffer.force();
+        lastForce = now;
+    }
+
+    /**
+     * Checks if all the pixels of the image were completed
+     *
+     * @return true if every pixel's color is in the checkpoint
+     */
+    private boolean isFull() {
+        for (int i = 0; i < pixels; ++i)
+            if (buffer.get(HEADER_BYTES + i) == 0)
+                return false;
+        return true;
+    }
+
+    /**
+     * Closes the checkpoint. the file of a completed render is no longer needed - its magic is cleared, so it is
+     * never resumed, and it is deleted. since some systems can not delete a file that is still mapped, a failed
+     * delete only leaves the cleared file behind, to be started over by the next render.
+     * otherwise the checkpoint is forced to the disk for a later resume
+     *
+     * @param completed whether the render returned without a failure. the checkpoint is kept anyway if any of
+     *                  its pixels is missing
+     * @throws IllegalStateException if the file can not be closed
+     */
+    void close(boolean completed) {
+        completed = completed && isFull();
+        try {
+            if (completed)
+                buffer.putLong(0, 0);
+            buffer.force();
+            channel.close();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to close the checkpoint " + file, e);
+        }
+        if (!completed)
+            return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to delete the completed checkpoint " + file, e);
+        }
+    }
+}
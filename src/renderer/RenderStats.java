@@ -0,0 +1,314 @@
+package renderer;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of a single render: the amount of rays cast by their kind, the intersection tests by
+ * the geometries' types, the voxels visited and the wall-clock time of each phase.
+ * the ray counters are striped, and the intersection tests are counted by each worker in its own counter, so
+ * the workers never wait for each other to update the statistics.
+ * each worker binds the statistics of the render it works on, so a tracer shared by several renders at the
+ * same time (e.g. the frames of a video) counts each ray in the statistics of its own render
+ */
+public class RenderStats {
+    /**
+     * The statistics bound to each thread, null if the thread does not work on a render
+     */
+    private static final ThreadLocal<RenderStats> BOUND = new ThreadLocal<>();
+    /**
+     * The statistics of the rays traced outside the renders (e.g. directly by the tests)
+     */
+    private static final RenderStats DETACHED = new RenderStats();
+
+    /**
+     * The amount of rays cast from the camera through the pixels
+     */
+    private final LongAdder primaryRays = new LongAdder();
+    /**
+     * The amount of rays cast from the intersection points towards the light sources
+     */
+    private final LongAdder shadowRays = new LongAdder();
+    /**
+     * The amount of reflected rays
+     */
+    private final LongAdder reflectionRays = new LongAdder();
+    /**
+     * The amount of refracted rays
+     */
+    private final LongAdder refractionRays = new LongAdder();
+    /**
+     * The sum of the bounce depths of the reflected and refracted rays (the camera rays are of depth 0)
+     */
+    private final LongAdder rayDepths = new LongAdder();
+    /**
+     * The amount of occupied voxels visited by the rays' traversals
+     */
+    private final LongAdder voxelsVisited = new LongAdder();
+    /**
+     * All the workers that rendered pixels of the render
+     */
+    private final Queue<RenderWorker> workers = new ConcurrentLinkedQueue<>();
+    /**
+     * The workers that render no pixel at the moment, to be bound for the next pixels
+     */
+    private final Queue<RenderWorker> idleWorkers = new ConcurrentLinkedQueue<>();
+    /**
+     * The time it took to build the acceleration structure of the tracer in nanoseconds
+     */
+    private long buildNanos = 0;
+    /**
+     * The time it took to render the image in nanoseconds
+     */
+    private long renderNanos = 0;
+    /**
+     * The time it took to write the image file in nanoseconds, set by the background encoder
+     */
+    private volatile long writeNanos = 0;
+
+    /**
+     * Binds these statistics and an idle worker of the render to the current thread, so the rays and the
+     * intersection tests it makes from now on are counted in this render's statistics
+     *
+     * @return the bound worker, to be released once the thread is done with its pixel
+     */
+    RenderWorker bindWorker() {
+        RenderWorker worker = idleWorkers.poll();
+        if (worker == null) {
+            worker = new RenderWorker();
+            workers.add(worker);
+        }
+        BOUND.set(this);
+        worker.bind();
+        return worker;
+    }
+
+    /**
+     * Unbinds the statistics and the given worker from the current thread, so its rays and intersection tests are
+     * no longer counted, and returns the worker to the idle ones
+     *
+     * @param worker the worker bound to the current thread
+     */
+    void releaseWorker(RenderWorker worker) {
+        BOUND.remove();
+        RenderWorker.unbind();
+        idleWorkers.add(worker);
+    }
+
+    /**
+     * Gives the statistics bound to the current thread
+     *
+     * @return the statistics of the render the current thread works on, or statistics that are never
+     * reported if it works on none
+     */
+    static RenderStats current() {
+        RenderStats stats = BOUND.get();
+        return stats == null ? DETACHED : stats;
+    }
+
+    /**
+     * Counts the given amount of primary rays
+     *
+     * @param count the amount of rays
+     */
+    void countPrimaryRays(int count) {
+        primaryRays.add(count);
+    }
+
+    /**
+     * Counts a single shadow ray
+     */
+    void countShadowRay() {
+        shadowRays.increment();
+    }
+
+    /**
+     * Counts the given amount of reflected rays
+     *
+     * @param count the amount of rays
+     */
+    void countReflectionRays(int count) {
+        reflectionRays.add(count);
+    }
+
+    /**
+     * Counts the given amount of refracted rays
+     *
+     * @param count the amount of rays
+     */
+    void countRefractionRays(int count) {
+        refractionRays.add(count);
+    }
+
+    /**
+     * Counts the depths of the given amount of reflected or refracted rays
+     *
+     * @param count the amount of rays
+     * @param depth the rays' bounce depth, 1 for the rays from the points the camera rays hit
+     */
+    void countRayDepths(int count, int depth) {
+        rayDepths.add((long) count * depth);
+    }
+
+    /**
+     * Counts the given amount of visited voxels
+     *
+     * @param count the amount of voxels
+     */
+    void countVoxelsVisited(int count) {
+        voxelsVisited.add(count);
+    }
+
+    /**
+     * Setter for the acceleration structure's build time
+     *
+     * @param nanos the build time in nanoseconds
+     */
+    void setBuildNanos(long nanos) {
+        buildNanos = nanos;
+    }
+
+    /**
+     * Setter for the render time
+     *
+     * @param nanos the render time in nanoseconds
+     */
+    void setRenderNanos(long nanos) {
+        renderNanos = nanos;
+    }
+
+    /**
+     * Setter for the image writing time
+     *
+     * @param nanos the writing time in nanoseconds
+     */
+    void setWriteNanos(long nanos) {
+        writeNanos = nanos;
+    }
+
+    /**
+     * Getter for the amount of primary rays
+     *
+     * @return the amount of rays cast from the camera through the pixels
+     */
+    public long getPrimaryRays() {
+        return primaryRays.sum();
+    }
+
+    /**
+     * Getter for the amount of shadow rays
+     *
+     * @return the amount of rays cast from the intersection points towards the light sources
+     */
+    public long getShadowRays() {
+        return shadowRays.sum();
+    }
+
+    /**
+     * Getter for the amount of reflected rays
+     *
+     * @return the amount of reflected rays
+     */
+    public long getReflectionRays() {
+        return reflectionRays.sum();
+    }
+
+    /**
+     * Getter for the amount of refracted rays
+     *
+     * @return the amount of refracted rays
+     */
+    public long getRefractionRays() {
+        return refractionRays.sum();
+    }
+
+    /**
+     * Gives the average depth of the rays in the render's ray trees - the average amount of bounces
+     * over all the camera, reflected and refracted rays
+     *
+     * @return the average bounce depth of the rays, zero if no rays were cast
+     */
+    public double getAverageRayDepth() {
+        long rays = getPrimaryRays() + getReflectionRays() + getRefractionRays();
+        return rays == 0 ? 0 : rayDepths.sum() / (double) rays;
+    }
+
+    /**
+     * Getter for the amount of visited voxels. zero if the tracer does not use a voxel grid
+     *
+     * @return the amount of occupied voxels visited by the rays' traversals
+     */
+    public long getVoxelsVisited() {
+        return voxelsVisited.sum();
+    }
+
+    /**
+     * Gives the amount of intersection tests of each geometry type, summed over all the workers.
+     * should be called after the render is done
+     *
+     * @return the amount of tests by the geometries' type names, sorted by the names
+     */
+    public Map<String, Long> getIntersectionTests() {
+        Map<String, Long> totals = new TreeMap<>();
+        for (RenderWorker worker : workers)
+            worker.counter.addTo(totals);
+        return totals;
+    }
+
+    /**
+     * Gives the amount of workers the render allocated, which is the most pixels it rendered at the same time.
+     * should be called after the render is done
+     *
+     * @return the amount of workers of the render
+     */
+    int getWorkersCount() {
+        return workers.size();
+    }
+
+    /**
+     * Getter for the acceleration structure's build time
+     *
+     * @return the time it took to build the acceleration structure of the tracer in nanoseconds.
+     * zero if the tracer has none
+     */
+    public long getBuildNanos() {
+        return buildNanos;
+    }
+
+    /**
+     * Getter for the render time
+     *
+     * @return the time it took to render the image in nanoseconds
+     */
+    public long getRenderNanos() {
+        return renderNanos;
+    }
+
+    /**
+     * Getter for the image writing time
+     *
+     * @return the time it took to write the image file in nanoseconds. zero if it was not written yet
+     */
+    public long getWriteNanos() {
+        return writeNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("rays: %d primary, %d shadow, %d reflection, %d refraction, average depth %.3f%n",
+                getPrimaryRays(), getShadowRays(), getReflectionRays(), getRefractionRays(), getAverageRayDepth()));
+        report.append("intersection tests:");
+        for (var entry : getIntersectionTests().entrySet())
+            report.append(' ').append(entry.getKey()).append('=').append(entry.getValue());
+        report.append(String.format("%nvoxels visited: %d%n", getVoxelsVisited()));
+        report.append(String.format("build: %d ms, render: %d ms, write: %d ms",
+                TimeUnit.NANOSECONDS.toMillis(buildNanos), TimeUnit.NANOSECONDS.toMillis(renderNanos),
+                TimeUnit.NANOSECONDS.toMillis(writeNanos)));
+        return report.toString();
+    }
+}
@@ -0,0 +1,57 @@
+package renderer;
+
+import geometries.IntersectionCounter;
+
+/**
+ * The state of a worker that renders a pixel - the counter of its intersection tests and the mailbox of its rays.
+ * the workers are pooled by the statistics of each render and bound to a thread for the pixel it renders, so a
+ * render allocates a worker for each pixel rendered at the same time, no matter how many threads render its pixels
+ * (e.g. a virtual thread for each tile).
+ * the queries of the acceleration structures never nest, so a single mailbox serves all the structures
+ */
+final class RenderWorker {
+    /**
+     * The worker bound to each thread, null if the thread does not render a pixel
+     */
+    private static final ThreadLocal<RenderWorker> BOUND = new ThreadLocal<>();
+    /**
+     * The mailbox of each thread that traces rays outside the renders (e.g. directly by the tests)
+     */
+    private static final ThreadLocal<Mailbox> DETACHED_MAILBOX = ThreadLocal.withInitial(Mailbox::new);
+
+    /**
+     * The counter of the worker's intersection tests
+     */
+    final IntersectionCounter counter = new IntersectionCounter();
+    /**
+     * The mailbox of the rays the worker traces through the acceleration structures
+     */
+    private final Mailbox mailbox = new Mailbox();
+
+    /**
+     * Binds the worker and its intersection counter to the current thread
+     */
+    void bind() {
+        BOUND.set(this);
+        counter.bind();
+    }
+
+    /**
+     * Unbinds the worker of the current thread, if any
+     */
+    static void unbind() {
+        BOUND.remove();
+        IntersectionCounter.unbind();
+    }
+
+    /**
+     * Gives the mailbox of the current thread's rays
+     *
+     * @return the mailbox of the worker bound to the current thread, or a mailbox of the thread itself if it
+     * renders no pixel
+     */
+    static Mailbox mailbox() {
+        RenderWorker worker = BOUND.get();
+        return worker == null ? DETACHED_MAILBOX.get() : worker.mailbox;
+    }
+}
@@ -0,0 +1,267 @@
+package renderer;
+
+import java.util.Random;
+import java.util.random.RandomGenerator;
+
+/**
+ * Generators of 2D sample points in the unit square, for spreading the rays of a beam over a blackboard.
+ * the low-discrepancy sequences cover the square much more evenly than independent random points, so
+ * a beam needs far fewer rays for the same noise level. each generated set is randomized
+ * (a toroidal shift, or an Owen scramble for Sobol) so neighbouring beams do not repeat the same
+ * pattern, which would turn the noise into visible structure
+ */
+public enum SampleSequence {
+    /**
+     * A random point in each cell of a square grid, and independent random points for the rest when the
+     * amount is not a square. the blackboards keep their classic grid for this mode, with the same amount
+     * of points in each of the grid's cells
+     */
+    JITTERED {
+        @Override
+        public double[] generate(int count, RandomGenerator random) {
+            int gridSize = (int) Math.sqrt(count);
+            double cellSize = 1d / gridSize;
+            double[] points = new double[count * 2];
+            for (int i = 0; i < count; ++i) {
+                if (i < gridSize * gridSize) {
+                    points[i * 2] = (i % gridSize + random.nextDouble()) * cellSize;
+                    points[i * 2 + 1] = (i / gridSize + random.nextDouble()) * cellSize;
+                } else {
+                    points[i * 2] = random.nextDouble();
+                    points[i * 2 + 1] = random.nextDouble();
+                }
+            }
+            return points;
+        }
+    },
+    /**
+     * The Halton sequence with bases 2 and 3
+     */
+    HALTON {
+        @Override
+        public double[] generate(int count, RandomGenerator random) {
+            double shiftX = random.nextDouble();
+            double shiftY = random.nextDouble();
+            double[] points = new double[count * 2];
+            for (int i = 0; i < count; ++i) {
+                points[i * 2] = fraction(radicalInverse(i + 1, 2) + shiftX);
+                points[i * 2 + 1] = fraction(radicalInverse(i + 1, 3) + shiftY);
+            }
+            return points;
+        }
+    },
+    /**
+     * The first two dimensions of the Sobol sequence, Owen-scrambled. every power-of-two amount of points
+     * has exactly one point in each of the equal-area cells the square can be split into (the scramble keeps it)
+     */
+    SOBOL {
+        @Override
+        public double[] generate(int count, RandomGenerator random) {
+            int seedX = random.nextInt();
+            int seedY = random.nextInt();
+            double[] points = new double[count * 2];
+            for (int i = 0; i < count; ++i) {
+                int x = 0;
+                int y = 0;
+                for (int bit = 0; i >>> bit != 0; ++bit) {
+                    if ((i >>> bit & 1) != 0) {
+                        x ^= 1 << (31 - bit);
+                        y ^= SOBOL_DIRECTIONS[bit];
+                    }
+                }
+                points[i * 2] = toUnit(owenScramble(x, seedX));
+                points[i * 2 + 1] = toUnit(owenScramble(y, seedY));
+            }
+            return points;
+        }
+    },
+    /**
+     * The R2 sequence - additive recurrence with the inverses of the plastic number's powers
+     */
+    R2 {
+        @Override
+        public double[] generate(int count, RandomGenerator random) {
+            double shiftX = random.nextDouble();
+            double shiftY = random.nextDouble();
+            double[] points = new double[count * 2];
+            for (int i = 0; i < count; ++i) {
+                points[i * 2] = fraction(R2_STEP_X * (i + 1) + shiftX);
+                points[i * 2 + 1] = fraction(R2_STEP_Y * (i + 1) + shiftY);
+            }
+            return points;
+        }
+    },
+    /**
+     * A precomputed tile of blue-noise points, generated progressively by best-candidate sampling,
+     * so the first points of the tile are evenly spread for any amount of points.
+     * beyond the tile's size, the tile is repeated with another shift
+     */
+    BLUE_NOISE {
+        @Override
+        public double[] generate(int count, RandomGenerator random) {
+            double[] tile = BlueNoiseTile.POINTS;
+            double[] points = new double[count * 2];
+            double shiftX = 0;
+            double shiftY = 0;
+            for (int i = 0; i < count; ++i) {
+                int index = i % BlueNoiseTile.SIZE;
+                if (index == 0) {
+                    shiftX = random.nextDouble();
+                    shiftY = random.nextDouble();
+                }
+                points[i * 2] = fraction(tile[index * 2] + shiftX);
+                points[i * 2 + 1] = fraction(tile[index * 2 + 1] + shiftY);
+            }
+            return points;
+        }
+    };
+
+    /**
+     * The direction numbers of the second Sobol dimension, one for each bit of the index
+     */
+    private static final int[] SOBOL_DIRECTIONS = new int[32];
+
+    static {
+        SOBOL_DIRECTIONS[0] = 1 << 31;
+        for (int bit = 1; bit < 32; ++bit)
+            SOBOL_DIRECTIONS[bit] = SOBOL_DIRECTIONS[bit - 1] ^ (SOBOL_DIRECTIONS[bit - 1] >>> 1);
+    }
+
+    /**
+     * The step of the R2 sequence along the x-axis - the inverse of the plastic number
+     */
+    private static final double R2_STEP_X = 1 / 1.32471795724474602596;
+    /**
+     * The step of the R2 sequence along the y-axis - the inverse of the plastic number's square
+     */
+    private static final double R2_STEP_Y = R2_STEP_X * R2_STEP_X;
+
+    /**
+     * Generates the given amount of points in the unit square [0,1)x[0,1)
+     *
+     * @param count  the amount of points to generate
+     * @param random the source of the set's random shift
+     * @return the points' coordinates, x and y of each point one after the other
+     */
+    public abstract double[] generate(int count, RandomGenerator random);
+
+    /**
+     * Gives a single point of the R2 sequence, shifted by the given amounts. every prefix of the sequence
+     * is spread evenly over the square, so the points can be taken one at a time
+     *
+     * @param index  the index of the point in the sequence, from 0
+     * @param shiftX the shift of the sequence along the x-axis, in [0,1)
+     * @param shiftY the shift of the sequence along the y-axis, in [0,1)
+     * @return the point's coordinates, x and y
+     */
+    static double[] r2Point(int index, double shiftX, double shiftY) {
+        return new double[]{fraction(R2_STEP_X * (index + 1) + shiftX), fraction(R2_STEP_Y * (index + 1) + shiftY)};
+    }
+
+    /**
+     * Gives the fractional part of the given non-negative number
+     *
+     * @param value a non-negative number
+     * @return the fractional part of the number, in [0,1)
+     */
+    private static double fraction(double value) {
+        return value - Math.floor(value);
+    }
+
+    /**
+     * Converts the given 32 bits to a fraction in [0,1), the bits being its binary digits
+     *
+     * @param bits the digits of the fraction, most significant first
+     * @return the fraction
+     */
+    private static double toUnit(int bits) {
+        return (bits & 0xFFFFFFFFL) * 0x1p-32;
+    }
+
+    /**
+     * Scrambles the binary digits of the given fraction so each digit is flipped by a random function of the
+     * digits before it (an approximation of Owen's nested uniform scramble, by the Laine-Karras hash)
+     *
+     * @param bits the digits of the fraction, most significant first
+     * @param seed the scramble's random seed
+     * @return the digits of the scrambled fraction
+     */
+    private static int owenScramble(int bits, int seed) {
+        //the hash carries changes towards the higher bits, so it is applied to the reversed digits
+        int x = Integer.reverse(bits) + seed;
+        x ^= x * 0x6c50b47c;
+        x ^= x * 0xb82f1e52;
+        x ^= x * 0xc7afe638;
+        x ^= x * 0x8d22f6e6;
+        return Integer.reverse(x);
+    }
+
+    /**
+     * Gives the radical inverse of the given index in the given base - its digits mirrored around the point
+     *
+     * @param index a positive index
+     * @param base  the base of the digits
+     * @return the radical inverse, in [0,1)
+     */
+    private static double radicalInverse(int index, int base) {
+        double inverse = 0;
+        double digitWeight = 1d / base;
+        for (int i = index; i > 0; i /= base) {
+            inverse += (i % base) * digitWeight;
+            digitWeight /= base;
+        }
+        return inverse;
+    }
+
+    /**
+     * Holder of the blue-noise tile, computed once on its first use
+     */
+    private static final class BlueNoiseTile {
+        /**
+         * The amount of points in the tile
+         */
+        private static final int SIZE = 1024;
+        /**
+         * The amount of random candidates for each new point of the tile
+         */
+        private static final int CANDIDATES = 32;
+        /**
+         * The tile's points, x and y of each point one after the other
+         */
+        private static final double[] POINTS = generate();
+
+        /**
+         * Generates the tile's points. each new point is the candidate farthest from all the previous
+         * points, with the distances wrapping around the square's edges so the tile can be repeated
+         *
+         * @return the tile's points
+         */
+        private static double[] generate() {
+            Random random = new Random(5784);
+            double[] points = new double[SIZE * 2];
+            points[0] = random.nextDouble();
+            points[1] = random.nextDouble();
+            for (int i = 1; i < SIZE; ++i) {
+                double bestDistance = -1;
+                for (int c = 0; c < CANDIDATES; ++c) {
+                    double x = random.nextDouble();
+                    double y = random.nextDouble();
+                    double closest = Double.POSITIVE_INFINITY;
+                    for (int j = 0; j < i && closest > bestDistance; ++j) {
+                        double dx = Math.abs(x - points[j * 2]);
+                        double dy = Math.abs(y - points[j * 2 + 1]);
+                        dx = Math.min(dx, 1 - dx);
+                        dy = Math.min(dy, 1 - dy);
+                        closest = Math.min(closest, dx * dx + dy * dy);
+                    }
+                    if (closest > bestDistance) {
+                        bestDistance = closest;
+                        points[i * 2] = x;
+                        points[i * 2 + 1] = y;
+                    }
+                }
+            }
+            return points;
+        }
+    }
+}
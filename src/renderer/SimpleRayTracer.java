@@ -6,8 +6,10 @@ import primitives.*;
 import scene.Scene;
 
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
 
 /**
  * Basic ray tracer
@@ -19,7 +21,7 @@ public class SimpleRayTracer extends RayTracerBase {
     /**
      * Static constant for the lowest distinguishable color intensity
      */
-    private static final Double3 MIN_CALC_COLOR_K = new Double3(0.0001);
+    protected static final Double3 MIN_CALC_COLOR_K = new Double3(0.0001);
     /**
      * Static constant for the starting color intensity factor
      */
@@ -30,6 +32,23 @@ public class SimpleRayTracer extends RayTracerBase {
      */
     private static final int GRID_SIZE = 9;
 
+    /**
+     * The amount of rays in each batch of an adaptive beam. zero if the beams are not adaptive
+     */
+    private int adaptiveBatchRayCasts = 0;
+
+    /**
+     * An adaptive beam stops once the standard error of its contribution to the pixel's brightness
+     * is no higher than this threshold, in color units (0-255)
+     */
+    private double adaptiveThreshold = 0;
+
+    /**
+     * The bounce depth from which the reflection and refraction branches are cut by Russian roulette.
+     * -1 if the roulette is disabled
+     */
+    private int russianRouletteMinDepth = -1;
+
     /**
      * Constructor that initializes the tracer with the given scene
      *
@@ -39,6 +58,53 @@ public class SimpleRayTracer extends RayTracerBase {
         super(scene);
     }
 
+    /**
+     * Enable adaptive beams for the glossy reflections and the blurry refractions. instead of always casting
+     * the material's amount of rays, the budget of each beam shrinks with its contribution to the pixel (the
+     * square root of the accumulated k) and with the recursion depth, and the beam is traced in batches and
+     * stops as soon as its average color settles. so secondary bounces never cost as much as the primary ones.
+     * since the batches are taken in order, materials with the jittered grid are sampled with Sobol instead
+     *
+     * @param batchRayCasts the amount of rays in each batch, 2 or more
+     * @param threshold     a beam is done once the standard error of its contribution to the pixel's brightness
+     *                      is no higher than this value, in color units (0-255)
+     * @return the tracer itself
+     */
+    public SimpleRayTracer enableAdaptiveSampling(int batchRayCasts, double threshold) {
+        if (batchRayCasts < 2)
+            throw new IllegalArgumentException("Each batch must have 2 ray casts or more");
+        if (threshold < 0)
+            throw new IllegalArgumentException("The threshold must not be negative");
+        this.adaptiveBatchRayCasts = batchRayCasts;
+        this.adaptiveThreshold = threshold;
+        return this;
+    }
+
+    /**
+     * Enable Russian roulette for the reflection and refraction branches. from the given bounce depth and on,
+     * each branch is continued with a probability equal to its contribution to the pixel (the highest
+     * component of the accumulated k, up to 1), and the color of the surviving branches is divided by that
+     * probability. so the image stays the same on average, while branches that barely affect the pixel
+     * are usually not traced at all. the surviving branches carry on with their reweighted k, so deep
+     * mirror chains are cut by the roulette and not by the minimal intensity
+     *
+     * @param minDepth the amount of bounces that are always traced (0 - the roulette starts from the
+     *                 camera rays' first bounce)
+     * @return the tracer itself
+     */
+    public SimpleRayTracer enableRussianRoulette(int minDepth) {
+        if (minDepth < 0)
+            throw new IllegalArgumentException("The minimum depth must not be negative");
+        this.russianRouletteMinDepth = minDepth;
+        return this;
+    }
+
+    @Override
+    String describe() {
+        return super.describe() + " " + adaptiveBatchRayCasts + " " + adaptiveThreshold + " "
+                + russianRouletteMinDepth;
+    }
+
     @Override
     public Color traceRay(Ray ray) {
         GeoPoint intersection = findClosestIntersection(ray);
@@ -97,11 +163,13 @@ public class SimpleRayTracer extends RayTracerBase {
         //adding reflection
         Ray reflectedRay = constructReflectedRay(gp, rayDir);
         color = color.add(calcGlobalEffect(gpMat.kR, reflectedRay, gpMat.SUPER_SAMPLING_BLACKBOARD_DISTANCE,
-                gpMat.reflectionBlackboardDiameter, gpMat.reflectionBlurCasts, k, iterationsLeft));
+                gpMat.reflectionBlackboardDiameter, gpMat.reflectionBlurCasts, gpMat.reflectionSequence, k, iterationsLeft,
+                true));
         //adding transparency
         Ray refractedRay = constructRefractedRay(gp, rayDir);
         color = color.add(calcGlobalEffect(gpMat.kT, refractedRay, gpMat.SUPER_SAMPLING_BLACKBOARD_DISTANCE,
-                gpMat.transparencyBlackboardDiameter, gpMat.transparencyBlurCasts, k, iterationsLeft));
+                gpMat.transparencyBlackboardDiameter, gpMat.transparencyBlurCasts, gpMat.transparencySequence, k,
+                iterationsLeft, false));
 
         return color;
     }
@@ -116,20 +184,118 @@ public class SimpleRayTracer extends RayTracerBase {
      * @param blackBoardDistance   the distance of the blackboard from the ray's head point. for super sampling
      * @param blackboardDiameter   the diameter of the blackboard. for super sampling
      * @param minRayCasts          the minimum amount of the ray casts for the super-sampling algorithm
+     * @param sequence             the sequence of the rays on the super-sampling blackboard
      * @param k                    the current color intensity factor, will not perform calculations (return black-color)
      *                             if it gets insignificantly low
      * @param iterationsLeft       the amount of iterations left for the current thread
+     * @param reflection           true if the effect is reflection, false if it is refraction. for the statistics
      * @return the calculated color intensity of the effect
      */
     private Color calcGlobalEffect(Double3 materialEffectFactor, Ray ray, double blackBoardDistance,
-                                   double blackboardDiameter, int minRayCasts, Double3 k, int iterationsLeft) {
+                                   double blackboardDiameter, int minRayCasts, SampleSequence sequence,
+                                   Double3 k, int iterationsLeft, boolean reflection) {
         Double3 kkx = materialEffectFactor.product(k);
         if (!kkx.higherThan(MIN_CALC_COLOR_K))
             return Color.BLACK;
+        Double3 factor = materialEffectFactor;
+        if (russianRouletteMinDepth != -1 && bounceDepth(iterationsLeft) >= russianRouletteMinDepth) {
+            double survival = Math.min(kkx.max(), 1);
+            if (ThreadLocalRandom.current().nextDouble() >= survival)
+                return Color.BLACK;
+            //the survivors of the roulette make up for the branches that were cut
+            kkx = kkx.reduce(survival);
+            factor = materialEffectFactor.reduce(survival);
+        }
+        if (adaptiveBatchRayCasts != 0 && minRayCasts > 1 && !isZero(blackboardDiameter))
+            return calcAdaptiveBeamColor(ray, blackBoardDistance, blackboardDiameter, minRayCasts,
+                    sequence, kkx, iterationsLeft, reflection).scale(factor);
         //generating a beam of rays in the general refraction/reflection direction and returning its average color
         List<Ray> beam = ray.generateBeam(GRID_SIZE, blackboardDiameter,
-                blackBoardDistance, minRayCasts);
-        return calcAverageBeamColor(beam, iterationsLeft - 1, kkx).scale(materialEffectFactor);
+                blackBoardDistance, minRayCasts, ray.getDirection(), sequence);
+        countRays(beam.size(), iterationsLeft, reflection);
+        return calcAverageBeamColor(beam, iterationsLeft - 1, kkx).scale(factor);
+    }
+
+    /**
+     * Gives the bounce depth of the global effects calculated with the given amount of iterations left.
+     * 0 for the effects of the points the camera rays hit
+     *
+     * @param iterationsLeft the amount of iterations left for the current thread
+     * @return the amount of bounces that led to the effects' point
+     */
+    private int bounceDepth(int iterationsLeft) {
+        //each bounce takes two iterations - one for the beam and one for the color of its hits
+        return (maxRecursionLevel - iterationsLeft) / 2;
+    }
+
+    /**
+     * Counts the given amount of reflected or refracted rays in the render's statistics
+     *
+     * @param count          the amount of rays
+     * @param iterationsLeft the amount of iterations left for the effect that cast the rays
+     * @param reflection     true if the rays are reflected, false if they are refracted
+     */
+    private void countRays(int count, int iterationsLeft, boolean reflection) {
+        RenderStats stats = stats();
+        if (reflection)
+            stats.countReflectionRays(count);
+        else
+            stats.countRefractionRays(count);
+        stats.countRayDepths(count, bounceDepth(iterationsLeft) + 1);
+    }
+
+    /**
+     * Gives the average color of an adaptive beam around the given ray. the beam's budget is the given amount
+     * of rays scaled down by the square root of the beam's contribution to the pixel and by the recursion depth,
+     * and the rays are traced in batches until the standard error of the beam's contribution to the pixel's
+     * brightness is low enough or the budget is used up
+     *
+     * @param ray                the main ray of the effect (reflection / refraction ray)
+     * @param blackBoardDistance the distance of the blackboard from the ray's head point
+     * @param blackboardDiameter the diameter of the blackboard
+     * @param rayCasts           the material's amount of ray casts for the effect
+     * @param sequence           the material's sequence of the rays on the blackboard
+     * @param kkx                the color intensity factor of the effect, its contribution to the pixel
+     * @param iterationsLeft     the amount of iterations left for the current thread
+     * @param reflection         true if the effect is reflection, false if it is refraction. for the statistics
+     * @return the average color of the traced rays
+     */
+    private Color calcAdaptiveBeamColor(Ray ray, double blackBoardDistance, double blackboardDiameter,
+                                        int rayCasts, SampleSequence sequence, Double3 kkx, int iterationsLeft,
+                                        boolean reflection) {
+        double contribution = Math.min(kkx.max(), 1);
+        //the square root keeps weak effects from dropping to a couple of rays, which shows as speckles
+        int budget = (int) Math.ceil(rayCasts * Math.sqrt(contribution) / (bounceDepth(iterationsLeft) + 1));
+        List<Ray> beam = budget <= 1 ? List.of(ray) : ray.generateBeam(GRID_SIZE, blackboardDiameter,
+                blackBoardDistance, budget, ray.getDirection(),
+                sequence == SampleSequence.JITTERED ? SampleSequence.SOBOL : sequence);
+
+        Color color = Color.BLACK;
+        //running mean and sum of squared deviations of the rays' brightness (Welford's method)
+        double mean = 0;
+        double squaredDeviations = 0;
+        int count = 0;
+        double maxDeviation = adaptiveThreshold / contribution;
+        for (Ray beamRay : beam) {
+            GeoPoint intersection = findClosestIntersection(beamRay);
+            Color rayColor = intersection == null ? scene.background
+                    : calcColor(intersection, beamRay.getDirection(), iterationsLeft - 2, kkx);
+            color = color.add(rayColor);
+
+            double brightness = 0.2126 * rayColor.getRed() + 0.7152 * rayColor.getGreen()
+                    + 0.0722 * rayColor.getBlue();
+            double delta = brightness - mean;
+            mean += delta / ++count;
+            squaredDeviations += delta * (brightness - mean);
+            //at the end of each batch, checking if the standard error (sqrt(variance / count)) is low enough.
+            //a single batch underestimates the variance too often, so the mean must settle over two batches
+            if (count % adaptiveBatchRayCasts == 0 && count >= 2 * adaptiveBatchRayCasts
+                    && squaredDeviations / (count - 1) / count <= maxDeviation * maxDeviation)
+                break;
+        }
+
+        countRays(count, iterationsLeft, reflection);
+        return color.reduce(count);
     }
 
     /**
@@ -186,8 +352,7 @@ public class SimpleRayTracer extends RayTracerBase {
      * null if the ray intersects nothing
      */
     protected GeoPoint findClosestIntersection(Ray ray) {
-        var intersections = scene.geometries.findGeoIntersections(ray);
-        return ray.findClosestGeoPoint(intersections);
+        return scene.geometries.findClosestGeoIntersection(ray, Double.POSITIVE_INFINITY);
     }
 
     /**
@@ -213,6 +378,20 @@ public class SimpleRayTracer extends RayTracerBase {
         return scene.geometries.findGeoIntersections(ray, maxDistance);
     }
 
+    /**
+     * Utility method that gives the transparency factor accumulated along the given ray
+     * by the geometries it passes through within the given distance from the head.
+     * stops as soon as the factor becomes insignificantly low
+     *
+     * @param ray         a ray to be traced in the scene
+     * @param maxDistance the maximum distance from the ray's starting point in which
+     *                    to look for intersections
+     * @return the accumulated transparency factor, zero if the ray is blocked
+     */
+    protected Double3 findTransparency(Ray ray, double maxDistance) {
+        return scene.geometries.findTransparency(ray, maxDistance, Double3.ONE, MIN_CALC_COLOR_K);
+    }
+
     /**
      * Method that gives the calculated color of the given geo-point, with
      * calculated diffusive &amp; specular light from all the light-sources based on the material
@@ -317,17 +496,9 @@ public class SimpleRayTracer extends RayTracerBase {
     private Double3 transparency(GeoPoint gp, LightSource light, Vector l, Vector n) {
         Vector pointToLightVector = l.scale(-1);
         Ray shadingRay = new Ray(gp.point, pointToLightVector, n);
+        stats().countShadowRay();
 
-        Double3 ktr = Double3.ONE;
-        var intersections = findGeoIntersections(shadingRay, light.getDistance(gp.point));
-        if (intersections == null)
-            return ktr;
-        for (GeoPoint intersection : intersections) {
-            //summing the transparency factor of all the objects in the way
-            ktr = ktr.product(intersection.geometry.getMaterial().kT);
-            if (ktr.lowerThan(MIN_CALC_COLOR_K))
-                return Double3.ZERO;
-        }
-        return ktr;
+        //multiplying the transparency factor of all the objects in the way
+        return findTransparency(shadingRay, light.getDistance(gp.point));
     }
 }
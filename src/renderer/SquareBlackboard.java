@@ -3,13 +3,13 @@ package renderer;
 import primitives.Point;
 import primitives.Vector;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Square blackboard containing a square 2D board in a 3D space, through which we can randomly generate
- * points in a gird pattern
+ * points in a gird pattern, or spread over the whole board by a low-discrepancy sample sequence
  */
 public class SquareBlackboard extends BlackboardBase {
 
@@ -19,7 +19,12 @@ public class SquareBlackboard extends BlackboardBase {
     private final int gridSize;
 
     /**
-     * Constructor for the black board
+     * The sequence the points are generated by
+     */
+    private final SampleSequence sequence;
+
+    /**
+     * Constructor for the black board, with jittered points in a grid
      *
      * @param gridSize the grid size of the blackboard (cell count in each row/column)
      * @param diameter the diameter of the blackboard (length of each side)
@@ -27,12 +32,56 @@ public class SquareBlackboard extends BlackboardBase {
      * @param normal   normal vector for the blackboard. can be to either side of the blackboard
      */
     public SquareBlackboard(double diameter, Point center, Vector normal, int gridSize) {
+        this(diameter, center, normal, gridSize, SampleSequence.JITTERED);
+    }
+
+    /**
+     * Constructor for the black board
+     *
+     * @param gridSize the grid size of the blackboard (cell count in each row/column). only used
+     *                 by the jittered sequence
+     * @param diameter the diameter of the blackboard (length of each side)
+     * @param center   the center point of the blackboard
+     * @param normal   normal vector for the blackboard. can be to either side of the blackboard
+     * @param sequence the sequence the points are generated by
+     */
+    public SquareBlackboard(double diameter, Point center, Vector normal, int gridSize, SampleSequence sequence) {
         super(diameter, center, normal);
         this.gridSize = gridSize % 2 == 0 ? ++gridSize : gridSize;
+        this.sequence = sequence;
     }
 
     @Override
     public List<Point> randomizePoints(int totalPoints) {
+        return sequence == SampleSequence.JITTERED ? jitterPoints(totalPoints) : samplePoints(totalPoints);
+    }
+
+    /**
+     * Generates exactly the given amount of points over the whole blackboard by the blackboard's sequence
+     *
+     * @param totalPoints the amount of points to generate
+     * @return a list of generated points on the blackboard
+     */
+    private List<Point> samplePoints(int totalPoints) {
+        double[] samples = sequence.generate(totalPoints, ThreadLocalRandom.current());
+        List<Point> points = new ArrayList<>(totalPoints);
+        for (int i = 0; i < totalPoints; ++i) {
+            //moving the sample from the unit square to the blackboard's square around its center
+            double horizontalOffset = (samples[i * 2] - 0.5) * diameter;
+            double verticalOffset = (samples[i * 2 + 1] - 0.5) * diameter;
+            points.add(center.add(right.scale(horizontalOffset)).add(up.scale(verticalOffset)));
+        }
+        return points;
+    }
+
+    /**
+     * Generates points in the blackboard's grid in a semi-random technique (jitter method)
+     *
+     * @param totalPoints the minimum total amount of points to generate. scaled up so there is the same
+     *                    amount of points in each cell
+     * @return a list of generated points on the blackboard
+     */
+    private List<Point> jitterPoints(int totalPoints) {
         //calculating the point count for each cell
         int totalCellsCount = gridSize * gridSize;
         int pointsPerCell = (totalPoints + (totalCellsCount - 1)) / (totalCellsCount);
@@ -42,8 +91,8 @@ public class SquareBlackboard extends BlackboardBase {
         double halfCellDiameter = cellDiameter / 2d;
         int halfGridSize = gridSize / 2;
 
-        Random random = new Random();
-        List<Point> points = new LinkedList<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Point> points = new ArrayList<>(pointsPerCell * totalCellsCount);
 
         //running on columns, i = x
         for (int i = -halfGridSize; i <= halfGridSize; ++i) {
@@ -0,0 +1,895 @@
+package renderer;
+
+import geometries.Geometries;
+import geometries.Geometry;
+import geometries.Intersectable.GeoPoint;
+import primitives.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Uniform voxel grid over the geometries. rays are marched through the grid's voxels with the 3D-DDA
+ * algorithm, and are only tested against the geometries of the voxels they pass through.
+ * most effective for scenes that contain many objects and with areas that have many objects clumped-up in them.
+ * in the hierarchical mode, a voxel that holds too many geometries (e.g. a cluster of small objects) is divided
+ * into a sub-grid of its own, which the rays are marched through the same way.
+ * each geometry in the grid has a dense id, so a ray tests each geometry only once, even if the geometry spans
+ * many of the voxels along the ray's path (mailboxing)
+ */
+public class VoxelGrid extends AccelerationStructure {
+    /**
+     * A geometry whose bounding box spans at least this fraction of the box of all the other geometries along
+     * two axes or more (e.g. a floor under the scene) is oversized - it would fill a whole slab of voxels,
+     * so it is kept aside
+     */
+    private static final double OVERSIZED_RATIO = 0.5;
+    /**
+     * The default density of the grid - the amount of voxels for each geometry in the grid
+     */
+    public static final double DEFAULT_DENSITY = 3d;
+    /**
+     * The default minimum amount of voxels in the grid
+     */
+    public static final int DEFAULT_MIN_CELLS = 1;
+    /**
+     * The default maximum amount of voxels in the grid
+     */
+    public static final int DEFAULT_MAX_CELLS = 1 << 21;
+    /**
+     * Tolerance (relative to the voxel's size) for sorting geometries into voxels. a geometry whose
+     * bounding box reaches a voxel's boundary within this tolerance is added to the voxel beyond it too
+     */
+    private static final double INDEX_EPSILON = 1e-9;
+    /**
+     * The sub-grid threshold of a grid without sub-grids
+     */
+    private static final int NO_SUB_GRIDS = Integer.MAX_VALUE;
+    /**
+     * A sub-grid is kept only if the average amount of geometries in its occupied voxels is at most this fraction
+     * of the amount in the divided voxel. geometries that span the whole voxel (e.g. the faces of a large
+     * object) fill every voxel of a sub-grid, which then only adds traversal steps and repeated tests
+     */
+    private static final double SUB_GRID_GAIN = 0.5;
+
+    /**
+     * Functional-Interface for a callback method to be invoked on each occupied voxel along a ray's path
+     */
+    private interface VoxelVisitor {
+        /**
+         * Called for each occupied voxel that the traced ray passes through, in the order of traversal
+         *
+         * @param voxel  the voxel the ray passes through
+         * @param tEnter the distance from the ray's head at which the ray enters the voxel
+         * @param tExit  the distance from the ray's head at which the ray exits the voxel
+         * @return true if the traversal should stop, false to continue to the next voxel
+         */
+        boolean visit(Voxel voxel, double tEnter, double tExit);
+    }
+
+    /**
+     * The density of the grid - the amount of voxels for each geometry in the grid
+     */
+    private final double density;
+    /**
+     * The minimum amount of voxels in the grid
+     */
+    private final int minCells;
+    /**
+     * The maximum amount of voxels in the grid
+     */
+    private final int maxCells;
+    /**
+     * A voxel that holds more geometries than this gets a sub-grid of its own
+     */
+    private final int subGridThreshold;
+
+    /**
+     * The three-dimensional voxels grid
+     */
+    private Voxel[][][] voxels;
+    /**
+     * The sub-grids of the voxels that hold too many geometries, by the voxels' indexes.
+     * null if the grid has no sub-grids
+     */
+    private VoxelGrid[][][] subGrids;
+
+    /**
+     * The scene's bounding box, which the rays enter the grid through
+     */
+    private BoundingBox sceneBox;
+
+    /**
+     * The minimum x coordinate of the scene's bounding box
+     */
+    private double sceneBoxMinX;
+    /**
+     * The minimum y coordinate of the scene's bounding box
+     */
+    private double sceneBoxMinY;
+    /**
+     * The minimum z coordinate of the scene's bounding box
+     */
+    private double sceneBoxMinZ;
+
+    /**
+     * The maximum x coordinate of the scene's bounding box
+     */
+    private double sceneBoxMaxX;
+    /**
+     * The maximum y coordinate of the scene's bounding box
+     */
+    private double sceneBoxMaxY;
+    /**
+     * The maximum z coordinate of the scene's bounding box
+     */
+    private double sceneBoxMaxZ;
+
+    /**
+     * The size of each voxel-cube on the x-axis
+     */
+    private double voxelSizeX;
+    /**
+     * The size of each voxel-cube on the y-axis
+     */
+    private double voxelSizeY;
+    /**
+     * The size of each voxel-cube on the z-axis
+     */
+    private double voxelSizeZ;
+
+    /**
+     * The geometries that are kept out of the grid and tested for every ray - unbounded and oversized geometries
+     */
+    private List<Geometry> sideGeometries = List.of();
+
+    /**
+     * The amount of geometries sorted into the grid. for the report
+     */
+    private int geometriesCount;
+
+    /**
+     * The statistics of a built grid. the voxels that were divided into sub-grids are counted by the voxels of
+     * their sub-grids, so the occupancy is of the voxels whose geometries are actually tested by the rays
+     *
+     * @param resolutionX         the amount of voxels along the x-axis
+     * @param resolutionY         the amount of voxels along the y-axis
+     * @param resolutionZ         the amount of voxels along the z-axis
+     * @param geometries          the amount of geometries sorted into the grid
+     * @param occupiedVoxels      the amount of voxels that contain geometries
+     * @param geometriesInVoxels  the sum of the amounts of geometries in the occupied voxels
+     * @param maxOccupancy        the highest amount of geometries in a single voxel
+     * @param outsideGeometries   the amount of geometries kept out of the grid and tested for every ray
+     * @param subGrids            the amount of voxels that were divided into sub-grids
+     * @param occupancyHistogram  the amounts of occupied voxels by the amount of geometries in them - the i-th
+     *                            bucket counts the voxels with 2^i to 2^(i+1)-1 geometries
+     */
+    public record Report(int resolutionX, int resolutionY, int resolutionZ, int geometries, int occupiedVoxels,
+                         int geometriesInVoxels, int maxOccupancy, int outsideGeometries, int subGrids,
+                         int[] occupancyHistogram) {
+        /**
+         * Gives the total amount of voxels of the top level of the grid
+         *
+         * @return the amount of voxels in the grid, occupied or not
+         */
+        public long voxels() {
+            return (long) resolutionX * resolutionY * resolutionZ;
+        }
+
+        /**
+         * Gives the average amount of geometries in the occupied voxels
+         *
+         * @return the geometries in each occupied voxel on average, zero for an empty grid
+         */
+        public double averageOccupancy() {
+            return occupiedVoxels == 0 ? 0 : (double) geometriesInVoxels / occupiedVoxels;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder histogram = new StringBuilder();
+            for (int i = 0; i < occupancyHistogram.length; ++i) {
+                if (occupancyHistogram[i] == 0)
+                    continue;
+                int low = 1 << i;
+                int high = (1 << (i + 1)) - 1;
+                histogram.append(histogram.isEmpty() ? "" : ", ")
+                        .append(low == high ? String.valueOf(low) : low + "-" + high)
+                        .append(": ").append(occupancyHistogram[i]);
+            }
+            return String.format("voxel grid %dx%dx%d with %d sub-grids, %d objects in %d voxels, %.2f objects"
+                            + " in each voxel on average and %d at most (objects in voxel: voxels - %s),"
+                            + " %d objects outside the grid",
+                    resolutionX, resolutionY, resolutionZ, subGrids, geometries, occupiedVoxels, averageOccupancy(),
+                    maxOccupancy, histogram, outsideGeometries);
+        }
+    }
+
+    /**
+     * Constructor that initializes the grid for the given geometries. the grid is built by
+     * {@link #build()}, or by the first tracer that uses it
+     *
+     * @param geometries the geometries to divide into the grid
+     */
+    public VoxelGrid(Geometries geometries) {
+        this(geometries, DEFAULT_DENSITY, DEFAULT_MIN_CELLS, DEFAULT_MAX_CELLS);
+    }
+
+    /**
+     * Constructor that initializes the grid for the given geometries with the given resolution parameters.
+     * the amount of voxels is the density times the amount of geometries in the grid, within the cells budget,
+     * and the voxels are spread over the axes in proportion to the scene's extents along them, so the voxels
+     * are as close to cubes as possible (the Cleary-Wyvill heuristic)
+     *
+     * @param geometries the geometries to divide into the grid
+     * @param density    the amount of voxels for each geometry in the grid
+     * @param minCells   the minimum amount of voxels in the grid
+     * @param maxCells   the maximum amount of voxels in the grid
+     */
+    public VoxelGrid(Geometries geometries, double density, int minCells, int maxCells) {
+        this(geometries, density, minCells, maxCells, NO_SUB_GRIDS);
+    }
+
+    /**
+     * Constructor that initializes a hierarchical grid for the given geometries with the given resolution
+     * parameters. each voxel that holds more geometries than the threshold is divided into a sub-grid of its own,
+     * with the same density and cells budget. the sub-grids are not divided any further
+     *
+     * @param geometries       the geometries to divide into the grid
+     * @param density          the amount of voxels for each geometry in the grid
+     * @param minCells         the minimum amount of voxels in the grid
+     * @param maxCells         the maximum amount of voxels in the grid
+     * @param subGridThreshold a voxel that holds more geometries than this gets a sub-grid of its own
+     */
+    public VoxelGrid(Geometries geometries, double density, int minCells, int maxCells, int subGridThreshold) {
+        super(geometries);
+        if (density <= 0)
+            throw new IllegalArgumentException("Density must be positive");
+        if (minCells < 1 || maxCells < minCells)
+            throw new IllegalArgumentException("Cells budget must be 1 or higher, and the maximum not below the minimum");
+        if (subGridThreshold < 1)
+            throw new IllegalArgumentException("Sub-grid threshold must be 1 or higher");
+        this.density = density;
+        this.minCells = minCells;
+        this.maxCells = maxCells;
+        this.subGridThreshold = subGridThreshold;
+    }
+
+    /**
+     * Constructor of a sub-grid, which divides a voxel of the given grid. the sub-grid covers exactly the
+     * voxel's box, and is built right away from the geometries of the voxel
+     *
+     * @param parent the grid of the divided voxel
+     * @param boxMin the minimum coordinates of the voxel's box
+     * @param boxMax the maximum coordinates of the voxel's box
+     * @param boxes  the bounding boxes of the voxel's geometries
+     * @param ids    the ids of the voxel's geometries in the parent grid, in the order of the boxes
+     */
+    private VoxelGrid(VoxelGrid parent, Point boxMin, Point boxMax, List<BoundingBox> boxes, int[] ids) {
+        super(parent.geometries);
+        density = parent.density;
+        minCells = parent.minCells;
+        maxCells = parent.maxCells;
+        subGridThreshold = NO_SUB_GRIDS;
+        setSceneBox(boxMin, boxMax);
+        divide(boxes, ids);
+    }
+
+    /**
+     * Divide the geometries' bounding box into a voxel grid, and sort the geometries into the voxels
+     *
+     * @param boundingBoxes the bounding boxes of all the geometries
+     */
+    @Override
+    protected void buildStructure(List<BoundingBox> boundingBoxes) {
+        //keeping the unbounded and oversized geometries out of the grid, which fits the rest tightly
+        List<BoundingBox> gridBoxes = separateSideGeometries(boundingBoxes);
+        setSceneBox(gridBoxes);
+
+        //the geometries' dense ids are their indexes in the grid
+        int[] ids = new int[gridBoxes.size()];
+        for (int i = 0; i < ids.length; ++i)
+            ids[i] = i;
+        divide(gridBoxes, ids);
+        subGrids = null;
+        if (subGridThreshold != NO_SUB_GRIDS)
+            divideOverfullVoxels(gridBoxes);
+    }
+
+    /**
+     * Divides the grid's box into voxels, and sorts the given geometries into them
+     *
+     * @param gridBoxes the bounding boxes of the geometries in the grid
+     * @param ids       the dense ids of the geometries, in the order of the boxes
+     */
+    private void divide(List<BoundingBox> gridBoxes, int[] ids) {
+        int totalGeometries = gridBoxes.size();
+
+        //the amount of voxels along each axis, in proportion to the scene's extent along it
+        int[] resolution = resolution(totalGeometries, sceneBoxMaxX - sceneBoxMinX, sceneBoxMaxY - sceneBoxMinY,
+                sceneBoxMaxZ - sceneBoxMinZ);
+        int numVoxelsX = resolution[0];
+        int numVoxelsY = resolution[1];
+        int numVoxelsZ = resolution[2];
+
+        //initiating the voxels grid array
+        voxels = new Voxel[numVoxelsX][numVoxelsY][numVoxelsZ];
+
+        //size in each dimension of each voxel-box
+        voxelSizeX = (sceneBoxMaxX - sceneBoxMinX) / numVoxelsX;
+        voxelSizeY = (sceneBoxMaxY - sceneBoxMinY) / numVoxelsY;
+        voxelSizeZ = (sceneBoxMaxZ - sceneBoxMinZ) / numVoxelsZ;
+
+        //for the report
+        geometriesCount = totalGeometries;
+
+        //iterating through all the geometries in the grid and sorting them into their voxels
+        int index = 0;
+        for (BoundingBox boundingBox : gridBoxes) {
+            int id = ids[index++];
+            Point geoMin = boundingBox.getMinCoords();
+            Point geoMax = boundingBox.getMaxCoords();
+
+            //the voxel indexes of the current geometry. a box that touches a voxel's boundary (e.g. a flat
+            //geometry lying on a boundary) belongs to the voxels on both sides of it
+            int minIndexX = Math.max((int) Math.floor((geoMin.getX() - sceneBoxMinX) / voxelSizeX - INDEX_EPSILON), 0);
+            int maxIndexX = (int) Math.floor((geoMax.getX() - sceneBoxMinX) / voxelSizeX + INDEX_EPSILON) + 1;
+            int minIndexY = Math.max((int) Math.floor((geoMin.getY() - sceneBoxMinY) / voxelSizeY - INDEX_EPSILON), 0);
+            int maxIndexY = (int) Math.floor((geoMax.getY() - sceneBoxMinY) / voxelSizeY + INDEX_EPSILON) + 1;
+            int minIndexZ = Math.max((int) Math.floor((geoMin.getZ() - sceneBoxMinZ) / voxelSizeZ - INDEX_EPSILON), 0);
+            int maxIndexZ = (int) Math.floor((geoMax.getZ() - sceneBoxMinZ) / voxelSizeZ + INDEX_EPSILON) + 1;
+
+            //adding the current geometry to the proper voxels
+            Geometry geometry = boundingBox.getGeometry();
+            for (int x = minIndexX; x < maxIndexX && x < numVoxelsX; ++x) {
+                for (int y = minIndexY; y < maxIndexY && y < numVoxelsY; ++y) {
+                    for (int z = minIndexZ; z < maxIndexZ && z < numVoxelsZ; ++z) {
+                        //instantiating a voxel if it's the first time
+                        if (voxels[x][y][z] == null) {
+                            voxels[x][y][z] = new Voxel();
+                        }
+                        //adding the geometry into the voxel
+                        voxels[x][y][z].add(geometry, id);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Divides each voxel that holds more geometries than the threshold into a sub-grid of its own
+     *
+     * @param gridBoxes the bounding boxes of the geometries in the grid
+     */
+    private void divideOverfullVoxels(List<BoundingBox> gridBoxes) {
+        for (int x = 0; x < voxels.length; ++x) {
+            for (int y = 0; y < voxels[0].length; ++y) {
+                for (int z = 0; z < voxels[0][0].length; ++z) {
+                    Voxel voxel = voxels[x][y][z];
+                    if (voxel == null || voxel.geometries.size() <= subGridThreshold)
+                        continue;
+                    //the ids are the indexes of the boxes in the grid
+                    int[] voxelIds = Arrays.copyOf(voxel.ids, voxel.geometries.size());
+                    List<BoundingBox> voxelBoxes = new ArrayList<>(voxelIds.length);
+                    for (int id : voxelIds)
+                        voxelBoxes.add(gridBoxes.get(id));
+                    VoxelGrid subGrid = new VoxelGrid(this,
+                            new Point(sceneBoxMinX + x * voxelSizeX, sceneBoxMinY + y * voxelSizeY,
+                                    sceneBoxMinZ + z * voxelSizeZ),
+                            new Point(sceneBoxMinX + (x + 1) * voxelSizeX, sceneBoxMinY + (y + 1) * voxelSizeY,
+                                    sceneBoxMinZ + (z + 1) * voxelSizeZ),
+                            voxelBoxes, voxelIds);
+                    int[] counts = new int[4];
+                    subGrid.collectOccupancy(counts, new int[Integer.SIZE]);
+                    if (counts[1] > counts[0] * voxel.geometries.size() * SUB_GRID_GAIN)
+                        continue;
+                    if (subGrids == null)
+                        subGrids = new VoxelGrid[voxels.length][voxels[0].length][voxels[0][0].length];
+                    subGrids[x][y][z] = subGrid;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets the scene's bounding box to the box that contains all the given boxes
+     *
+     * @param boundingBoxes the bounding boxes of all the geometries
+     */
+    private void setSceneBox(List<BoundingBox> boundingBoxes) {
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        for (BoundingBox box : boundingBoxes) {
+            Point min = box.getMinCoords();
+            Point max = box.getMaxCoords();
+            minX = Math.min(minX, min.getX());
+            minY = Math.min(minY, min.getY());
+            minZ = Math.min(minZ, min.getZ());
+            maxX = Math.max(maxX, max.getX());
+            maxY = Math.max(maxY, max.getY());
+            maxZ = Math.max(maxZ, max.getZ());
+        }
+        //an empty grid is a single empty voxel at the origin
+        if (boundingBoxes.isEmpty()) {
+            setSceneBox(Point.ZERO, new Point(1, 1, 1));
+            return;
+        }
+        //a flat scene gets some thickness, so its voxels have a size along every axis
+        double padX = maxX > minX ? 0 : 0.5;
+        double padY = maxY > minY ? 0 : 0.5;
+        double padZ = maxZ > minZ ? 0 : 0.5;
+        setSceneBox(new Point(minX - padX, minY - padY, minZ - padZ), new Point(maxX + padX, maxY + padY, maxZ + padZ));
+    }
+
+    /**
+     * Sets the scene's bounding box, and caches its coordinates
+     *
+     * @param min the minimum coordinates of the box
+     * @param max the maximum coordinates of the box
+     */
+    private void setSceneBox(Point min, Point max) {
+        sceneBox = new BoundingBox(null, min, max);
+        sceneBoxMinX = min.getX();
+        sceneBoxMinY = min.getY();
+        sceneBoxMinZ = min.getZ();
+        sceneBoxMaxX = max.getX();
+        sceneBoxMaxY = max.getY();
+        sceneBoxMaxZ = max.getZ();
+    }
+
+    /**
+     * Calculates the amount of voxels along each axis. the voxels' side is the same along all the axes,
+     * chosen so the total amount of voxels is the density times the amount of geometries, within the cells
+     * budget. an axis too thin for more than a single voxel gets one voxel, and the rest are spread over the
+     * other axes
+     *
+     * @param geometriesCount the amount of geometries in the grid
+     * @param sizeX           the scene's extent along the x-axis
+     * @param sizeY           the scene's extent along the y-axis
+     * @param sizeZ           the scene's extent along the z-axis
+     * @return the amounts of voxels along the x, y and z axes
+     */
+    private int[] resolution(int geometriesCount, double sizeX, double sizeY, double sizeZ) {
+        double[] sizes = {sizeX, sizeY, sizeZ};
+        double target = Math.min(Math.max(density * geometriesCount, minCells), maxCells);
+        boolean[] thin = new boolean[3];
+        double cellsPerUnit = 0;
+        //the voxels per unit of length - the cube root of the voxels per volume, or the square root of the
+        //voxels per area once an axis is too thin
+        for (int round = 0; round < 3; ++round) {
+            double volume = 1;
+            int dimensions = 0;
+            for (int axis = 0; axis < 3; ++axis) {
+                if (!thin[axis]) {
+                    volume *= sizes[axis];
+                    ++dimensions;
+                }
+            }
+            cellsPerUnit = Math.pow(target / volume, 1d / dimensions);
+            boolean changed = false;
+            for (int axis = 0; axis < 3; ++axis) {
+                if (!thin[axis] && sizes[axis] * cellsPerUnit < 1 && dimensions > 1) {
+                    thin[axis] = true;
+                    changed = true;
+                }
+            }
+            if (!changed)
+                break;
+        }
+
+        int[] cells = new int[3];
+        for (int axis = 0; axis < 3; ++axis)
+            cells[axis] = thin[axis] ? 1 : Math.max(1, (int) Math.round(sizes[axis] * cellsPerUnit));
+        //the rounding may exceed the budget
+        while ((long) cells[0] * cells[1] * cells[2] > maxCells) {
+            int largest = cells[0] >= cells[1] && cells[0] >= cells[2] ? 0 : (cells[1] >= cells[2] ? 1 : 2);
+            --cells[largest];
+        }
+        return cells;
+    }
+
+    /**
+     * Separates the geometries that are kept out of the grid - the unbounded geometries, and the oversized
+     * geometries, whose box spans most of the box of all the other bounded geometries along two axes or more
+     *
+     * @param boundingBoxes the bounding boxes of all the geometries
+     * @return the bounding boxes of the geometries that go into the grid
+     */
+    private List<BoundingBox> separateSideGeometries(List<BoundingBox> boundingBoxes) {
+        List<Geometry> side = new ArrayList<>();
+        List<BoundingBox> bounded = new ArrayList<>(boundingBoxes.size());
+        for (BoundingBox box : boundingBoxes) {
+            if (box.getGeometry().isBounded())
+                bounded.add(box);
+            else
+                side.add(box.getGeometry());
+        }
+
+        //the two lowest minimums and the two highest maximums along each axis, so the box of all the
+        //geometries but one is known for each of them
+        double[] lowest = new double[3], secondLowest = new double[3];
+        double[] highest = new double[3], secondHighest = new double[3];
+        int[] lowestOwner = new int[3], highestOwner = new int[3];
+        Arrays.fill(lowest, Double.POSITIVE_INFINITY);
+        Arrays.fill(secondLowest, Double.POSITIVE_INFINITY);
+        Arrays.fill(highest, Double.NEGATIVE_INFINITY);
+        Arrays.fill(secondHighest, Double.NEGATIVE_INFINITY);
+        for (int i = 0; i < bounded.size(); ++i) {
+            Point min = bounded.get(i).getMinCoords();
+            Point max = bounded.get(i).getMaxCoords();
+            for (int axis = 0; axis < 3; ++axis) {
+                double boxMin = coordinate(min, axis);
+                double boxMax = coordinate(max, axis);
+                if (boxMin < lowest[axis]) {
+                    secondLowest[axis] = lowest[axis];
+                    lowest[axis] = boxMin;
+                    lowestOwner[axis] = i;
+                } else if (boxMin < secondLowest[axis])
+                    secondLowest[axis] = boxMin;
+                if (boxMax > highest[axis]) {
+                    secondHighest[axis] = highest[axis];
+                    highest[axis] = boxMax;
+                    highestOwner[axis] = i;
+                } else if (boxMax > secondHighest[axis])
+                    secondHighest[axis] = boxMax;
+            }
+        }
+
+        List<BoundingBox> gridBoxes = new ArrayList<>(bounded.size());
+        for (int i = 0; i < bounded.size(); ++i) {
+            Point min = bounded.get(i).getMinCoords();
+            Point max = bounded.get(i).getMaxCoords();
+            int spannedAxes = 0;
+            for (int axis = 0; axis < 3; ++axis) {
+                double othersSize = (highestOwner[axis] == i ? secondHighest[axis] : highest[axis])
+                        - (lowestOwner[axis] == i ? secondLowest[axis] : lowest[axis]);
+                //a lone geometry, or a flat axis of the others, does not make a geometry oversized
+                if (othersSize > 0 && coordinate(max, axis) - coordinate(min, axis) >= othersSize * OVERSIZED_RATIO)
+                    ++spannedAxes;
+            }
+            if (spannedAxes >= 2)
+                side.add(bounded.get(i).getGeometry());
+            else
+                gridBoxes.add(bounded.get(i));
+        }
+        sideGeometries = side;
+        return gridBoxes;
+    }
+
+    /**
+     * Gives a coordinate of a point by the axis' index
+     *
+     * @param point a point
+     * @param axis  the index of the axis - 0 for x, 1 for y and 2 for z
+     * @return the point's coordinate along the axis
+     */
+    private static double coordinate(Point point, int axis) {
+        return switch (axis) {
+            case 0 -> point.getX();
+            case 1 -> point.getY();
+            default -> point.getZ();
+        };
+    }
+
+    @Override
+    GeoPoint findClosestIntersection(Ray ray, RenderStats stats) {
+        ClosestHit hit = new ClosestHit(Double.POSITIVE_INFINITY);
+        for (Geometry geometry : sideGeometries)
+            hit.update(ray, geometry);
+        Mailbox mailbox = RenderWorker.mailbox().startRay(geometriesCount);
+        //the grid is only traversed up to the closest side geometry
+        traverse(ray, hit.distance, stats, (voxel, tEnter, tExit) -> {
+            List<Geometry> voxelGeometries = voxel.geometries;
+            int[] ids = voxel.ids;
+            for (int i = 0; i < voxelGeometries.size(); ++i) {
+                //a geometry that was tested in a previous voxel already updated the hit
+                if (mailbox.firstTest(ids[i]))
+                    hit.update(ray, voxelGeometries.get(i));
+            }
+            //a geometry may span several voxels, so its intersection may lie beyond the current voxel.
+            //only an intersection within the current voxel guarantees that no closer one is left ahead
+            return hit.geometry != null && hit.distance <= tExit;
+        });
+        return hit.toGeoPoint(ray);
+    }
+
+    @Override
+    List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance, RenderStats stats) {
+        return getIntersections(ray, maxDistance, stats);
+    }
+
+    @Override
+    Double3 findTransparency(Ray ray, double maxDistance, Double3 minK, RenderStats stats) {
+        Double3[] ktr = {Double3.ONE};
+        for (Geometry geometry : sideGeometries) {
+            ktr[0] = geometry.findTransparency(ray, maxDistance, ktr[0], minK);
+            if (ktr[0].lowerThan(minK))
+                return Double3.ZERO;
+        }
+        Mailbox mailbox = RenderWorker.mailbox().startRay(geometriesCount);
+        traverse(ray, maxDistance, stats, (voxel, tEnter, tExit) -> {
+            List<Geometry> voxelGeometries = voxel.geometries;
+            int[] ids = voxel.ids;
+            for (int i = 0; i < voxelGeometries.size(); ++i) {
+                //all the intersections of a geometry are accounted for on its first test
+                if (!mailbox.firstTest(ids[i]))
+                    continue;
+                ktr[0] = voxelGeometries.get(i).findTransparency(ray, maxDistance, ktr[0], minK);
+                if (ktr[0].lowerThan(minK)) {
+                    ktr[0] = Double3.ZERO;
+                    return true;
+                }
+            }
+            return false;
+        });
+        return ktr[0];
+    }
+
+    /**
+     * Get all the intersection points of the given ray with the scene, which are within
+     * the given distance range, using the voxel-grid traversal algorithm
+     *
+     * @param ray         a ray to trace
+     * @param maxDistance the maximum distance from the ray's head to look for intersections in
+     * @param stats       the statistics of the current render
+     * @return a collection of all the intersection points of the given ray with the scene
+     * within the given distance
+     */
+    private List<GeoPoint> getIntersections(Ray ray, double maxDistance, RenderStats stats) {
+        List<GeoPoint> intersections = new LinkedList<>();
+        for (Geometry geometry : sideGeometries) {
+            var sideIntersections = geometry.findGeoIntersections(ray, maxDistance);
+            if (sideIntersections != null)
+                intersections.addAll(sideIntersections);
+        }
+        Mailbox mailbox = RenderWorker.mailbox().startRay(geometriesCount);
+        traverse(ray, maxDistance, stats, (voxel, tEnter, tExit) -> {
+            List<Geometry> voxelGeometries = voxel.geometries;
+            int[] ids = voxel.ids;
+            for (int i = 0; i < voxelGeometries.size(); ++i) {
+                //each geometry is tested once, so its intersections are never duplicated
+                if (!mailbox.firstTest(ids[i]))
+                    continue;
+                var innerIntersections = voxelGeometries.get(i).findGeoIntersections(ray, maxDistance);
+                if (innerIntersections != null)
+                    intersections.addAll(innerIntersections);
+            }
+            return false;
+        });
+
+        return intersections.isEmpty() ? null : intersections;
+    }
+
+    /**
+     * Marches the given ray through the voxel grid using the 3D-DDA algorithm, and calls the given visitor
+     * on each occupied voxel along the ray's path, in order, until the visitor stops the traversal,
+     * the ray leaves the grid or the ray travels beyond the given distance
+     *
+     * @param ray         a ray to trace
+     * @param maxDistance the maximum distance from the ray's head to traverse
+     * @param stats       the statistics of the current render, the visited voxels are counted in it
+     * @param visitor     the callback to be called on each occupied voxel
+     */
+    private void traverse(Ray ray, double maxDistance, RenderStats stats, VoxelVisitor visitor) {
+        Point head = ray.getHead();
+        Vector dir = ray.getDirection();
+        double[] invDir = {1.0 / dir.getX(), 1.0 / dir.getY(), 1.0 / dir.getZ()};
+
+        //finding the entry point of the ray into the scene's box, which is the head if it is inside the box
+        double tStart = sceneBox.entryDistance(head, invDir, maxDistance);
+        if (tStart == Double.POSITIVE_INFINITY) {
+            //ray does not intersect the scene's bounding box within the distance
+            return;
+        }
+
+        Point start = tStart == 0 ? head : ray.getPoint(tStart);
+
+        //the first voxel covers the ray from its head, since there is nothing in front of the grid
+        traverse(ray, invDir, start, 0, Double.POSITIVE_INFINITY, maxDistance, stats, visitor);
+    }
+
+    /**
+     * Marches the given ray through the voxels of this grid with the 3D-DDA algorithm, from the voxel of the
+     * given point, and calls the given visitor on each occupied voxel along the ray's path. a voxel that has a
+     * sub-grid is marched through in turn, over the part of the ray inside the voxel.
+     * the voxels' ranges on the ray are limited to the given range, so the first voxel is entered at its start
+     * and the last voxel is exited at its end
+     *
+     * @param ray         a ray to trace
+     * @param invDir      the inverted x,y,z components of the ray's direction
+     * @param start       a point of the ray inside the grid's box, where the traversal starts
+     * @param tStart      the distance from the ray's head at which the ray enters the first voxel
+     * @param tEnd        the distance from the ray's head at which the ray exits the last voxel
+     * @param maxDistance the maximum distance from the ray's head to traverse
+     * @param stats       the statistics of the current render, the visited voxels are counted in it
+     * @param visitor     the callback to be called on each occupied voxel
+     * @return true if the visitor stopped the traversal, false otherwise
+     */
+    private boolean traverse(Ray ray, double[] invDir, Point start, double tStart, double tEnd, double maxDistance,
+                             RenderStats stats, VoxelVisitor visitor) {
+        Point head = ray.getHead();
+        Vector dir = ray.getDirection();
+
+        //stepping intervals in each axis dimension
+        int stepX = dir.getX() > 0 ? 1 : (dir.getX() < 0 ? -1 : 0);
+        int stepY = dir.getY() > 0 ? 1 : (dir.getY() < 0 ? -1 : 0);
+        int stepZ = dir.getZ() > 0 ? 1 : (dir.getZ() < 0 ? -1 : 0);
+
+        //calculate the indexes of the first voxel. a point on the box's boundary may round out of the grid
+        Point currentVoxelIndex = getVoxelIndex(start);
+        int voxelX = Math.min(Math.max((int) currentVoxelIndex.getX(), 0), voxels.length - 1);
+        int voxelY = Math.min(Math.max((int) currentVoxelIndex.getY(), 0), voxels[0].length - 1);
+        int voxelZ = Math.min(Math.max((int) currentVoxelIndex.getZ(), 0), voxels[0][0].length - 1);
+
+        //tDelta for each axis dimension
+        double tDeltaX = stepX != 0 ? Math.abs(voxelSizeX * invDir[0]) : Double.POSITIVE_INFINITY;
+        double tDeltaY = stepY != 0 ? Math.abs(voxelSizeY * invDir[1]) : Double.POSITIVE_INFINITY;
+        double tDeltaZ = stepZ != 0 ? Math.abs(voxelSizeZ * invDir[2]) : Double.POSITIVE_INFINITY;
+
+        //tMax is the jumping interval for the ray's traversal in the grid
+        double tMaxX = getTMax(head.getX(), dir.getX(), sceneBoxMinX, voxelSizeX, voxelX, stepX);
+        double tMaxY = getTMax(head.getY(), dir.getY(), sceneBoxMinY, voxelSizeY, voxelY, stepY);
+        double tMaxZ = getTMax(head.getZ(), dir.getZ(), sceneBoxMinZ, voxelSizeZ, voxelZ, stepZ);
+
+        double tEnter = tStart;
+        int visited = 0;
+        boolean stopped = false;
+        //traversing the ray through the voxel grid
+        while (voxelX >= 0 && voxelX < voxels.length &&
+                voxelY >= 0 && voxelY < voxels[0].length &&
+                voxelZ >= 0 && voxelZ < voxels[0][0].length) {
+
+            //checking if the ray has traveled beyond the maxDistance
+            if (tEnter > maxDistance) {
+                break;
+            }
+
+            //finding the nearest voxel boundary, where the ray leaves the current voxel
+            int nextX = voxelX;
+            int nextY = voxelY;
+            int nextZ = voxelZ;
+            double tExit;
+            if (tMaxX < tMaxY && tMaxX < tMaxZ) {
+                nextX += stepX;
+                tExit = tMaxX;
+                tMaxX += tDeltaX;
+            } else if (tMaxY < tMaxZ) {
+                nextY += stepY;
+                tExit = tMaxY;
+                tMaxY += tDeltaY;
+            } else {
+                nextZ += stepZ;
+                tExit = tMaxZ;
+                tMaxZ += tDeltaZ;
+            }
+            //the last voxel on the ray's path covers the rest of the range. a sub-grid's last voxel is
+            //exited with its parent voxel, even if the rounding leaves it a bit earlier or later
+            boolean last = nextX < 0 || nextX >= voxels.length || nextY < 0 || nextY >= voxels[0].length
+                    || nextZ < 0 || nextZ >= voxels[0][0].length || tExit >= tEnd;
+            if (last) {
+                tExit = tEnd;
+            }
+
+            //visiting the current voxel, or marching through its sub-grid
+            Voxel voxel = voxels[voxelX][voxelY][voxelZ];
+            if (voxel != null) {
+                VoxelGrid subGrid = subGrids == null ? null : subGrids[voxelX][voxelY][voxelZ];
+                if (subGrid != null) {
+                    Point voxelStart = tEnter == tStart ? start : ray.getPoint(tEnter);
+                    stopped = subGrid.traverse(ray, invDir, voxelStart, tEnter, tExit, maxDistance, stats, visitor);
+                } else {
+                    ++visited;
+                    stopped = visitor.visit(voxel, tEnter, tExit);
+                }
+                if (stopped)
+                    break;
+            }
+            if (last)
+                break;
+
+            //moving to the next voxel
+            tEnter = tExit;
+            voxelX = nextX;
+            voxelY = nextY;
+            voxelZ = nextZ;
+        }
+        stats.countVoxelsVisited(visited);
+        return stopped;
+    }
+
+    /**
+     * Computes the `tMax` value for voxel traversal along a specific axis.
+     * The `tMax` value determines when the ray will cross from the current voxel to the next voxel
+     * along the specified axis. It is calculated based on the ray's origin, direction, and the
+     * dimensions of the voxels. This method is essential for the 3D Digital Differential Analyzer (3DDDA)
+     * algorithm, which marches the ray through the voxel grid.
+     *
+     * @param originCoord  The coordinate of the ray's origin along the specific axis (x, y, or z).
+     * @param direction    The direction of the ray along the specific axis. A positive value indicates
+     *                     the ray is moving in the positive direction along the axis, and a negative
+     *                     value indicates it is moving in the negative direction.
+     * @param boxMin       The minimum coordinate of the bounding box along the specific axis.
+     * @param voxelSize    The size of each voxel along the specific axis.
+     * @param currentVoxel The index of the current voxel along the specific axis.
+     * @param step         The step value along the specific axis, which can be -1, 0, or 1, indicating
+     *                     the direction of traversal. A step of 0 means the ray is parallel to the axis
+     *                     and does not move across voxels along that axis.
+     * @return The computed `tMax` value, which represents the parameter `t` at which the ray will cross
+     * from the current voxel to the next voxel along the specified axis. If the ray does not move along
+     * the axis (step is 0), the method returns `Double.POSITIVE_INFINITY`.
+     */
+    private double getTMax(double originCoord, double direction, double boxMin, double voxelSize, int currentVoxel, int step) {
+        if (step == 0) return Double.POSITIVE_INFINITY;
+        return step > 0 ?
+                ((currentVoxel + 1) * voxelSize + boxMin - originCoord) / direction :
+                (currentVoxel * voxelSize + boxMin - originCoord) / direction;
+    }
+
+    /**
+     * Get voxel indexes of the voxel that contains the given point inside the 3-dimensional voxels-grid.
+     *
+     * @param point represents a point inside the voxels-grid
+     * @return a point representing the x,y,z indexes of the voxel which contains the given point
+     */
+    private Point getVoxelIndex(Point point) {
+        int xIndex = (int) Math.floor((point.getX() - sceneBoxMinX) / voxelSizeX);
+        int yIndex = (int) Math.floor((point.getY() - sceneBoxMinY) / voxelSizeY);
+        int zIndex = (int) Math.floor((point.getZ() - sceneBoxMinZ) / voxelSizeZ);
+        return new Point(xIndex, yIndex, zIndex);
+    }
+
+    /**
+     * Gives the statistics of the grid as it was last built
+     *
+     * @return the grid's report
+     * @throws IllegalStateException if the grid was never built
+     */
+    public Report getReport() {
+        if (voxels == null)
+            throw new IllegalStateException("The grid was not built yet");
+        //the occupied voxels, the geometries in them, the highest occupancy and the sub-grids
+        int[] counts = new int[4];
+        int[] histogram = new int[Integer.SIZE];
+        collectOccupancy(counts, histogram);
+        return new Report(voxels.length, voxels[0].length, voxels[0][0].length, geometriesCount,
+                counts[0], counts[1], counts[2], sideGeometries.size(), counts[3],
+                Arrays.copyOf(histogram, Integer.SIZE - Integer.numberOfLeadingZeros(counts[2])));
+    }
+
+    /**
+     * Adds the occupancy of the grid's voxels to the given counters. the voxels that have sub-grids are
+     * counted by the voxels of their sub-grids
+     *
+     * @param counts    the amount of occupied voxels, the sum of the amounts of geometries in them,
+     *                  the highest amount of geometries in a voxel and the amount of sub-grids
+     * @param histogram the amounts of occupied voxels by the base-2 logarithm of the amount of geometries in them
+     */
+    private void collectOccupancy(int[] counts, int[] histogram) {
+        for (int x = 0; x < voxels.length; ++x) {
+            for (int y = 0; y < voxels[0].length; ++y) {
+                for (int z = 0; z < voxels[0][0].length; ++z) {
+                    Voxel voxel = voxels[x][y][z];
+                    if (voxel == null)
+                        continue;
+                    if (subGrids != null && subGrids[x][y][z] != null) {
+                        ++counts[3];
+                        subGrids[x][y][z].collectOccupancy(counts, histogram);
+                        continue;
+                    }
+                    int size = voxel.geometries.size();
+                    ++counts[0];
+                    counts[1] += size;
+                    counts[2] = Math.max(counts[2], size);
+                    ++histogram[Integer.SIZE - 1 - Integer.numberOfLeadingZeros(size)];
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return voxels == null ? "voxel grid (not built)" : getReport().toString();
+    }
+}
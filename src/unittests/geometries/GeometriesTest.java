@@ -1,12 +1,16 @@
 package geometries;
 
 import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Double3;
+import primitives.Material;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 /**
  * Tests for the geometries container class
@@ -60,6 +64,60 @@ class GeometriesTest {
                 "Wrong intersection count");
     }
 
+    /**
+     * Test method for {@link geometries.Geometries#findTransparency(Ray, double, Double3, Double3)}.
+     */
+    @Test
+    void testFindTransparency() {
+        Double3 minK = new Double3(0.0001);
+        Geometries geometries = new Geometries(
+                new Sphere(new Point(0, 0, -10), 1).setMaterial(new Material().setKt(0.5)),
+                new Sphere(new Point(0, 0, -20), 1).setMaterial(new Material().setKt(0.5)),
+                new Plane(new Point(0, 0, -30), new Vector(0, 0, 1)));
+        Ray ray = new Ray(Point.ZERO, new Vector(0, 0, -1));
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Ray passes through two half-transparent spheres (4 intersections)
+        assertEquals(new Double3(0.0625), geometries.findTransparency(ray, 25, Double3.ONE, minK),
+                "Wrong transparency through transparent geometries");
+
+        // TC02: Ray is blocked by an opaque plane
+        assertEquals(Double3.ZERO, geometries.findTransparency(ray, 35, Double3.ONE, minK),
+                "Wrong transparency through an opaque geometry");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC03: No geometries within the distance
+        assertEquals(Double3.ONE, geometries.findTransparency(ray, 5, Double3.ONE, minK),
+                "Wrong transparency with no geometries in the way");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#setMaterial(Material)} and
+     * {@link geometries.Geometries#setEmission(Color)}.
+     */
+    @Test
+    void testSetMaterial() {
+        Sphere sphere = new Sphere(new Point(0, 0, -10), 1);
+        Sphere nestedSphere = new Sphere(new Point(0, 0, -20), 1);
+        TriangleMesh mesh = new TriangleMesh(new double[]{0, 0, 0, 1, 0, 0, 0, 1, 0}, new int[]{0, 1, 2});
+        Geometries geometries = new Geometries(sphere, mesh, new Geometries(nestedSphere));
+        Material material = new Material().setKt(0.5);
+        Color emission = new Color(10, 20, 30);
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: The material and the emission reach the geometries, the meshes and the nested containers
+        geometries.setMaterial(material).setEmission(emission);
+        assertSame(material, sphere.getMaterial(), "The geometry did not get the material");
+        assertSame(material, mesh.getMaterial(), "The mesh did not get the material");
+        assertSame(material, nestedSphere.getMaterial(), "The nested geometry did not get the material");
+        assertSame(emission, sphere.getEmission(), "The geometry did not get the emission");
+        assertSame(emission, mesh.getEmission(), "The mesh did not get the emission");
+        assertSame(emission, nestedSphere.getEmission(), "The nested geometry did not get the emission");
+    }
+
     /**
      * Builds the scene for the tests
      *
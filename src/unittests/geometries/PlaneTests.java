@@ -162,4 +162,35 @@ class PlaneTests {
         ray = new Ray(new Point(0.5, 0, -4), Vector.FORWARDS);
         assertNull(plane.findGeoIntersections(ray, maxDistance), msg);
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Plane#findIntersectionDistance(Ray, double)}.
+     */
+    @Test
+    void testFindIntersectionDistance() {
+        Plane plane = new Plane(new Point(0, 0, 1), new Vector(0, 0, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Ray hits the plane within the distance
+        assertEquals(3, plane.findIntersectionDistance(new Ray(new Point(5, 2, -2), Vector.FORWARDS), 4),
+                DELTA, "Wrong distance to the plane");
+
+        // TC02: Ray goes away from the plane
+        assertEquals(Double.POSITIVE_INFINITY,
+                plane.findIntersectionDistance(new Ray(new Point(5, 2, -2), new Vector(0, 0, -1)), 4),
+                "Found a distance for a ray that goes away from the plane");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC03: Ray is parallel to the plane
+        assertEquals(Double.POSITIVE_INFINITY,
+                plane.findIntersectionDistance(new Ray(new Point(5, 2, -2), new Vector(1, 0, 0)), 4),
+                "Found a distance for a parallel ray");
+
+        // TC04: Ray starts on the plane's reference point
+        assertEquals(Double.POSITIVE_INFINITY,
+                plane.findIntersectionDistance(new Ray(new Point(0, 0, 1), new Vector(1, 1, 1)), 4),
+                "Found a distance for a ray starting at the plane's point");
+    }
+}
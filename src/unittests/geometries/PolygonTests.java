@@ -187,4 +187,36 @@ public class PolygonTests {
         ray = new Ray(new Point(0.2, 0.2, -4), Vector.FORWARDS);
         assertNull(polygon.findGeoIntersections(ray, maxDistance), msg);
     }
+
+    /**
+     * Test method for {@link geometries.Polygon#findIntersectionDistance(Ray, double)}.
+     */
+    @Test
+    void testFindIntersectionDistance() {
+        Polygon polygon = new Polygon(new Point(1, 1, 0), new Point(-1, 1, 0), new Point(-1, -1, 0),
+                new Point(1, -1, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Ray hits the polygon within the distance
+        assertEquals(2, polygon.findIntersectionDistance(new Ray(new Point(0.5, -0.5, -2), Vector.FORWARDS), 4),
+                DELTA, "Wrong distance to the polygon");
+
+        // TC02: Ray passes outside the polygon
+        assertEquals(Double.POSITIVE_INFINITY,
+                polygon.findIntersectionDistance(new Ray(new Point(2, 0, -2), Vector.FORWARDS), 4),
+                "Found a distance for a ray that misses the polygon");
+
+        // TC03: Intersection is beyond the distance
+        assertEquals(Double.POSITIVE_INFINITY,
+                polygon.findIntersectionDistance(new Ray(new Point(0.5, -0.5, -5), Vector.FORWARDS), 4),
+                "Found a distance for an intersection out of range");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC04: Ray passes through the polygon's vertex
+        assertEquals(Double.POSITIVE_INFINITY,
+                polygon.findIntersectionDistance(new Ray(new Point(1, 1, -2), Vector.FORWARDS), 4),
+                "Found a distance for a ray through a vertex");
+    }
 }
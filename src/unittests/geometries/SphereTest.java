@@ -24,6 +24,12 @@ class SphereTest {
      */
     private final Point p100 = new Point(1, 0, 0);
 
+    /**
+     * Delta value for accuracy when comparing the numbers of type 'double' in
+     * assertEquals
+     */
+    private final double DELTA = 0.000001;
+
     /**
      * Test method for {@link geometries.Sphere#getNormal(Point)}.
      */
@@ -229,4 +235,39 @@ class SphereTest {
         ray = new Ray(new Point(-11, 0, 0), Vector.RIGHT);
         assertNull(sphere.findGeoIntersections(ray, maxDistance), msg);
     }
+
+    /**
+     * Test method for {@link geometries.Sphere#findIntersectionDistance(Ray, double)}.
+     */
+    @Test
+    void testFindIntersectionDistance() {
+        Sphere sphere = new Sphere(new Point(0, 0, 0), 1);
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Ray starts before the sphere - the first intersection
+        assertEquals(2, sphere.findIntersectionDistance(new Ray(new Point(0, 0, -3), Vector.FORWARDS), 10),
+                DELTA, "Wrong distance to the sphere from outside");
+
+        // TC02: Ray starts inside the sphere - the only intersection
+        assertEquals(1.5, sphere.findIntersectionDistance(new Ray(new Point(0, 0, -0.5), Vector.FORWARDS), 10),
+                DELTA, "Wrong distance to the sphere from inside");
+
+        // TC03: Ray misses the sphere
+        assertEquals(Double.POSITIVE_INFINITY,
+                sphere.findIntersectionDistance(new Ray(new Point(2, 0, -3), Vector.FORWARDS), 10),
+                "Found a distance for a ray that misses the sphere");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC04: Ray is tangent to the sphere
+        assertEquals(Double.POSITIVE_INFINITY,
+                sphere.findIntersectionDistance(new Ray(new Point(1, 0, -3), Vector.FORWARDS), 10),
+                "Found a distance for a tangent ray");
+
+        // TC05: The first intersection is exactly at the distance limit
+        assertEquals(Double.POSITIVE_INFINITY,
+                sphere.findIntersectionDistance(new Ray(new Point(0, 0, -3), Vector.FORWARDS), 2),
+                "Found a distance for an intersection at the limit");
+    }
 }
@@ -0,0 +1,168 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the triangle mesh
+ */
+class TriangleMeshTest {
+
+    /**
+     * Delta value for accuracy when comparing the numbers of type 'double' in
+     * assertEquals
+     */
+    private final double DELTA = 0.000001;
+
+    /**
+     * The vertices of a square pyramid: the four base corners and the apex
+     */
+    private final double[] pyramidVertices = {
+            -1, -1, 0,
+            1, -1, 0,
+            1, 1, 0,
+            -1, 1, 0,
+            0, 0, 2
+    };
+
+    /**
+     * The four side triangles of the pyramid, sharing the apex and the base corners
+     */
+    private final int[] pyramidIndices = {
+            0, 1, 4,
+            1, 2, 4,
+            2, 3, 4,
+            3, 0, 4
+    };
+
+    /**
+     * Gives the vertex of the pyramid with the given index
+     *
+     * @param index the vertex's index
+     * @return the vertex as a point
+     */
+    private Point vertex(int index) {
+        return new Point(pyramidVertices[index * 3], pyramidVertices[index * 3 + 1], pyramidVertices[index * 3 + 2]);
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#TriangleMesh(double[], int[])}.
+     */
+    @Test
+    void testConstructor() {
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Correct mesh
+        assertDoesNotThrow(() -> new TriangleMesh(pyramidVertices, pyramidIndices), "Failed constructing a mesh");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC02: Index of a vertex that does not exist
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(pyramidVertices, new int[]{0, 1, 5}),
+                "Constructed a mesh with an index out of range");
+
+        // TC03: Incomplete triangle
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(pyramidVertices, new int[]{0, 1}),
+                "Constructed a mesh with an incomplete triangle");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#findGeoIntersections(Ray, double)}.
+     */
+    @Test
+    void testFindGeoIntersections() {
+        TriangleMesh mesh = new TriangleMesh(pyramidVertices, pyramidIndices);
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Ray through the pyramid's sides - two intersections
+        Ray ray = new Ray(new Point(-5, 0.2, 0.5), new Vector(1, 0, 0));
+        assertEquals(2, mesh.findGeoIntersections(ray).size(), "Wrong intersections count through the pyramid");
+
+        // TC02: Ray misses the pyramid
+        ray = new Ray(new Point(-5, 0.2, 3), new Vector(1, 0, 0));
+        assertNull(mesh.findGeoIntersections(ray), "Found intersections for a ray that misses the pyramid");
+
+        // TC03: Same intersections as separate triangles
+        Geometries triangles = new Geometries();
+        for (int i = 0; i < pyramidIndices.length; i += 3)
+            triangles.add(new Triangle(vertex(pyramidIndices[i]), vertex(pyramidIndices[i + 1]),
+                    vertex(pyramidIndices[i + 2])));
+        Random random = new Random(3);
+        for (int i = 0; i < 500; ++i) {
+            ray = new Ray(new Point(random.nextDouble() * 6 - 3, random.nextDouble() * 6 - 3, random.nextDouble() * 6 - 3),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, random.nextDouble() - 0.5 + 1e-3));
+            Intersectable.GeoPoint expected = triangles.findClosestGeoIntersection(ray, Double.POSITIVE_INFINITY);
+            Intersectable.GeoPoint actual = mesh.findClosestGeoIntersection(ray, Double.POSITIVE_INFINITY);
+            if (expected == null)
+                assertNull(actual, "Found an intersection for a ray that misses the pyramid: " + ray);
+            else
+                assertEquals(expected.point, actual.point, "Wrong closest intersection for the ray: " + ray);
+        }
+
+        // =============== Boundary Values Tests ==================
+
+        // TC04: The intersection is beyond the distance range
+        ray = new Ray(new Point(-5, 0.2, 0.5), new Vector(1, 0, 0));
+        assertNull(mesh.findGeoIntersections(ray, 3), "Found an intersection out of range");
+
+        // TC05: Ray through the edges two faces share - like a triangle's edge, neither face is hit
+        ray = new Ray(new Point(3, -3, 1), new Vector(-1, 1, 0));
+        assertNull(triangles.findGeoIntersections(ray), "The triangles were hit on their edges");
+        assertNull(mesh.findGeoIntersections(ray), "The faces were hit on their shared edges");
+
+        // TC06: Ray through a single shared edge, from inside the pyramid - not hit twice
+        ray = new Ray(new Point(0, 0, 0.5), new Vector(0.5, -0.5, 0.5));
+        assertNull(mesh.findGeoIntersections(ray), "The faces were hit on their shared edge");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#getBoundingBoxes()}.
+     */
+    @Test
+    void testGetBoundingBoxes() {
+        TriangleMesh mesh = new TriangleMesh(pyramidVertices, pyramidIndices);
+        Material material = new Material().setKt(0.5);
+        mesh.setMaterial(material);
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: One box for each triangle, with the mesh's material
+        var boxes = mesh.getBoundingBoxes();
+        assertEquals(4, boxes.size(), "Wrong amount of bounding boxes");
+        assertEquals(new Point(-1, -1, 0), boxes.getFirst().getMinCoords(), "Wrong min coordinates of a face");
+        assertEquals(new Point(1, 0, 2), boxes.getFirst().getMaxCoords(), "Wrong max coordinates of a face");
+        assertSame(material, boxes.getFirst().getGeometry().getMaterial(), "The face does not share the mesh's material");
+
+        // TC02: The mesh is counted and boxed triangle by triangle inside a geometries container
+        Geometries geometries = new Geometries(mesh, new Sphere(new Point(5, 5, 5), 1));
+        assertEquals(5, geometries.getGeometriesCount(), "Wrong geometries count");
+        assertEquals(5, geometries.getAllBoundingBoxes().size(), "Wrong amount of bounding boxes");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#moveCloneTo(Point)}.
+     */
+    @Test
+    void testMoveCloneTo() {
+        TriangleMesh mesh = new TriangleMesh(pyramidVertices, pyramidIndices);
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: All the vertices are moved
+        Intersectable moved = mesh.moveCloneTo(new Point(10, 0, 0));
+        assertEquals(new Point(9, -1, 0), moved.getMinCoordinates(), "Wrong min coordinates after moving");
+        assertEquals(new Point(11, 1, 2), moved.getMaxCoordinates(), "Wrong max coordinates after moving");
+        assertEquals(new Point(-1, -1, 0), mesh.getMinCoordinates(), "The original mesh was moved");
+        Ray ray = new Ray(new Point(10.2, 0.1, 5), new Vector(0, 0, -1));
+        assertEquals(3.4, ray.getHead().distance(moved.findGeoIntersections(ray).getFirst().point), DELTA,
+                "Wrong intersection with the moved mesh");
+    }
+}
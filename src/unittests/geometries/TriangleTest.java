@@ -133,4 +133,35 @@ class TriangleTest {
         ray = new Ray(new Point(0.2, 0.2, -4), Vector.FORWARDS);
         assertNull(triangle.findGeoIntersections(ray, maxDistance), msg);
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Triangle#findIntersectionDistance(Ray, double)}.
+     */
+    @Test
+    void testFindIntersectionDistance() {
+        Triangle triangle = new Triangle(new Point(1, 0, 0), new Point(-1, 0, 0), new Point(0, 1, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Ray hits the triangle within the distance
+        assertEquals(3, triangle.findIntersectionDistance(new Ray(new Point(0.2, 0.2, -3), Vector.FORWARDS), 4),
+                DELTA, "Wrong distance to the triangle");
+
+        // TC02: Ray passes outside the triangle
+        assertEquals(Double.POSITIVE_INFINITY,
+                triangle.findIntersectionDistance(new Ray(new Point(2, 2, -3), Vector.FORWARDS), 4),
+                "Found a distance for a ray that misses the triangle");
+
+        // TC03: Intersection is beyond the distance
+        assertEquals(Double.POSITIVE_INFINITY,
+                triangle.findIntersectionDistance(new Ray(new Point(0.2, 0.2, -5), Vector.FORWARDS), 4),
+                "Found a distance for an intersection out of range");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC04: Ray passes through the triangle's edge
+        assertEquals(Double.POSITIVE_INFINITY,
+                triangle.findIntersectionDistance(new Ray(new Point(0, 0, -3), Vector.FORWARDS), 4),
+                "Found a distance for a ray through the edge");
+    }
+}
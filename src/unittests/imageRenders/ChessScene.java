@@ -10,6 +10,7 @@ import primitives.Color;
 import primitives.Material;
 import primitives.Point;
 import primitives.Vector;
+import renderer.BvhRayTracer;
 import renderer.Camera;
 import renderer.ImageWriter;
 import renderer.SimpleRayTracer;
@@ -227,6 +228,29 @@ public class ChessScene {
                 .writeToImage();
     }
 
+    /**
+     * Test Render of the scene with different setting presets
+     */
+    @Test
+    @Disabled
+    public void bvhRender() {
+        scene.setGeometries(buildScene());
+        scene.setLights(
+                new SpotLight(new Color(85, 120, 75), new Point(0, 250, 0), new Point(200, 15, 200)),
+                new DirectionalLight(new Color(79, 139, 168), new Vector(0.8, -0.3, 1))
+        );
+        cameraBuilder
+                .setRayTracer(new BvhRayTracer(scene))
+                .setFocusPoint(new Point(-900, 1700, -2200), new Point(400, 60, 420))
+                .setVpDistance(600)
+                .setVpSize(135, 240)
+                .setImageWriter(new ImageWriter(directoryName + "bvh tracer, multithreading - no effects", 1280, 720))
+                .build()
+                .enableMultiThreading(5)
+                .renderImage(7)
+                .writeToImage();
+    }
+
     /**
      * Test Render of the scene with different setting presets
      */
@@ -306,7 +330,7 @@ public class ChessScene {
      *
      * @return a geometries container which contains all the geometries of the chess scene
      */
-    private Geometries buildScene() {
+    Geometries buildScene() {
         Geometries geometries = new Geometries();
         Color whiteColor = new Color(41, 41, 41);
         Color blackColor = new Color(41, 34, 0);
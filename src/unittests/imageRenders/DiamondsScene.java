@@ -11,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import primitives.Color;
 import primitives.Material;
 import primitives.Point;
+import renderer.BvhRayTracer;
 import renderer.Camera;
 import renderer.ImageWriter;
 import renderer.VoxelRayTracer;
@@ -70,12 +71,45 @@ public class DiamondsScene {
                 .writeToImage();
     }
 
+    /**
+     * Render of scene with diamonds inside cubes, using the bounding volume hierarchy tracer
+     */
+    @Test
+    @Disabled
+    public void bonusImageBvh() {
+        final Scene scene = new Scene("Diamonds Scene");
+        scene.geometries.add(buildScene());
+        scene.setAmbientLight(new AmbientLight(new Color(WHITE), 0d));
+        Color spotColor1 = new Color(86, 135, 204);
+        Color spotColor4 = new Color(59, 35, 21);
+        Color pointColor1 = new Color(28, 97, 64);
+        scene.setLights(
+                new PointLight(pointColor1, new Point(-150, 0, -150))
+                        .setKl(4E-5).setKq(2E-7),
+                new SpotLight(spotColor1, new Point(-400, 80, 200), new Point(-100, 0, -100))
+                        .setKl(4E-5).setKq(2E-7),
+                new SpotLight(spotColor4, new Point(-1300, 300, -1300), new Point(0, 0, 0))
+                        .setKl(4E-5).setKq(2E-7)
+        );
+
+        cameraBuilder
+                .setRayTracer(new BvhRayTracer(scene))
+                .setFocusPoint(new Point(-1000, 1700, 4000), new Point(-100, -120, -100))
+                .setVpDistance(800)
+                .setVpSize(135, 240)
+                .setImageWriter(new ImageWriter(directoryName + "bvh tracer 2", 1920, 1080))
+                .build()
+                .enableMultiThreading(4)
+                .renderImage()
+                .writeToImage();
+    }
+
     /**
      * Scene builder
      *
      * @return collection of geometries that form the scene
      */
-    private Geometries buildScene() {
+    Geometries buildScene() {
         //big diamond
         Point a1 = new Point(100, 100, 100);
         Point top = new Point(0, 200, 0);
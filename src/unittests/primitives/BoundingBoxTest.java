@@ -0,0 +1,84 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for the bounding box class
+ */
+class BoundingBoxTest {
+
+    /**
+     * A box from (0,0,0) to (2,2,2)
+     */
+    private final BoundingBox box = new BoundingBox(null, Point.ZERO, new Point(2, 2, 2));
+
+    /**
+     * Gives the inverted components of the given direction
+     *
+     * @param x the x component of the direction
+     * @param y the y component of the direction
+     * @param z the z component of the direction
+     * @return the inverted x,y,z components
+     */
+    private double[] invDir(double x, double y, double z) {
+        return new double[]{1 / x, 1 / y, 1 / z};
+    }
+
+    /**
+     * Test method for {@link primitives.BoundingBox#entryDistance(Point, double[], double)}.
+     */
+    @Test
+    void testEntryDistance() {
+        // ============ Equivalence Partitions Tests ==============
+
+        //TC01 The ray enters the box from outside
+        assertEquals(1, box.entryDistance(new Point(-1, 1, 1), invDir(1, 0, 0), Double.POSITIVE_INFINITY),
+                1e-10, "Wrong entry distance from outside the box");
+        //TC02 The ray starts inside the box
+        assertEquals(0, box.entryDistance(new Point(1, 1, 1), invDir(1, 1, 0), Double.POSITIVE_INFINITY),
+                "The entry distance from inside the box is not zero");
+        //TC03 The ray misses the box
+        assertEquals(Double.POSITIVE_INFINITY,
+                box.entryDistance(new Point(-1, 3, 1), invDir(1, 0, 0), Double.POSITIVE_INFINITY),
+                "A ray that misses the box entered it");
+        //TC04 The box is behind the ray
+        assertEquals(Double.POSITIVE_INFINITY,
+                box.entryDistance(new Point(3, 1, 1), invDir(1, 0, 0), Double.POSITIVE_INFINITY),
+                "A ray entered a box behind it");
+        //TC05 The box is beyond the maximum distance
+        assertEquals(Double.POSITIVE_INFINITY, box.entryDistance(new Point(-1, 1, 1), invDir(1, 0, 0), 0.5),
+                "A ray entered a box beyond the maximum distance");
+
+        // =============== Boundary Values Tests ==================
+
+        //TC06 The ray enters through an edge of the box
+        assertEquals(Math.sqrt(2), box.entryDistance(new Point(-1, -1, 1), invDir(1 / Math.sqrt(2), 1 / Math.sqrt(2), 0),
+                Double.POSITIVE_INFINITY), 1e-10, "Wrong entry distance through an edge");
+        //TC07 The box is exactly at the maximum distance
+        assertEquals(1, box.entryDistance(new Point(-1, 1, 1), invDir(1, 0, 0), 1), 1e-10,
+                "A box at the maximum distance was missed");
+    }
+
+    /**
+     * Test method for {@link primitives.BoundingBox#exitDistance(Point, double[])}.
+     */
+    @Test
+    void testExitDistance() {
+        // ============ Equivalence Partitions Tests ==============
+
+        //TC01 The ray crosses the box from outside
+        assertEquals(3, box.exitDistance(new Point(-1, 1, 1), invDir(1, 0, 0)), 1e-10,
+                "Wrong exit distance from outside the box");
+        //TC02 The ray starts inside the box
+        assertEquals(0.5, box.exitDistance(new Point(1, 1, 1.5), invDir(0, 0, 1)), 1e-10,
+                "Wrong exit distance from inside the box");
+
+        // =============== Boundary Values Tests ==================
+
+        //TC03 The ray starts on the box's far face
+        assertEquals(0, box.exitDistance(new Point(2, 1, 1), invDir(1, 0, 0)), 1e-10,
+                "Wrong exit distance from the far face");
+    }
+}
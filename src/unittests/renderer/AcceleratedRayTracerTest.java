@@ -0,0 +1,170 @@
+package renderer;
+
+import geometries.*;
+import geometries.Intersectable.GeoPoint;
+import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import scene.Scene;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the accelerated ray tracers - each acceleration structure must find the same intersections
+ * as the simple ray tracer
+ */
+class AcceleratedRayTracerTest {
+
+    /**
+     * The tracers of the tests, one for each acceleration structure
+     */
+    private final List<Function<Scene, AcceleratedRayTracer>> tracers = List.of(
+            BvhRayTracer::new, VoxelRayTracer::new);
+
+    /**
+     * Test method for {@link renderer.AcceleratedRayTracer#findClosestIntersection(Ray)}.
+     */
+    @Test
+    void testFindClosestIntersection() {
+        Scene scene = sceneBuilder();
+        SimpleRayTracer simpleTracer = new SimpleRayTracer(scene);
+        for (Function<Scene, AcceleratedRayTracer> tracerBuilder : tracers) {
+            AcceleratedRayTracer tracer = tracerBuilder.apply(scene);
+            String name = tracer.getClass().getSimpleName();
+            Random random = new Random(7);
+
+            // ============ Equivalence Partitions Tests ==============
+
+            // TC01: Rays in random directions from inside and outside the geometries' area
+            for (int i = 0; i < 2000; ++i) {
+                Ray ray = randomRay(random);
+                GeoPoint expected = simpleTracer.findClosestIntersection(ray);
+                GeoPoint actual = tracer.findClosestIntersection(ray);
+                if (expected == null)
+                    assertNull(actual, name + " found an intersection for a ray that misses the scene: " + ray);
+                else
+                    assertEquals(expected.point, actual.point, name + " found a wrong closest intersection for the ray: "
+                            + ray);
+            }
+
+            // =============== Boundary Values Tests ==================
+
+            // TC02: Ray parallel to the axes, through the center of a sphere
+            Ray ray = new Ray(new Point(0, 0, 100), new Vector(0, 0, -1));
+            assertEquals(new Point(0, 0, 20), tracer.findClosestIntersection(ray).point,
+                    name + " found a wrong closest intersection for an axis-parallel ray");
+
+            // TC03: Empty scene
+            assertNull(tracerBuilder.apply(new Scene("empty")).findClosestIntersection(ray),
+                    name + " found an intersection in an empty scene");
+        }
+    }
+
+    /**
+     * Test method for {@link renderer.AcceleratedRayTracer#findGeoIntersections(Ray, double)}.
+     */
+    @Test
+    void testFindGeoIntersections() {
+        Scene scene = sceneBuilder();
+        SimpleRayTracer simpleTracer = new SimpleRayTracer(scene);
+        for (Function<Scene, AcceleratedRayTracer> tracerBuilder : tracers) {
+            AcceleratedRayTracer tracer = tracerBuilder.apply(scene);
+            String name = tracer.getClass().getSimpleName();
+            Random random = new Random(11);
+
+            // ============ Equivalence Partitions Tests ==============
+
+            // TC01: All the intersections within a random distance are found
+            for (int i = 0; i < 2000; ++i) {
+                Ray ray = randomRay(random);
+                double maxDistance = random.nextDouble() * 300;
+                var expected = simpleTracer.findGeoIntersections(ray, maxDistance);
+                var actual = tracer.findGeoIntersections(ray, maxDistance);
+                assertEquals(expected == null ? 0 : expected.size(), actual == null ? 0 : actual.size(),
+                        name + " found a wrong intersections count for the ray: " + ray);
+            }
+        }
+    }
+
+    /**
+     * Test method for {@link renderer.AcceleratedRayTracer#findTransparency(Ray, double)}.
+     */
+    @Test
+    void testFindTransparency() {
+        Scene scene = sceneBuilder();
+        SimpleRayTracer simpleTracer = new SimpleRayTracer(scene);
+        for (Function<Scene, AcceleratedRayTracer> tracerBuilder : tracers) {
+            AcceleratedRayTracer tracer = tracerBuilder.apply(scene);
+            String name = tracer.getClass().getSimpleName();
+            Random random = new Random(13);
+
+            // ============ Equivalence Partitions Tests ==============
+
+            // TC01: The accumulated transparency within a random distance matches the simple tracer
+            for (int i = 0; i < 2000; ++i) {
+                Ray ray = randomRay(random);
+                double maxDistance = random.nextDouble() * 300;
+                assertEquals(simpleTracer.findTransparency(ray, maxDistance), tracer.findTransparency(ray, maxDistance),
+                        name + " found a wrong transparency for the ray: " + ray);
+            }
+
+            // =============== Boundary Values Tests ==================
+
+            // TC02: Ray through both sides of a half-transparent sphere
+            Ray ray = new Ray(new Point(0, 0, 100), new Vector(0, 0, -1));
+            assertEquals(new Double3(0.25), tracer.findTransparency(ray, 150),
+                    name + " found a wrong transparency through a half-transparent sphere");
+        }
+    }
+
+    /**
+     * Gives a random ray whose head is around the scene's geometries
+     *
+     * @param random the random generator
+     * @return a random ray
+     */
+    private Ray randomRay(Random random) {
+        Point head = new Point(random.nextDouble() * 200 - 100, random.nextDouble() * 200 - 100,
+                random.nextDouble() * 200 - 100);
+        Vector direction = new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5,
+                random.nextDouble() - 0.5 + 1e-3);
+        return new Ray(head, direction);
+    }
+
+    /**
+     * Builds the scene for the tests - a cluster of small triangles, a few spheres, a large polygon,
+     * a pyramid mesh and a half-transparent plane behind them
+     *
+     * @return scene containing the objects for the tests
+     */
+    private Scene sceneBuilder() {
+        Scene scene = new Scene("Accelerated test scene");
+        scene.geometries.add(
+                new Sphere(new Point(0, 0, 0), 20).setMaterial(new Material().setKt(0.5)),
+                new Sphere(new Point(60, 10, -30), 8),
+                new Sphere(new Point(-50, -40, 40), 12),
+                new Polygon(new Point(-150, -60, -150), new Point(150, -60, -150),
+                        new Point(150, -60, 150), new Point(-150, -60, 150)),
+                new Plane(new Point(0, 0, -120), new Vector(0, 0, 1)).setMaterial(new Material().setKt(0.5))
+        );
+        for (int i = 0; i < 10; ++i) {
+            for (int j = 0; j < 10; ++j) {
+                double x = 30 + i * 5;
+                double z = 30 + j * 5;
+                scene.geometries.add(new Triangle(new Point(x, 20, z), new Point(x + 4, 22, z),
+                        new Point(x, 24, z + 4)).setMaterial(new Material().setKt(0.9)));
+            }
+        }
+        scene.geometries.add(new TriangleMesh(
+                new double[]{-40, -20, -40, -20, -20, -40, -20, -20, -20, -40, -20, -20, -30, 10, -30},
+                new int[]{0, 1, 4, 1, 2, 4, 2, 3, 4, 3, 0, 4}).setMaterial(new Material().setKt(0.7)));
+        return scene;
+    }
+}
@@ -0,0 +1,98 @@
+package renderer;
+
+import geometries.Sphere;
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import scene.Scene;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the reuse of the acceleration structures by several renders and tracers
+ */
+class AccelerationStructureTest {
+
+    /**
+     * Builds a camera that renders the given scene with the given tracer, without writing the image
+     *
+     * @param tracer the tracer of the scene
+     * @return the camera
+     */
+    private Camera cameraBuilder(RayTracerBase tracer) {
+        return Camera.getBuilder()
+                .setLocation(new Point(0, 0, 500)).setDirection(Vector.BACKWARDS, Vector.UP)
+                .setVpDistance(500).setVpSize(200, 200)
+                .setImageWriter(new ImageWriter("reuse", 10, 10))
+                .setRayTracer(tracer)
+                .build()
+                .setProgressPrintMode(Camera.ProgressPrintMode.NONE);
+    }
+
+    /**
+     * Builds a scene of two spheres
+     *
+     * @return the scene
+     */
+    private Scene sceneBuilder() {
+        Scene scene = new Scene("Reuse scene");
+        scene.geometries.add(new Sphere(new Point(0, 0, 0), 50d), new Sphere(new Point(100, 0, 0), 20d));
+        return scene;
+    }
+
+    /**
+     * Test method for {@link renderer.AccelerationStructure#update()}.
+     */
+    @Test
+    void testUpdate() {
+        List<Function<Scene, AccelerationStructure>> structures = List.of(
+                s -> new VoxelGrid(s.geometries), s -> new BoundingVolumeHierarchy(s.geometries));
+        for (Function<Scene, AccelerationStructure> structureBuilder : structures) {
+            Scene scene = sceneBuilder();
+            AccelerationStructure structure = structureBuilder.apply(scene);
+
+            // ============ Equivalence Partitions Tests ==============
+
+            // TC01: The structure is built by the first tracer, and is shared by the second one
+            assertTrue(structure.isStale(), "A new structure is not stale");
+            AcceleratedRayTracer tracer = new AcceleratedRayTracer(scene, structure);
+            AcceleratedRayTracer sharingTracer = new AcceleratedRayTracer(scene, structure);
+            assertEquals(1, structure.getBuildsCount(), "The shared structure was built more than once");
+            assertNotNull(sharingTracer.findClosestIntersection(new Ray(new Point(0, 0, 500), Vector.BACKWARDS)),
+                    "The sharing tracer missed the sphere");
+
+            // TC02: Renders of unchanged geometries do not rebuild the structure, and report no build time
+            Camera camera = cameraBuilder(tracer);
+            assertTrue(camera.renderImage().getRenderStats().getBuildNanos() > 0,
+                    "The first render did not report the build");
+            assertEquals(0, camera.renderImage().getRenderStats().getBuildNanos(),
+                    "The second render reported a build");
+            assertEquals(1, structure.getBuildsCount(), "The structure was rebuilt for unchanged geometries");
+
+            // TC03: Adding a geometry makes the structure stale, and the next render rebuilds it
+            Ray ray = new Ray(new Point(-300, 0, 500), Vector.BACKWARDS);
+            assertNull(tracer.findClosestIntersection(ray), "Found a geometry that was not added yet");
+            scene.geometries.add(new Sphere(new Point(-300, 0, 0), 20d));
+            assertTrue(structure.isStale(), "The structure is not stale after the geometries changed");
+            camera.renderImage();
+            assertEquals(2, structure.getBuildsCount(), "The structure was not rebuilt for changed geometries");
+            assertNotNull(tracer.findClosestIntersection(ray), "The rebuilt structure missed the new geometry");
+
+            // =============== Boundary Values Tests ==================
+
+            // TC04: An explicit build rebuilds even unchanged geometries, an update does not
+            structure.build();
+            assertFalse(structure.update(), "Updated an up-to-date structure");
+            assertEquals(3, structure.getBuildsCount(), "Wrong amount of builds");
+        }
+
+        // TC05: A structure over other geometries than the scene's
+        assertThrows(IllegalArgumentException.class,
+                () -> new AcceleratedRayTracer(new Scene("other"), new VoxelGrid(sceneBuilder().geometries)),
+                "Accepted a structure over other geometries");
+    }
+}
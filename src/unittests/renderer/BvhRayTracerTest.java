@@ -0,0 +1,32 @@
+package renderer;
+
+import geometries.Plane;
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import scene.Scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the bounding volume hierarchy ray tracer. the comparison with the simple ray tracer is shared
+ * by all the accelerated tracers, in {@link AcceleratedRayTracerTest}
+ */
+class BvhRayTracerTest {
+
+    /**
+     * Test method for {@link renderer.BvhRayTracer#findClosestIntersection(Ray)}.
+     */
+    @Test
+    void testFindClosestIntersection() {
+        // =============== Boundary Values Tests ==================
+
+        // TC01: A plane hit far outside its stand-in bounding box - the plane is kept out of the tree
+        Scene planeScene = new Scene("Plane scene");
+        planeScene.geometries.add(new Plane(new Point(0, -10, 0), new Vector(0, 1, 0)));
+        assertEquals(new Point(110000, -10, 0), new BvhRayTracer(planeScene)
+                        .findClosestIntersection(new Ray(new Point(10000, 0, 0), new Vector(1, -0.0001, 0))).point,
+                "Wrong closest intersection with a plane outside the tree");
+    }
+}
@@ -1,12 +1,22 @@
 package renderer;
 
+import geometries.Sphere;
+import lighting.PointLight;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.Color;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 import scene.Scene;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
 //import scene.Scene;
 
 /**
@@ -68,4 +78,334 @@ class CameraTest {
 
     }
 
+    /**
+     * Test method for
+     * {@link renderer.Camera#enableAdaptiveAntiAliasing(int, int, double, SampleSequence)}.
+     */
+    @Test
+    void testEnableAdaptiveAntiAliasing() {
+        Scene scene = new Scene("Adaptive test");
+        scene.geometries.add(new Sphere(new Point(0, 0, -100), 30d).setEmission(new Color(255, 255, 255)));
+        Camera camera = Camera.getBuilder()
+                .setRayTracer(new SimpleRayTracer(scene))
+                .setImageWriter(new ImageWriter("adaptive test", 20, 20))
+                .setLocation(Point.ZERO)
+                .setDirection(new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVpDistance(100).setVpSize(100, 100)
+                .build()
+                .setProgressPrintMode(Camera.ProgressPrintMode.NONE);
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Only the pixels on the sphere's edge get more than the first batch
+        camera.enableAdaptiveAntiAliasing(4, 64, 1, SampleSequence.SOBOL).renderImage();
+        long rays = camera.getRenderStats().getPrimaryRays();
+        assertTrue(rays > 20 * 20 * 4, "No pixel was refined");
+        assertTrue(rays < 20 * 20 * 64 / 5, "Too many pixels were refined");
+
+        // TC02: A higher threshold settles the edge pixels after fewer batches
+        camera.enableAdaptiveAntiAliasing(4, 64, 50, SampleSequence.SOBOL).renderImage();
+        assertTrue(camera.getRenderStats().getPrimaryRays() < rays, "Higher threshold did not refine fewer pixels");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC03: The jittered grid can not be used in batches
+        assertThrows(IllegalArgumentException.class,
+                () -> camera.enableAdaptiveAntiAliasing(4, 64, 1, SampleSequence.JITTERED),
+                "Enabled adaptive antialiasing with the jittered grid");
+
+        // TC04: Maximum below the batch size
+        assertThrows(IllegalArgumentException.class,
+                () -> camera.enableAdaptiveAntiAliasing(8, 4, 1, SampleSequence.SOBOL),
+                "Enabled adaptive antialiasing with a maximum below the batch size");
+    }
+
+    /**
+     * Test method for
+     * {@link renderer.Camera#generateVideo(int, int, String, int, int, Point, Point, Point, Point, double, int, int)}.
+     */
+    @Test
+    void testGenerateVideo() {
+        Scene scene = new Scene("Video test");
+        scene.geometries.add(new Sphere(new Point(0, 0, -100), 30d).setEmission(new Color(255, 255, 255)));
+        Camera camera = Camera.getBuilder()
+                .setRayTracer(new SimpleRayTracer(scene))
+                .setImageWriter(new ImageWriter("video test", 10, 10))
+                .setLocation(Point.ZERO)
+                .setDirection(new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVpDistance(100).setVpSize(100, 100)
+                .build()
+                .setProgressPrintMode(Camera.ProgressPrintMode.NONE);
+        String folder = System.getProperty("user.dir") + "/images/";
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Concurrent frames from a resume point - the frames after it are written, the camera is unchanged
+        for (int i = 0; i < 4; ++i)
+            new File(folder + "video test" + i + ".png").delete();
+        camera.generateVideo(4, 1, "video test", 10, 10, new Point(0, 0, -100), Point.ZERO,
+                new Point(50, 0, 0), new Point(25, 25, 0), 30, 0, 2);
+        assertFalse(new File(folder + "video test0.png").exists(), "A frame before the resume point was written");
+        for (int i = 1; i < 4; ++i)
+            assertTrue(new File(folder + "video test" + i + ".png").exists(), "Frame " + i + " was not written");
+        assertEquals(Point.ZERO, camera.getPosition(), "The video moved the camera");
+        assertEquals(new Vector(0, 1, 0), camera.getVup(), "The video rotated the camera");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC02: No concurrent frames
+        assertThrows(IllegalArgumentException.class,
+                () -> camera.generateVideo(4, 0, "video test", 10, 10, new Point(0, 0, -100), Point.ZERO,
+                        new Point(50, 0, 0), new Point(25, 25, 0), 30, 0, 0),
+                "Generated a video without concurrent frames");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#renderProgressive(int, long, double)}.
+     */
+    @Test
+    void testRenderProgressive() throws Exception {
+        Scene scene = new Scene("Progressive test");
+        scene.geometries.add(new Sphere(new Point(0, 0, -100), 30d).setEmission(new Color(255, 255, 255)));
+        ImageWriter writer = new ImageWriter("progressive test", 10, 10);
+        Camera camera = Camera.getBuilder()
+                .setRayTracer(new SimpleRayTracer(scene))
+                .setImageWriter(writer)
+                .setLocation(Point.ZERO)
+                .setDirection(new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVpDistance(100).setVpSize(100, 100)
+                .build()
+                .setProgressPrintMode(Camera.ProgressPrintMode.NONE);
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Without a time budget or a threshold, all the passes are rendered - a ray for each pixel in each
+        camera.renderProgressive(8, 0, 0);
+        assertEquals(8, writer.getPasses(), "Wrong amount of passes");
+        assertEquals(8 * 10 * 10, camera.getRenderStats().getPrimaryRays(), "Wrong amount of rays");
+        double error = camera.getProgressiveError();
+        assertTrue(error > 0, "The sphere's edge did not add any noise");
+
+        // TC02: The render stops once the image converged
+        camera.renderProgressive(1000, 0, error);
+        assertTrue(writer.getPasses() < 1000, "The render did not stop once the image converged");
+        assertTrue(camera.getProgressiveError() <= error, "The render stopped before the image converged");
+
+        // TC03: The render stops once the time budget is spent
+        camera.renderProgressive(1000, 1, 0);
+        assertTrue(writer.getPasses() < 1000, "The render did not stop once the time budget was spent");
+
+        // TC04: No passes
+        assertThrows(IllegalArgumentException.class, () -> camera.renderProgressive(0, 0, 0),
+                "Rendered without passes");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC05: A single pass - the image is ready, and there is no error estimate yet
+        camera.renderProgressive(1, 0, 0);
+        assertEquals(1, writer.getPasses(), "Wrong amount of passes");
+        assertEquals(Double.POSITIVE_INFINITY, camera.getProgressiveError(), "Estimated an error from a single ray");
+
+        // TC06: The last snapshot is on the disk once the render returns
+        File snapshot = new File(System.getProperty("user.dir") + "/images/progressive test.png");
+        snapshot.delete();
+        camera.setProgressiveSnapshots(1, 0).renderProgressive(2, 0, 0);
+        assertTrue(snapshot.exists(), "The last snapshot was not written");
+
+        // TC07: A snapshot that can not be written fails the render
+        File blocker = new File(System.getProperty("user.dir") + "/images/progressive blocker");
+        blocker.getParentFile().mkdirs();
+        blocker.createNewFile();
+        assertThrows(IllegalStateException.class, () -> Camera.getBuilder()
+                .setRayTracer(new SimpleRayTracer(scene))
+                .setImageWriter(new ImageWriter("progressive blocker/snapshot", 10, 10))
+                .setLocation(Point.ZERO)
+                .setDirection(new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVpDistance(100).setVpSize(100, 100)
+                .build()
+                .setProgressPrintMode(Camera.ProgressPrintMode.NONE)
+                .setProgressiveSnapshots(1, 0)
+                .renderProgressive(2, 0, 0), "A failed snapshot was ignored");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#printGrid(int, Color)}.
+     */
+    @Test
+    void testPrintGrid() throws Exception {
+        Scene scene = new Scene("Grid test").setBackground(new Color(0, 0, 255));
+        ImageWriter writer = new ImageWriter("grid test", 10, 10);
+        Camera camera = Camera.getBuilder()
+                .setRayTracer(new SimpleRayTracer(scene))
+                .setImageWriter(writer)
+                .setLocation(Point.ZERO)
+                .setDirection(new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVpDistance(100).setVpSize(100, 100)
+                .build()
+                .setProgressPrintMode(Camera.ProgressPrintMode.NONE);
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: The grid over a progressive render has exactly the grid's color, and is not averaged with the passes
+        camera.renderProgressive(4, 0, 0).printGrid(5, new Color(255, 0, 0));
+        BufferedImage image = ImageIO.read(writer.writeToImage());
+        assertEquals(0xFF0000, image.getRGB(0, 0) & 0xFFFFFF, "The grid was averaged with the passes");
+        assertEquals(0xFF0000, image.getRGB(5, 3) & 0xFFFFFF, "The grid was averaged with the passes");
+        assertEquals(0x0000FF, image.getRGB(3, 3) & 0xFFFFFF, "The grid covered a pixel off its lines");
+
+        // TC02: A plain render after the progressive one overwrites the grid instead of blending with it
+        camera.renderImage();
+        image = ImageIO.read(writer.writeToImage());
+        assertFalse(writer.isHdrBufferEnabled(), "The progressive render left the buffer enabled");
+        assertEquals(0x0000FF, image.getRGB(0, 0) & 0xFFFFFF, "The render was blended with the grid");
+    }
+
+    /**
+     * Directory for the checkpoints of the tests
+     */
+    @TempDir
+    Path checkpoints;
+
+    /**
+     * Ray tracer that fails once it traced a given amount of rays, like a render killed on its way
+     */
+    private static class FailingTracer extends SimpleRayTracer {
+        /**
+         * The amount of rays left until the tracer fails
+         */
+        private int raysLeft;
+
+        /**
+         * Constructor that initializes the tracer with the given scene and the rays until it fails
+         *
+         * @param scene    a scene for the tracer
+         * @param raysLeft the amount of rays until the tracer fails
+         */
+        FailingTracer(Scene scene, int raysLeft) {
+            super(scene);
+            this.raysLeft = raysLeft;
+        }
+
+        @Override
+        public Color traceRay(Ray ray) {
+            if (--raysLeft < 0)
+                throw new IllegalStateException("Render killed");
+            return super.traceRay(ray);
+        }
+    }
+
+    /**
+     * Renders a sphere scene with the given tracer and checkpoints, and writes the image
+     *
+     * @param tracer the tracer of the scene
+     * @param name   the name of the image
+     * @return the camera that rendered the image
+     */
+    private Camera renderCheckpointed(RayTracerBase tracer, String name) {
+        return Camera.getBuilder()
+                .setRayTracer(tracer)
+                .setImageWriter(new ImageWriter(name, 10, 10))
+                .setLocation(Point.ZERO)
+                .setDirection(new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVpDistance(100).setVpSize(100, 100)
+                .build()
+                .setProgressPrintMode(Camera.ProgressPrintMode.NONE)
+                .enableCheckpoints(checkpoints, 0)
+                .renderImage();
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#enableCheckpoints(Path, long)}.
+     */
+    @Test
+    void testEnableCheckpoints() throws Exception {
+        Scene scene = new Scene("Checkpoint test");
+        scene.geometries.add(new Sphere(new Point(0, 0, -100), 30d).setEmission(new Color(255, 100, 50)));
+        Path checkpoint = checkpoints.resolve("checkpoint test.checkpoint");
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: An interrupted render keeps its completed pixels in the checkpoint
+        assertThrows(IllegalStateException.class,
+                () -> renderCheckpointed(new FailingTracer(scene, 60), "checkpoint test"),
+                "The tracer did not fail");
+        assertTrue(Files.exists(checkpoint), "The interrupted render left no checkpoint");
+
+        // TC02: The resumed render only traces the missing pixels, and gives the same image as a full render
+        Camera resumed = renderCheckpointed(new SimpleRayTracer(scene), "checkpoint test");
+        assertEquals(40, resumed.getRenderStats().getPrimaryRays(), "The resumed render traced completed pixels");
+        assertFalse(Files.exists(checkpoint), "The completed render did not delete its checkpoint");
+        BufferedImage resumedImage = ImageIO.read(resumed.writeToImage());
+        BufferedImage fullImage = ImageIO.read(
+                renderCheckpointed(new SimpleRayTracer(scene), "checkpoint full").writeToImage());
+        for (int y = 0; y < 10; ++y)
+            for (int x = 0; x < 10; ++x)
+                assertEquals(fullImage.getRGB(x, y), resumedImage.getRGB(x, y), "Wrong resumed pixel");
+
+        // TC03: A checkpoint of another scene is not resumed
+        assertThrows(IllegalStateException.class,
+                () -> renderCheckpointed(new FailingTracer(scene, 60), "checkpoint test"),
+                "The tracer did not fail");
+        Scene moved = new Scene("Checkpoint test");
+        moved.geometries.add(new Sphere(new Point(0, 10, -100), 30d).setEmission(new Color(255, 100, 50)));
+        assertEquals(100, renderCheckpointed(new SimpleRayTracer(moved), "checkpoint test")
+                .getRenderStats().getPrimaryRays(), "A checkpoint of another scene was resumed");
+
+        // TC04: A checkpoint lit by a light of another color or position is not resumed
+        scene.lights.add(new PointLight(new Color(100, 100, 100), new Point(50, 50, 0)).setKl(0.001));
+        Scene recolored = new Scene("Checkpoint test");
+        recolored.geometries = scene.geometries;
+        recolored.lights.add(new PointLight(new Color(100, 0, 0), new Point(50, 50, 0)).setKl(0.001));
+        Scene relit = new Scene("Checkpoint test");
+        relit.geometries = scene.geometries;
+        relit.lights.add(new PointLight(new Color(100, 100, 100), new Point(-50, 50, 0)).setKl(0.001));
+        for (Scene changed : new Scene[]{recolored, relit}) {
+            assertThrows(IllegalStateException.class,
+                    () -> renderCheckpointed(new FailingTracer(scene, 60), "checkpoint test"),
+                    "The tracer did not fail");
+            assertEquals(100, renderCheckpointed(new SimpleRayTracer(changed), "checkpoint test")
+                    .getRenderStats().getPrimaryRays(), "A checkpoint of another light was resumed");
+        }
+
+        // TC05: A multithreaded render whose worker fails keeps its checkpoint, and is resumed
+        assertThrows(IllegalStateException.class, () -> Camera.getBuilder()
+                .setRayTracer(new FailingTracer(scene, 60))
+                .setImageWriter(new ImageWriter("checkpoint test", 10, 10))
+                .setLocation(Point.ZERO)
+                .setDirection(new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVpDistance(100).setVpSize(100, 100)
+                .build()
+                .setProgressPrintMode(Camera.ProgressPrintMode.NONE)
+                .enableMultiThreading(2, 2)
+                .enableCheckpoints(checkpoints, 0)
+                .renderImage(), "The failure of a worker was swallowed");
+        assertTrue(Files.exists(checkpoint), "The failed multithreaded render deleted its checkpoint");
+        assertTrue(renderCheckpointed(new SimpleRayTracer(scene), "checkpoint test").getRenderStats()
+                .getPrimaryRays() < 100, "The checkpoint of the failed multithreaded render was not resumed");
+
+        // TC06: The resumed pixels keep the amount of rays they got before the render was interrupted
+        assertThrows(IllegalStateException.class,
+                () -> renderCheckpointed(new FailingTracer(scene, 60), "checkpoint test"),
+                "The tracer did not fail");
+        BufferedImage samplesImage = ImageIO.read(renderCheckpointed(new SimpleRayTracer(scene), "checkpoint test")
+                .writeSamplesImage("checkpoint samples"));
+        assertEquals(0xFFFFFF, samplesImage.getRGB(0, 0) & 0xFFFFFF, "A resumed pixel lost its rays");
+
+        // TC07: Checkpoints can not resume the linear colors of the HDR buffer
+        assertThrows(IllegalStateException.class, () -> Camera.getBuilder()
+                .setRayTracer(new SimpleRayTracer(scene))
+                .setImageWriter(new ImageWriter("checkpoint hdr", 10, 10).enableHdrBuffer())
+                .setLocation(Point.ZERO)
+                .setDirection(new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVpDistance(100).setVpSize(100, 100)
+                .build()
+                .enableCheckpoints(checkpoints, 0)
+                .renderImage(), "Resumed a checkpoint into the HDR buffer");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC08: Negative interval
+        assertThrows(IllegalArgumentException.class, () -> cameraBuilder.setVpSize(8, 8).build()
+                .enableCheckpoints(checkpoints, -1), "Accepted a negative checkpoint interval");
+    }
 }
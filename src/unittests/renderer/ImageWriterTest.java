@@ -3,6 +3,17 @@ package renderer;
 import org.junit.jupiter.api.Test;
 import primitives.Color;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
 /**
  * Elementary tests for the camera's image writer
  *
@@ -46,4 +57,103 @@ public class ImageWriterTest {
         }
         imageWriter.writeToImage();
     }
+
+    /**
+     * Test method for {@link renderer.ImageWriter#writeToImage()}.
+     */
+    @Test
+    void testWriteToImage() throws Exception {
+        ImageWriter writer = new ImageWriter(subFolder + "blocking test", 2, 2);
+        writer.writePixel(0, 0, new Color(10, 20, 30));
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: The image is on the disk once the method returns
+        assertEquals(0x0A141E, ImageIO.read(writer.writeToImage()).getRGB(0, 0) & 0xFFFFFF,
+                "Wrong color of a written pixel");
+
+        // TC02: A file that can not be written fails the method, and fails the background writing
+        File blocker = new File(System.getProperty("user.dir") + "/images/" + subFolder + "blocker");
+        blocker.getParentFile().mkdirs();
+        blocker.createNewFile();
+        ImageWriter failing = new ImageWriter(subFolder + "blocker/failed", 1, 1);
+        assertThrows(IllegalStateException.class, failing::writeToImage, "Ignored a failed writing");
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> failing.writeToImageAsync().get(),
+                "Ignored a failed background writing");
+        assertInstanceOf(IllegalStateException.class, failure.getCause(), "Wrong failure of the background writing");
+    }
+
+    /**
+     * Test method for {@link renderer.ImageWriter#writeToImageAsync()}.
+     */
+    @Test
+    void testWriteToImageAsync() throws Exception {
+        ImageWriter writer = new ImageWriter(subFolder + "async test", 2, 2);
+        writer.writePixel(0, 0, new Color(10, 20, 30));
+        writer.writePixel(1, 1, new Color(300, 128, 5));
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: The image is written as it was when the writing was requested, even if the pixels change after it
+        Future<File> writing = writer.writeToImageAsync();
+        writer.writePixel(0, 0, new Color(200, 200, 200));
+        BufferedImage image = ImageIO.read(writing.get());
+        assertEquals(0x0A141E, image.getRGB(0, 0) & 0xFFFFFF, "Wrong color of a written pixel");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC02: A component above 255 is written as 255
+        assertEquals(0xFF8005, image.getRGB(1, 1) & 0xFFFFFF, "A bright component was not clamped");
+
+        // TC03: An unwritten pixel is black
+        assertEquals(0, image.getRGB(1, 0) & 0xFFFFFF, "An unwritten pixel is not black");
+    }
+
+    /**
+     * Test method for {@link renderer.ImageWriter#writeHdrImage()}.
+     */
+    @Test
+    void testWriteHdrImage() throws Exception {
+        ImageWriter writer = new ImageWriter(subFolder + "hdr test", 2, 2).enableHdrBuffer();
+        writer.startPass();
+        writer.accumulatePixel(0, 0, new Color(600, 0, 0));
+        writer.accumulatePixel(1, 1, new Color(10, 20, 30));
+        writer.startPass();
+        writer.accumulatePixel(0, 0, new Color(200, 0, 0));
+        writer.accumulatePixel(1, 1, new Color(10, 20, 30));
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: The file keeps the unclamped average of the passes, with the bottom row first
+        byte[] bytes = Files.readAllBytes(writer.writeHdrImage().get().toPath());
+        String header = "PF\n2 2\n-1.0\n";
+        assertEquals(header, new String(bytes, 0, header.length()), "Wrong PFM header");
+        ByteBuffer colors = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(400, colors.getFloat(header.length() + 6 * Float.BYTES), 1e-4, "Wrong linear color of the top row");
+        assertEquals(30, colors.getFloat(header.length() + 5 * Float.BYTES), 1e-4, "Wrong linear color of the bottom row");
+
+        // TC02: Re-exposing the image scales the average before it is clamped
+        BufferedImage image = ImageIO.read(writer.expose(0.5).writeToImage());
+        assertEquals(0xC80000, image.getRGB(0, 0) & 0xFFFFFF, "Wrong color of a re-exposed pixel");
+        assertEquals(2, writer.getPasses(), "Wrong amount of passes");
+
+        // TC03: Negative exposure
+        assertThrows(IllegalArgumentException.class, () -> writer.expose(-1), "Accepted a negative exposure");
+
+        // TC04: A written pixel replaces the accumulated passes, in the image and in the file
+        writer.writePixel(0, 0, new Color(0, 0, 255));
+        image = ImageIO.read(writer.writeToImage());
+        assertEquals(0x0000FF, image.getRGB(0, 0) & 0xFFFFFF, "A written pixel was averaged with the passes");
+        colors = ByteBuffer.wrap(Files.readAllBytes(writer.writeHdrImage().get().toPath())).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(255, colors.getFloat(header.length() + 8 * Float.BYTES), 1e-4,
+                "A written pixel was averaged with the passes in the buffer");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC05: A writer without the buffer
+        ImageWriter plain = new ImageWriter(subFolder + "hdr test", 2, 2);
+        plain.startPass();
+        assertEquals(0, plain.getPasses(), "A writer without the buffer counted a pass");
+        assertThrows(IllegalStateException.class, plain::writeHdrImage, "Wrote a PFM file without the buffer");
+    }
 }
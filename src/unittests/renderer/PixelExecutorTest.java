@@ -0,0 +1,143 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static renderer.Camera.SchedulingMode.*;
+
+/**
+ * Tests for the pixel executor, in all of its scheduling modes
+ */
+class PixelExecutorTest {
+
+    /**
+     * Renders an image with the given configuration and checks that every pixel was rendered exactly once,
+     * and that all the pixels were reported to the listener
+     *
+     * @param threads  the amount of threads
+     * @param nX       the amount of horizontal pixels
+     * @param nY       the amount of vertical pixels
+     * @param tileSize the tile's side length
+     * @param mode     the scheduling mode of the render
+     */
+    private void assertAllPixelsRendered(int threads, int nX, int nY, int tileSize, Camera.SchedulingMode mode) {
+        AtomicIntegerArray renderCounts = new AtomicIntegerArray(nX * nY);
+        AtomicInteger reportedPixels = new AtomicInteger(0);
+
+        PixelExecutor executor = new PixelExecutor(threads, nX, nY, tileSize);
+        executor.setPixelsCompleteListener(reportedPixels::addAndGet);
+        PixelExecutor.PixelRenderer renderer = (col, row) -> renderCounts.incrementAndGet(row * nX + col);
+        switch (mode) {
+            case TILES -> executor.render(renderer);
+            case WORK_STEALING -> executor.renderWorkStealing(renderer);
+            case VIRTUAL_THREADS -> executor.renderVirtualThreads(renderer);
+        }
+
+        for (int i = 0; i < nX * nY; ++i)
+            assertEquals(1, renderCounts.get(i), "Pixel (" + i % nX + ", " + i / nX + ") was not rendered once");
+        assertEquals(nX * nY, reportedPixels.get(), "Wrong amount of reported pixels");
+        assertEquals(nX * nY, executor.getWorkerReports().stream().mapToInt(PixelExecutor.WorkerReport::pixels).sum(),
+                "Wrong amount of pixels in the workers' reports");
+    }
+
+    /**
+     * Renders an image whose renderer fails on a single pixel, and checks that the failure is thrown
+     *
+     * @param mode the scheduling mode of the render
+     */
+    private void assertFailureThrown(Camera.SchedulingMode mode) {
+        PixelExecutor executor = new PixelExecutor(4, 32, 32, 4);
+        PixelExecutor.PixelRenderer renderer = (col, row) -> {
+            if (col == 17 && row == 9)
+                throw new IllegalStateException("Pixel failed");
+        };
+        IllegalStateException failure = assertThrows(IllegalStateException.class, () -> {
+            switch (mode) {
+                case TILES -> executor.render(renderer);
+                case WORK_STEALING -> executor.renderWorkStealing(renderer);
+                case VIRTUAL_THREADS -> executor.renderVirtualThreads(renderer);
+            }
+        }, "The failure of a pixel was swallowed");
+        //the fork-join pool may wrap the failure of another thread in a copy of it
+        assertTrue(failure.getMessage().contains("Pixel failed"), "Wrong failure was thrown");
+    }
+
+    /**
+     * Test method for {@link renderer.PixelExecutor#render(PixelExecutor.PixelRenderer)}.
+     */
+    @Test
+    void testRender() {
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Image size is a multiple of the tile size
+        assertAllPixelsRendered(4, 64, 32, 16, TILES);
+
+        // TC02: Image size is not a multiple of the tile size, the edge tiles are partial
+        assertAllPixelsRendered(3, 50, 37, 16, TILES);
+
+        // =============== Boundary Values Tests ==================
+
+        // TC03: A single tile bigger than the whole image
+        assertAllPixelsRendered(4, 10, 7, 64, TILES);
+
+        // TC04: Tiles of a single pixel
+        assertAllPixelsRendered(4, 13, 9, 1, TILES);
+
+        // TC05: Tile size of zero
+        assertThrows(IllegalArgumentException.class, () -> new PixelExecutor(4, 10, 10, 0),
+                "Constructed an executor with tile size of zero");
+
+        // TC06: A pixel that fails - the failure is thrown after all the workers stopped
+        assertFailureThrown(TILES);
+    }
+
+    /**
+     * Test method for {@link renderer.PixelExecutor#renderWorkStealing(PixelExecutor.PixelRenderer)}.
+     */
+    @Test
+    void testRenderWorkStealing() {
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Image size is a multiple of the tile size
+        assertAllPixelsRendered(4, 64, 32, 16, WORK_STEALING);
+
+        // TC02: Image size is not a multiple of the tile size, the regions are split unevenly
+        assertAllPixelsRendered(3, 50, 37, 16, WORK_STEALING);
+
+        // =============== Boundary Values Tests ==================
+
+        // TC03: A single region smaller than a tile
+        assertAllPixelsRendered(4, 10, 7, 64, WORK_STEALING);
+
+        // TC04: Regions split down to a single pixel
+        assertAllPixelsRendered(4, 13, 9, 1, WORK_STEALING);
+
+        // TC05: A pixel that fails - the failure is thrown
+        assertFailureThrown(WORK_STEALING);
+    }
+
+    /**
+     * Test method for {@link renderer.PixelExecutor#renderVirtualThreads(PixelExecutor.PixelRenderer)}.
+     */
+    @Test
+    void testRenderVirtualThreads() {
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Image size is a multiple of the tile size
+        assertAllPixelsRendered(1, 64, 32, 16, VIRTUAL_THREADS);
+
+        // TC02: Image size is not a multiple of the tile size, the edge tiles are partial
+        assertAllPixelsRendered(1, 50, 37, 16, VIRTUAL_THREADS);
+
+        // =============== Boundary Values Tests ==================
+
+        // TC03: Tiles of a single pixel
+        assertAllPixelsRendered(1, 13, 9, 1, VIRTUAL_THREADS);
+
+        // TC04: A pixel that fails - the failure is thrown after all the tiles are done
+        assertFailureThrown(VIRTUAL_THREADS);
+    }
+}
@@ -0,0 +1,79 @@
+package renderer;
+
+import geometries.Plane;
+import geometries.Sphere;
+import lighting.PointLight;
+import primitives.Color;
+import primitives.Material;
+import primitives.Point;
+import primitives.Vector;
+import scene.Scene;
+
+/**
+ * The scene and the camera shared by the tests that count the rays of a whole render - a sphere over a plane,
+ * lit by a single point light, rendered into a small image that is never written
+ */
+final class RenderFixture {
+    /**
+     * The amount of pixels in each side of the rendered images
+     */
+    static final int IMAGE_SIZE = 20;
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private RenderFixture() {
+    }
+
+    /**
+     * Builds a scene of a sphere over a plane, lit by a single point light
+     *
+     * @param name           the name of the scene
+     * @param sphereMaterial the material of the sphere
+     * @param planeMaterial  the material of the plane
+     * @return the scene
+     */
+    static Scene sceneBuilder(String name, Material sphereMaterial, Material planeMaterial) {
+        Scene scene = new Scene(name);
+        scene.geometries.add(
+                new Sphere(new Point(0, 0, 0), 50d).setEmission(new Color(100, 40, 20)).setMaterial(sphereMaterial),
+                new Plane(new Point(0, -50, 0), new Vector(0, 1, 0)).setMaterial(planeMaterial));
+        scene.lights.add(new PointLight(new Color(500, 500, 500), new Point(100, 200, 200)));
+        return scene;
+    }
+
+    /**
+     * Renders the scene of the given tracer with a recursion depth of 3, without writing the image
+     *
+     * @param tracer       the tracer of the scene
+     * @param threadsCount the amount of rendering threads
+     * @return the statistics of the render
+     */
+    static RenderStats render(RayTracerBase tracer, int threadsCount) {
+        return render(tracer, threadsCount, 4, Camera.SchedulingMode.TILES);
+    }
+
+    /**
+     * Renders the scene of the given tracer with a recursion depth of 3, without writing the image
+     *
+     * @param tracer         the tracer of the scene
+     * @param threadsCount   the amount of rendering threads
+     * @param tileSize       the length (in pixels) of each tile's side
+     * @param schedulingMode the scheduling mode of the pixels between the threads
+     * @return the statistics of the render
+     */
+    static RenderStats render(RayTracerBase tracer, int threadsCount, int tileSize,
+                              Camera.SchedulingMode schedulingMode) {
+        Camera camera = Camera.getBuilder()
+                .setLocation(new Point(0, 0, 500)).setDirection(Vector.BACKWARDS, Vector.UP)
+                .setVpDistance(500).setVpSize(250, 250)
+                .setImageWriter(new ImageWriter("render fixture", IMAGE_SIZE, IMAGE_SIZE))
+                .setRayTracer(tracer)
+                .build()
+                .setProgressPrintMode(Camera.ProgressPrintMode.NONE)
+                .setSchedulingMode(schedulingMode);
+        if (threadsCount > 1)
+            camera.enableMultiThreading(threadsCount, tileSize);
+        return camera.renderImage(3).getRenderStats();
+    }
+}
@@ -0,0 +1,70 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import primitives.Material;
+import scene.Scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the render statistics filled in by the camera
+ */
+class RenderStatsTest {
+
+    /**
+     * Builds a scene of a reflective sphere over a plane
+     *
+     * @return the scene
+     */
+    private Scene sceneBuilder() {
+        return RenderFixture.sceneBuilder("Stats scene",
+                new Material().setKd(0.5).setKs(0.5).setShininess(30).setKr(0.5), new Material().setKd(0.5));
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#getRenderStats()}.
+     */
+    @Test
+    void testGetRenderStats() {
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Single-threaded render - every kind of ray and geometry is counted
+        RenderStats stats = RenderFixture.render(new SimpleRayTracer(sceneBuilder()), 1);
+        assertEquals(RenderFixture.IMAGE_SIZE * RenderFixture.IMAGE_SIZE, stats.getPrimaryRays(),
+                "Wrong amount of primary rays");
+        assertTrue(stats.getShadowRays() > 0, "No shadow rays were counted");
+        assertTrue(stats.getReflectionRays() > 0, "No reflection rays were counted");
+        assertEquals(0, stats.getRefractionRays(), "Counted refraction rays in a scene without transparency");
+        assertTrue(stats.getAverageRayDepth() > 0 && stats.getAverageRayDepth() < 1,
+                "Wrong average depth of the rays");
+        assertTrue(stats.getIntersectionTests().get("Sphere") > 0, "No sphere intersection tests were counted");
+        assertTrue(stats.getIntersectionTests().get("Plane") > 0, "No plane intersection tests were counted");
+        assertEquals(0, stats.getVoxelsVisited(), "Counted voxels without a voxel grid");
+        assertTrue(stats.getRenderNanos() > 0, "The render time was not measured");
+
+        // TC02: Multithreaded render - the counters of all the threads are summed
+        RenderStats threadedStats = RenderFixture.render(new SimpleRayTracer(sceneBuilder()), 4);
+        assertEquals(stats.getPrimaryRays(), threadedStats.getPrimaryRays(), "Wrong amount of primary rays");
+        assertEquals(stats.getShadowRays(), threadedStats.getShadowRays(), "Wrong amount of shadow rays");
+        assertEquals(stats.getReflectionRays(), threadedStats.getReflectionRays(), "Wrong amount of reflection rays");
+        assertEquals(stats.getIntersectionTests(), threadedStats.getIntersectionTests(),
+                "Wrong amount of intersection tests");
+
+        // TC03: Voxel grid tracer - the visited voxels and the grid's build time are counted
+        RenderStats voxelStats = RenderFixture.render(new VoxelRayTracer(sceneBuilder()), 1);
+        assertTrue(voxelStats.getVoxelsVisited() > 0, "No visited voxels were counted");
+        assertTrue(voxelStats.getBuildNanos() > 0, "The grid's build time was not measured");
+        //the plane is kept out of the grid, so each ray tests it once - including the shadow rays
+        assertTrue(voxelStats.getIntersectionTests().get("Plane")
+                        >= voxelStats.getPrimaryRays() + voxelStats.getReflectionRays() + voxelStats.getShadowRays(),
+                "The plane's tests by the shadow rays were not counted");
+
+        // TC04: Virtual thread for each pixel - the workers are reused by the threads instead of allocated for each
+        RenderStats virtualStats = RenderFixture.render(new VoxelRayTracer(sceneBuilder()), 2, 1,
+                Camera.SchedulingMode.VIRTUAL_THREADS);
+        assertEquals(voxelStats.getIntersectionTests(), virtualStats.getIntersectionTests(),
+                "Wrong amount of intersection tests");
+        assertTrue(virtualStats.getWorkersCount() <= Runtime.getRuntime().availableProcessors(),
+                "A worker was allocated for each virtual thread");
+    }
+}
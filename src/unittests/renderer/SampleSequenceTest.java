@@ -0,0 +1,150 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Vector;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the sample sequences
+ */
+class SampleSequenceTest {
+
+    /**
+     * The amount of random sets each error measurement is averaged over
+     */
+    private static final int TRIALS = 2000;
+
+    /**
+     * Measures the error of estimating the area of the disk inscribed in the unit square with sets of
+     * the given sequence - the same estimate a pixel's beam makes when an edge passes through the pixel
+     *
+     * @param sequence the sequence of the points
+     * @param count    the amount of points in each set
+     * @return the root-mean-square error of the estimate over many random sets
+     */
+    private double diskError(SampleSequence sequence, int count) {
+        Random random = new Random(1);
+        double squaredErrors = 0;
+        for (int trial = 0; trial < TRIALS; ++trial) {
+            double[] points = sequence.generate(count, random);
+            int inside = 0;
+            for (int i = 0; i < count; ++i) {
+                double x = points[i * 2] - 0.5;
+                double y = points[i * 2 + 1] - 0.5;
+                if (x * x + y * y < 0.25)
+                    ++inside;
+            }
+            double error = inside / (double) count - Math.PI / 4;
+            squaredErrors += error * error;
+        }
+        return Math.sqrt(squaredErrors / TRIALS);
+    }
+
+    /**
+     * Measures the same error as {@link #diskError(SampleSequence, int)} with independent random points
+     *
+     * @param count the amount of points in each set
+     * @return the root-mean-square error of the estimate over many random sets
+     */
+    private double randomDiskError(int count) {
+        Random random = new Random(1);
+        double squaredErrors = 0;
+        for (int trial = 0; trial < TRIALS; ++trial) {
+            int inside = 0;
+            for (int i = 0; i < count; ++i) {
+                double x = random.nextDouble() - 0.5;
+                double y = random.nextDouble() - 0.5;
+                if (x * x + y * y < 0.25)
+                    ++inside;
+            }
+            double error = inside / (double) count - Math.PI / 4;
+            squaredErrors += error * error;
+        }
+        return Math.sqrt(squaredErrors / TRIALS);
+    }
+
+    /**
+     * Test method for {@link renderer.SampleSequence#generate(int, java.util.random.RandomGenerator)}.
+     */
+    @Test
+    void testGenerate() {
+        Random random = new Random(3);
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Exactly the requested amount of points, all inside the unit square
+        for (SampleSequence sequence : SampleSequence.values()) {
+            for (int count : new int[]{7, 16, 100, 1500}) {
+                double[] points = sequence.generate(count, random);
+                assertEquals(count * 2, points.length, "Wrong amount of points for " + sequence);
+                for (double coordinate : points)
+                    assertTrue(coordinate >= 0 && coordinate < 1, "A point of " + sequence + " is out of the square");
+            }
+        }
+
+        // TC02: 16 Sobol points - one point in each cell of a 4x4 grid, and in each of 16 strips
+        double[] points = SampleSequence.SOBOL.generate(16, random);
+        boolean[] cells = new boolean[16];
+        boolean[] columns = new boolean[16];
+        boolean[] rows = new boolean[16];
+        for (int i = 0; i < 16; ++i) {
+            cells[(int) (points[i * 2] * 4) * 4 + (int) (points[i * 2 + 1] * 4)] = true;
+            columns[(int) (points[i * 2] * 16)] = true;
+            rows[(int) (points[i * 2 + 1] * 16)] = true;
+        }
+        for (int i = 0; i < 16; ++i) {
+            assertTrue(cells[i], "The Sobol points missed a grid cell");
+            assertTrue(columns[i], "The Sobol points missed a column strip");
+            assertTrue(rows[i], "The Sobol points missed a row strip");
+        }
+
+        // TC03: The low-discrepancy sequences estimate a pixel's edge coverage better than the jittered grid
+        // with the same amount of rays, and better than independent random points with twice the rays
+        double jitteredError = diskError(SampleSequence.JITTERED, 32);
+        double randomError = randomDiskError(64);
+        for (SampleSequence sequence : SampleSequence.values()) {
+            if (sequence == SampleSequence.JITTERED)
+                continue;
+            double error = diskError(sequence, 32);
+            assertTrue(error < jitteredError, sequence + " error is not lower than the jittered grid's");
+            assertTrue(error < randomError, sequence + " error is not lower than random points' with twice the rays");
+        }
+
+        // =============== Boundary Values Tests ==================
+
+        // TC04: A single point
+        for (SampleSequence sequence : SampleSequence.values())
+            assertEquals(2, sequence.generate(1, random).length, "Wrong amount of points for " + sequence);
+
+        // TC05: More points than the blue-noise tile - the tile is repeated
+        points = SampleSequence.BLUE_NOISE.generate(3000, random);
+        for (double coordinate : points)
+            assertTrue(coordinate >= 0 && coordinate < 1, "A repeated blue-noise point is out of the square");
+    }
+
+    /**
+     * Test method for {@link renderer.SquareBlackboard#randomizePoints(int)}.
+     */
+    @Test
+    void testRandomizePoints() {
+        SquareBlackboard jittered = new SquareBlackboard(2, Point.ZERO, Vector.FORWARDS, 9);
+        SquareBlackboard sobol = new SquareBlackboard(2, Point.ZERO, Vector.FORWARDS, 9,
+                SampleSequence.SOBOL);
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: The jittered grid rounds the amount up to the same amount of points in each cell
+        assertEquals(81, jittered.randomizePoints(16).size(), "Wrong amount of jittered points");
+
+        // TC02: A sequence gives exactly the requested amount, inside the blackboard
+        var points = sobol.randomizePoints(16);
+        assertEquals(16, points.size(), "Wrong amount of sequence points");
+        for (var point : points)
+            assertTrue(Math.abs(point.getX()) <= 1 && Math.abs(point.getY()) <= 1 && Math.abs(point.getZ()) < 1e-9,
+                    "A sequence point is out of the blackboard: " + point);
+    }
+}
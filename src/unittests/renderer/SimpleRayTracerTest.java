@@ -0,0 +1,92 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import primitives.Material;
+import scene.Scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the simple ray tracer
+ */
+class SimpleRayTracerTest {
+
+    /**
+     * Builds a scene of a sphere over a glossy mirror
+     *
+     * @return the scene
+     */
+    private Scene sceneBuilder() {
+        return RenderFixture.sceneBuilder("Glossy scene", new Material().setKd(0.5).setKs(0.5).setShininess(30),
+                new Material().setKd(0.2).setKr(0.8).setReflectionBlur(20, 32));
+    }
+
+    /**
+     * Renders the glossy scene with the given tracer on a single thread
+     *
+     * @param tracer the tracer of the scene
+     * @return the statistics of the render
+     */
+    private RenderStats render(SimpleRayTracer tracer) {
+        return RenderFixture.render(tracer, 1);
+    }
+
+    /**
+     * Test method for {@link renderer.SimpleRayTracer#enableAdaptiveSampling(int, double)}.
+     */
+    @Test
+    void testEnableAdaptiveSampling() {
+        SimpleRayTracer tracer = new SimpleRayTracer(sceneBuilder());
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Adaptive beams cast fewer reflection rays than the material's full amount
+        long fullRays = render(new SimpleRayTracer(sceneBuilder())).getReflectionRays();
+        long adaptiveRays = render(tracer.enableAdaptiveSampling(4, 1)).getReflectionRays();
+        assertTrue(adaptiveRays > 0, "No reflection rays were cast by the adaptive beams");
+        assertTrue(adaptiveRays < fullRays, "The adaptive beams did not cast fewer reflection rays");
+
+        // TC02: Negative threshold
+        assertThrows(IllegalArgumentException.class, () -> tracer.enableAdaptiveSampling(4, -1),
+                "Accepted a negative threshold");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC03: A single ray in each batch - the variance cannot be estimated
+        assertThrows(IllegalArgumentException.class, () -> tracer.enableAdaptiveSampling(1, 1),
+                "Accepted batches of a single ray");
+
+        // TC04: Zero threshold - the beams never settle early, but still shrink with the contribution
+        long exactRays = render(new SimpleRayTracer(sceneBuilder()).enableAdaptiveSampling(4, 0)).getReflectionRays();
+        assertTrue(exactRays >= adaptiveRays, "A zero threshold cast fewer rays than a positive one");
+        assertTrue(exactRays < fullRays, "A zero threshold did not shrink the beams");
+    }
+
+    /**
+     * Test method for {@link renderer.SimpleRayTracer#enableRussianRoulette(int)}.
+     */
+    @Test
+    void testEnableRussianRoulette() {
+        RenderStats fullStats = render(new SimpleRayTracer(sceneBuilder()));
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: The roulette cuts some of the reflection branches, so the ray trees are shallower
+        RenderStats rouletteStats = render(new SimpleRayTracer(sceneBuilder()).enableRussianRoulette(0));
+        assertTrue(rouletteStats.getReflectionRays() < fullStats.getReflectionRays(),
+                "The roulette did not cut any reflection branch");
+        assertTrue(rouletteStats.getAverageRayDepth() < fullStats.getAverageRayDepth(),
+                "The roulette did not reduce the average ray depth");
+
+        // TC02: Negative minimum depth
+        assertThrows(IllegalArgumentException.class, () -> new SimpleRayTracer(sceneBuilder()).enableRussianRoulette(-1),
+                "Accepted a negative minimum depth");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC03: A minimum depth beyond the recursion depth - no branch is cut
+        RenderStats deepStats = render(new SimpleRayTracer(sceneBuilder()).enableRussianRoulette(1));
+        assertEquals(fullStats.getReflectionRays(), deepStats.getReflectionRays(),
+                "The roulette cut branches before the minimum depth");
+    }
+}
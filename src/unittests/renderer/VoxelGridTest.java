@@ -0,0 +1,153 @@
+package renderer;
+
+import geometries.Geometries;
+import geometries.Sphere;
+import geometries.Triangle;
+import org.junit.jupiter.api.Test;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import scene.Scene;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the voxel grid's resolution and report
+ */
+class VoxelGridTest {
+
+    /**
+     * Builds a wide and flat scene - a board of small spheres, 400 units wide and deep and 10 units high
+     *
+     * @return the board's geometries
+     */
+    private Geometries boardBuilder() {
+        Geometries board = new Geometries();
+        for (int i = 0; i < 20; ++i)
+            for (int j = 0; j < 20; ++j)
+                board.add(new Sphere(new Point(i * 20 - 190, 0, j * 20 - 190), 5d));
+        return board;
+    }
+
+    /**
+     * Test method for {@link renderer.VoxelGrid#getReport()}.
+     */
+    @Test
+    void testGetReport() {
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: The voxels follow the scene's extents - many along the wide axes, one along the flat one
+        VoxelGrid.Report report = ((VoxelGrid) new VoxelGrid(boardBuilder()).build()).getReport();
+        assertEquals(1, report.resolutionY(), "The flat axis was divided");
+        assertEquals(report.resolutionX(), report.resolutionZ(), "The equal axes got different resolutions");
+        assertTrue(report.voxels() >= 400 * VoxelGrid.DEFAULT_DENSITY * 0.8
+                        && report.voxels() <= 400 * VoxelGrid.DEFAULT_DENSITY * 1.2,
+                "The amount of voxels does not follow the density: " + report);
+        assertEquals(400, report.geometries(), "Wrong amount of geometries in the grid");
+        assertEquals(0, report.outsideGeometries(), "Geometries were kept out of the grid");
+
+        // TC02: The maximum cells budget caps the grid
+        report = ((VoxelGrid) new VoxelGrid(boardBuilder(), 10, 1, 100).build()).getReport();
+        assertTrue(report.voxels() <= 100, "The grid exceeds the maximum budget: " + report);
+
+        // TC03: The minimum cells budget raises the grid
+        report = ((VoxelGrid) new VoxelGrid(boardBuilder(), 0.01, 900, 10000).build()).getReport();
+        assertTrue(report.voxels() >= 800, "The grid is far below the minimum budget: " + report);
+
+        // TC04: Invalid parameters
+        assertThrows(IllegalArgumentException.class, () -> new VoxelGrid(boardBuilder(), 0, 1, 100),
+                "Accepted a zero density");
+        assertThrows(IllegalArgumentException.class, () -> new VoxelGrid(boardBuilder(), 3, 100, 10),
+                "Accepted a maximum budget below the minimum");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC05: A perfectly flat scene still has voxels of a positive size, and is traced correctly
+        Scene flat = new Scene("Flat scene");
+        for (int i = 0; i < 10; ++i)
+            flat.geometries.add(new Triangle(new Point(i * 10, 0, 0), new Point(i * 10 + 8, 0, 0),
+                    new Point(i * 10, 0, 8)));
+        VoxelRayTracer tracer = new VoxelRayTracer(flat);
+        SimpleRayTracer simpleTracer = new SimpleRayTracer(flat);
+        Random random = new Random(5);
+        for (int i = 0; i < 500; ++i) {
+            Ray ray = new Ray(new Point(random.nextDouble() * 100, 50, random.nextDouble() * 10),
+                    new Vector(random.nextDouble() - 0.5, -1, random.nextDouble() - 0.5));
+            var expected = simpleTracer.findClosestIntersection(ray);
+            var actual = tracer.findClosestIntersection(ray);
+            assertEquals(expected == null ? null : expected.point, actual == null ? null : actual.point,
+                    "Wrong closest intersection in a flat scene for the ray: " + ray);
+        }
+
+        // TC06: A grid that was never built
+        assertThrows(IllegalStateException.class, () -> new VoxelGrid(boardBuilder()).getReport(),
+                "Reported a grid that was never built");
+    }
+
+    /**
+     * Test method for
+     * {@link renderer.VoxelGrid#VoxelGrid(geometries.Geometries, double, int, int, int)}.
+     */
+    @Test
+    void testHierarchicalGrid() {
+        //the board, with a dense cluster of small half-transparent spheres on one of its corners
+        Scene scene = new Scene("Cluster scene");
+        scene.geometries.add(boardBuilder());
+        Random random = new Random(17);
+        for (int i = 0; i < 200; ++i)
+            scene.geometries.add(new Sphere(new Point(random.nextDouble() * 30 - 190, random.nextDouble() * 30,
+                    random.nextDouble() * 30 - 190), 1.5).setMaterial(new Material().setKt(0.5)));
+        VoxelGrid.Report flatReport = ((VoxelGrid) new VoxelGrid(scene.geometries).build()).getReport();
+        VoxelGrid grid = new VoxelGrid(scene.geometries, VoxelGrid.DEFAULT_DENSITY, VoxelGrid.DEFAULT_MIN_CELLS,
+                VoxelGrid.DEFAULT_MAX_CELLS, 8);
+        VoxelRayTracer tracer = new VoxelRayTracer(scene, grid);
+        SimpleRayTracer simpleTracer = new SimpleRayTracer(scene);
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: The crowded voxels of the cluster are divided, and hold fewer geometries
+        VoxelGrid.Report report = grid.getReport();
+        assertTrue(report.subGrids() > 0, "No voxel was divided: " + report);
+        assertEquals(0, flatReport.subGrids(), "A grid without sub-grids divided a voxel: " + flatReport);
+        assertTrue(report.maxOccupancy() < flatReport.maxOccupancy(),
+                "The sub-grids did not lower the highest occupancy: " + report);
+
+        // TC02: The rays through the cluster find the same intersections and transparency as the simple tracer
+        for (int i = 0; i < 1000; ++i) {
+            Point head = i % 2 == 0
+                    ? new Point(random.nextDouble() * 400 - 200, 100, random.nextDouble() * 400 - 200)
+                    : new Point(random.nextDouble() * 30 - 190, random.nextDouble() * 30, random.nextDouble() * 30 - 190);
+            Point target = new Point(random.nextDouble() * 30 - 190, random.nextDouble() * 30,
+                    random.nextDouble() * 30 - 190);
+            if (head.distance(target) < 1e-3)
+                continue;
+            Ray ray = new Ray(head, target.subtract(head));
+            double maxDistance = random.nextDouble() * 300;
+            var expected = simpleTracer.findClosestIntersection(ray);
+            var actual = tracer.findClosestIntersection(ray);
+            assertEquals(expected == null ? null : expected.point, actual == null ? null : actual.point,
+                    "Wrong closest intersection for the ray: " + ray);
+            var expectedAll = simpleTracer.findGeoIntersections(ray, maxDistance);
+            var actualAll = tracer.findGeoIntersections(ray, maxDistance);
+            assertEquals(expectedAll == null ? 0 : expectedAll.size(), actualAll == null ? 0 : actualAll.size(),
+                    "Wrong intersections count for the ray: " + ray);
+            assertEquals(simpleTracer.findTransparency(ray, maxDistance), tracer.findTransparency(ray, maxDistance),
+                    "Wrong transparency for the ray: " + ray);
+        }
+
+        // TC03: Invalid threshold
+        assertThrows(IllegalArgumentException.class, () -> new VoxelGrid(scene.geometries, 3, 1, 100, 0),
+                "Accepted a zero sub-grid threshold");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC04: A threshold above the amount of geometries - no voxel is divided
+        report = ((VoxelGrid) new VoxelGrid(scene.geometries, VoxelGrid.DEFAULT_DENSITY, VoxelGrid.DEFAULT_MIN_CELLS,
+                VoxelGrid.DEFAULT_MAX_CELLS, 600).build()).getReport();
+        assertEquals(0, report.subGrids(), "A voxel below the threshold was divided");
+        assertEquals(flatReport.occupiedVoxels(), report.occupiedVoxels(), "The grid differs from the flat grid");
+    }
+}
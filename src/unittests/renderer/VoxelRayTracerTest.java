@@ -0,0 +1,55 @@
+package renderer;
+
+import geometries.Plane;
+import geometries.Sphere;
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import scene.Scene;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the voxel ray tracer. the comparison with the simple ray tracer is shared by all the accelerated
+ * tracers, in {@link AcceleratedRayTracerTest}
+ */
+class VoxelRayTracerTest {
+
+    /**
+     * Test method for {@link renderer.VoxelRayTracer#findClosestIntersection(Ray)}.
+     */
+    @Test
+    void testFindClosestIntersection() {
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Rays entering a grid of tiny voxels - the geometries right behind the entry face are found
+        Scene tinyScene = new Scene("Tiny scene");
+        for (int x = 0; x < 10; ++x)
+            for (int y = 0; y < 10; ++y)
+                for (int z = 0; z < 10; ++z)
+                    tinyScene.geometries.add(new Sphere(new Point(x * 0.02, y * 0.02, z * 0.02), 0.005));
+        SimpleRayTracer tinySimpleTracer = new SimpleRayTracer(tinyScene);
+        VoxelRayTracer tinyVoxelTracer = new VoxelRayTracer(tinyScene);
+        Random random = new Random(7);
+        for (int i = 0; i < 200; ++i) {
+            Point head = new Point(-1, random.nextDouble() * 2 - 1, random.nextDouble() * 2 - 1);
+            Point target = new Point(0, random.nextInt(10) * 0.02, random.nextInt(10) * 0.02);
+            Ray tinyRay = new Ray(head, target.subtract(head));
+            assertEquals(tinySimpleTracer.findClosestIntersection(tinyRay).point,
+                    tinyVoxelTracer.findClosestIntersection(tinyRay).point,
+                    "Wrong closest intersection behind the grid's entry face for the ray: " + tinyRay);
+        }
+
+        // =============== Boundary Values Tests ==================
+
+        // TC02: A scene of a single plane - the grid is empty, and the plane is still found
+        Scene planeScene = new Scene("Plane scene");
+        planeScene.geometries.add(new Plane(new Point(0, -10, 0), new Vector(0, 1, 0)));
+        assertEquals(new Point(0, -10, 0),
+                new VoxelRayTracer(planeScene).findClosestIntersection(new Ray(Point.ZERO, new Vector(0, -1, 0))).point,
+                "Wrong closest intersection with a plane outside the grid");
+    }
+}